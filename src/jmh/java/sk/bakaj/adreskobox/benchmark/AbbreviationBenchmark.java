@@ -0,0 +1,57 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sk.bakaj.adreskobox.service.AbbreviationService;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skracovanie adries pri rôznej veľkosti slovníka skratiek.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbbreviationBenchmark
+{
+    private static final int SIZE = 1024;
+
+    @Param({"10", "100", "1000"})
+    private int dictionarySize;
+
+    private AbbreviationService abbreviationService;
+    private String[] addresses;
+    private int index;
+
+    @Setup
+    public void createData()
+    {
+        // Slovník iba v pamäti - meranie neprepíše súbor so skratkami používateľa
+        abbreviationService = new AbbreviationService(BenchmarkData.createAbbreviations(dictionarySize));
+        Random random = new Random(42);
+        addresses = new String[SIZE];
+        for (int i = 0; i < SIZE; i++)
+        {
+            addresses[i] = BenchmarkData.createAddress(random);
+        }
+    }
+
+    @Benchmark
+    public String abbreviateAddress()
+    {
+        return abbreviationService.abbreviateAddress(addresses[index++ & (SIZE - 1)]);
+    }
+}
@@ -0,0 +1,74 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import sk.bakaj.adreskobox.model.Parent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Testovacie dáta pre merania - vždy rovnaké pre rovnaké semienko, aby sa dali behy porovnávať.
+ */
+final class BenchmarkData
+{
+    private static final String[] FIRST_NAMES = {"Ján", "Peter", "Mária", "Jana", "Ľubomír", "Zuzana",
+            "Štefan", "Katarína", "Juraj", "Eva", "Tomáš", "Lucia", "Michal", "Žofia", "Dušan", "Anna"};
+    private static final String[] LAST_NAMES = {"Novák", "Horváth", "Kováč", "Varga", "Tóth", "Baláž",
+            "Šimko", "Lukáč", "Molnár", "Krajčí", "Ďuriš", "Čierny", "Ševčík", "Žiak", "Blaho", "Oravec"};
+    private static final String[] STREETS = {"Hlavná", "Námestie slobody", "Ulica Pavla Országha Hviezdoslava",
+            "Štúrova", "Trieda Slovenského národného povstania", "Záhradnícka", "Nábrežie armádneho generála Svobodu",
+            "Mierová", "Ulica 29. augusta", "Karpatská"};
+    private static final String[][] CITIES = {{"811 01", "Bratislava"}, {"040 01", "Košice"}, {"010 01", "Žilina"},
+            {"974 01", "Banská Bystrica"}, {"080 01", "Prešov"}, {"949 01", "Nitra"}, {"917 01", "Trnava"},
+            {"911 01", "Trenčín"}, {"031 01", "Liptovský Mikuláš"}, {"058 01", "Poprad"}};
+
+    private BenchmarkData()
+    {
+    }
+
+    /**
+     * Vytvorí rodičov s rôznymi adresami.
+     */
+    static List<Parent> createParents(int count, long seed)
+    {
+        Random random = new Random(seed);
+        List<Parent> parents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            parents.add(new Parent(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES), createAddress(random)));
+        }
+        return parents;
+    }
+
+    static String createAddress(Random random)
+    {
+        String[] city = pick(random, CITIES);
+        return pick(random, STREETS) + " " + (1 + random.nextInt(250)) + ", " + city[0] + " " + city[1];
+    }
+
+    /**
+     * Vytvorí slovník skratiek so zadaným počtom položiek - skutočné skratky ulíc doplnené o umelé slová.
+     */
+    static Map<String, String> createAbbreviations(int size)
+    {
+        Map<String, String> abbreviations = new HashMap<>();
+        abbreviations.put("námestie", "nám.");
+        abbreviations.put("ulica", "ul.");
+        abbreviations.put("trieda", "tr.");
+        abbreviations.put("nábrežie", "nábr.");
+        abbreviations.put("slovenského národného povstania", "SNP");
+        abbreviations.put("armádneho generála", "arm. gen.");
+        for (int i = 0; abbreviations.size() < size; i++)
+        {
+            abbreviations.put("slovo" + i, "s" + i + ".");
+        }
+        return abbreviations;
+    }
+
+    private static <T> T pick(Random random, T[] values)
+    {
+        return values[random.nextInt(values.length)];
+    }
+}
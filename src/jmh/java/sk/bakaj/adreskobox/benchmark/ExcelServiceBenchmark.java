@@ -0,0 +1,75 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.service.ExcelService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Vytvorenie podacích hárkov (12 príjemcov na hárok) do dočasného adresára.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelServiceBenchmark
+{
+    @Param({"12", "120", "1200"})
+    private int recipients;
+
+    private final ExcelService excelService = new ExcelService();
+    private List<Parent> parents;
+    private String templatePath;
+    private Path outputDirectory;
+
+    @Setup(Level.Trial)
+    public void createData() throws IOException
+    {
+        parents = BenchmarkData.createParents(recipients, 42);
+        File template = new File("templates/podaci-harok.xlsx");
+        if (!template.exists())
+        {
+            template = excelService.createNewSubmissionTemplate();
+        }
+        templatePath = template.getAbsolutePath();
+        outputDirectory = Files.createTempDirectory("adreskobox-bench-");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(outputDirectory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<File> createSubmissionSheets() throws IOException
+    {
+        return excelService.createSubmissionSheets(parents, "Základná škola", "Školská 1", "811 01 Bratislava",
+                templatePath, outputDirectory.toFile());
+    }
+}
@@ -0,0 +1,72 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sk.bakaj.adreskobox.model.ImportedData;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
+import sk.bakaj.adreskobox.service.FileService;
+import sk.bakaj.adreskobox.service.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import CSV a XLSX súborov s 1k, 10k a 100k riadkami.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileServiceBenchmark
+{
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"csv", "xlsx"})
+    private String type;
+
+    private final FileService fileService = new FileService();
+    private File file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException
+    {
+        file = File.createTempFile("adreskobox-bench-", "." + type);
+        file.deleteOnExit();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42);
+        if ("csv".equals(type))
+        {
+            generator.writeCsv(file, rows);
+        }
+        else
+        {
+            generator.writeXlsx(file, rows);
+        }
+    }
+
+    @Benchmark
+    public List<ImportedData> readFile() throws IOException
+    {
+        return fileService.readFile(file);
+    }
+
+    @Benchmark
+    public ImportedRecordStore readRecords() throws IOException
+    {
+        return fileService.readRecords(file);
+    }
+}
@@ -0,0 +1,64 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sk.bakaj.adreskobox.model.Parent;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vytvorenie rodiča s rozdelením adresy a príprava riadkov štítka.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParentBenchmark
+{
+    private static final int SIZE = 1024;
+
+    private String[] names;
+    private String[] addresses;
+    private List<Parent> parents;
+    private int index;
+
+    @Setup
+    public void createData()
+    {
+        Random random = new Random(42);
+        names = new String[SIZE];
+        addresses = new String[SIZE];
+        for (int i = 0; i < SIZE; i++)
+        {
+            names[i] = "Ján Novák " + i;
+            addresses[i] = BenchmarkData.createAddress(random);
+        }
+        parents = BenchmarkData.createParents(SIZE, 42);
+    }
+
+    @Benchmark
+    public Parent construct()
+    {
+        int i = index++ & (SIZE - 1);
+        return new Parent(names[i], addresses[i]);
+    }
+
+    @Benchmark
+    public void getLabelLines(Blackhole blackhole)
+    {
+        blackhole.consume(parents.get(index++ & (SIZE - 1)).getLabelLines());
+    }
+}
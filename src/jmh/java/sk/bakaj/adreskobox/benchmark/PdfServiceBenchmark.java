@@ -0,0 +1,68 @@
+package sk.bakaj.adreskobox.benchmark;
+
+import com.itextpdf.text.DocumentException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.service.PDFService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kontrola rozmerov štítka a generovanie PDF (do prázdneho prúdu, bez zápisu na disk).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfServiceBenchmark
+{
+    @Param({"100", "1000", "10000"})
+    private int labels;
+
+    private final PDFService pdfService = new PDFService();
+    private final LabelFormat format = LabelFormat.getPredefinedFormatList().get(1);
+    private List<Parent> parents;
+    private int index;
+
+    @Setup
+    public void createData()
+    {
+        parents = BenchmarkData.createParents(labels, 42);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean checkIfLabelFits()
+    {
+        index = index + 1 < labels ? index + 1 : 0;
+        return pdfService.checkIfLabelFits(parents.get(index), format);
+    }
+
+    @Benchmark
+    public int checkLabelsFit()
+    {
+        return pdfService.checkLabelsFit(parents, format).getNotFittingCount();
+    }
+
+    @Benchmark
+    public void generateLabels() throws IOException, DocumentException
+    {
+        pdfService.generateLabels(parents, format, OutputStream.nullOutputStream());
+    }
+}
@@ -6,6 +6,8 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 
 /**
@@ -16,6 +18,8 @@ import javafx.stage.Stage;
  */
 public class AdreskoboxApp extends Application
 {
+    private static final Logger logger = LogManager.getLogger(AdreskoboxApp.class);
+
     /**
      * Inicializuje a zobrazuje hlavné okno aplikácie
      *
@@ -49,7 +53,7 @@ public class AdreskoboxApp extends Application
                 Image icon = new Image(getClass().getResourceAsStream("/images/adreskobox_icon_64x64.png"));
                 primaryStage.getIcons().add(icon);
             } catch (Exception e) {
-                System.err.println("Nepodarilo sa načítať ikonu: " + e.getMessage());
+                logger.warn("Nepodarilo sa načítať ikonu: {}", e.getMessage());
             }
 
             // Zobrazenie okna
@@ -57,8 +61,7 @@ public class AdreskoboxApp extends Application
         }
         catch (Exception e)
         {
-            System.err.println("Chyba pri spustení aplikácie: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Chyba pri spustení aplikácie: {}", e.getMessage(), e);
             throw e;
         }
     }
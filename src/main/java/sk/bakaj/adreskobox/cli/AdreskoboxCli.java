@@ -0,0 +1,752 @@
+package sk.bakaj.adreskobox.cli;
+
+import sk.bakaj.adreskobox.jfr.FlightRecording;
+import sk.bakaj.adreskobox.model.FormatEvaluation;
+import sk.bakaj.adreskobox.model.FormatRecommendation;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.LabelJob;
+import sk.bakaj.adreskobox.model.LabelJobResult;
+import sk.bakaj.adreskobox.model.LabelStaticContent;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+import sk.bakaj.adreskobox.server.LabelHttpServer;
+import sk.bakaj.adreskobox.service.BatchJobRunner;
+import sk.bakaj.adreskobox.service.FolderWatchService;
+import sk.bakaj.adreskobox.service.LabelPipelineService;
+import sk.bakaj.adreskobox.service.MetricsRegistry;
+import sk.bakaj.adreskobox.service.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Vstupný bod pre režim príkazového riadku bez grafického rozhrania.
+ *
+ * Trieda ani služby, ktoré používa, nenačítavajú žiadne triedy JavaFX, preto
+ * sa dá spustiť napr. z cronu na serveri bez displeja:
+ * <pre>
+ * java -cp AdreskoBox.jar sk.bakaj.adreskobox.cli.AdreskoboxCli run --input ziaci.csv --format 70x37 ...
+ * </pre>
+ */
+public class AdreskoboxCli
+{
+    /** Návratové kódy procesu */
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    public static void main(String[] args)
+    {
+        System.exit(execute(args));
+    }
+
+    /**
+     * Spracuje argumenty a spustí zvolený príkaz.
+     *
+     * @param args argumenty z príkazového riadku
+     * @return návratový kód procesu
+     */
+    public static int execute(String[] args)
+    {
+        if (args.length == 0)
+        {
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        // Príkaz je nepovinný - predvolený je "run"
+        String command = args[0].startsWith("--") ? "run" : args[0];
+        int optionsStart = args[0].startsWith("--") ? 0 : 1;
+
+        Map<String, String> options;
+        try
+        {
+            options = parseOptions(args, optionsStart);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        if (options.containsKey("help"))
+        {
+            printUsage();
+            return EXIT_OK;
+        }
+
+        // Záznam JDK Flight Recorder počas celého príkazu
+        if (options.containsKey("jfr"))
+        {
+            Path recordingFile = Paths.get(options.get("jfr"));
+            try
+            {
+                FlightRecording.start(recordingFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Nepodarilo sa spustiť záznam JFR: " + e.getMessage());
+                return EXIT_FAILURE;
+            }
+            try
+            {
+                return dispatch(command, options);
+            }
+            finally
+            {
+                Path saved = FlightRecording.stop();
+                System.out.println("Záznam JFR: " + saved.toAbsolutePath());
+            }
+        }
+        return dispatch(command, options);
+    }
+
+    private static int dispatch(String command, Map<String, String> options)
+    {
+        switch (command)
+        {
+            case "run":
+                return runCommand(options);
+            case "watch":
+                return watchCommand(options);
+            case "serve":
+                return serveCommand(options);
+            case "batch":
+                return batchCommand(options);
+            case "generate-data":
+                return generateDataCommand(options);
+            case "formats":
+                printFormats();
+                return EXIT_OK;
+            case "recommend":
+                return recommendCommand(options);
+            case "help":
+                printUsage();
+                return EXIT_OK;
+            default:
+                System.err.println("Neznámy príkaz: " + command);
+                printUsage();
+                return EXIT_USAGE;
+        }
+    }
+
+    /**
+     * Rozloží voľby v tvare "--názov hodnota" alebo "--prepínač" do mapy.
+     */
+    static Map<String, String> parseOptions(String[] args, int start)
+    {
+        Map<String, String> options = new HashMap<>();
+        for (int i = start; i < args.length; i++)
+        {
+            String arg = args[i];
+            if (!arg.startsWith("--"))
+            {
+                throw new IllegalArgumentException("Neočakávaný argument: " + arg);
+            }
+
+            String name = arg.substring(2);
+            String value = "";
+            int equals = name.indexOf('=');
+            if (equals >= 0)
+            {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            }
+            else if (i + 1 < args.length && !args[i + 1].startsWith("--"))
+            {
+                value = args[++i];
+            }
+            options.put(name, value);
+        }
+        return options;
+    }
+
+    /**
+     * Vytvorí zadanie z volieb príkazového riadku.
+     *
+     * @throws IllegalArgumentException ak chýba povinná voľba alebo má neplatnú hodnotu
+     */
+    static LabelJob createJob(Map<String, String> options)
+    {
+        String input = options.get("input");
+        if (input == null || input.isEmpty())
+        {
+            throw new IllegalArgumentException("Chýba vstupný súbor (--input)");
+        }
+
+        LabelJob job = createJobSettings(options);
+        job.setInputFile(new File(input));
+        return job;
+    }
+
+    /**
+     * Vytvorí nastavenia generovania spoločné pre všetky príkazy (bez vstupného súboru).
+     *
+     * @throws IllegalArgumentException ak má voľba neplatnú hodnotu
+     */
+    static LabelJob createJobSettings(Map<String, String> options)
+    {
+        LabelJob job = new LabelJob();
+        job.setLabelFormat(resolveFormat(options));
+
+        job.setSenderName(options.get("sender-name"));
+        job.setSenderStreet(options.get("sender-street"));
+        job.setSenderCity(options.get("sender-city"));
+        job.getLabelFormat().setStaticContent(resolveStaticContent(options, job));
+
+        String template = options.getOrDefault("template", "templates/podaci-harok.xlsx");
+        job.setTemplateFile(new File(template));
+        if (options.containsKey("output"))
+        {
+            job.setOutputDirectory(new File(options.get("output")));
+        }
+
+        job.setMergeHouseholds(!options.containsKey("no-merge"));
+        job.setGenerateLabels(!options.containsKey("no-labels"));
+        job.setGenerateSubmissionSheets(!options.containsKey("no-sheets"));
+
+        PdfOutputOptions pdfOptions = PdfOutputOptions.standard();
+        if (options.containsKey("optimize-pdf"))
+        {
+            pdfOptions = PdfOutputOptions.optimized();
+            pdfOptions.setCompareWithStandard(options.containsKey("compare-pdf-size"));
+            if (options.containsKey("pdf-font"))
+            {
+                pdfOptions.setFontFile(new File(options.get("pdf-font")));
+            }
+        }
+        if (options.containsKey("auto-font-size"))
+        {
+            pdfOptions.setAutoFitFontSize(true);
+            if (options.containsKey("font-size-range"))
+            {
+                String[] range = options.get("font-size-range").split("-");
+                if (range.length != 2)
+                {
+                    throw new IllegalArgumentException("Rozsah písma musí mať tvar min-max, napr. 6-12");
+                }
+                pdfOptions.setFontSizeRange(parseFontSize(range[0]), parseFontSize(range[1]));
+            }
+        }
+        job.setPdfOutputOptions(pdfOptions);
+        return job;
+    }
+
+    private static float parseFontSize(String value)
+    {
+        try
+        {
+            return Float.parseFloat(value.trim().replace(',', '.'));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Neplatná veľkosť písma: " + value);
+        }
+    }
+
+    /**
+     * Pevný obsah štítkov z volieb --label-sender, --label-marking a --label-logo.
+     *
+     * @return pevný obsah alebo null, ak nie je zadaný
+     */
+    static LabelStaticContent resolveStaticContent(Map<String, String> options, LabelJob job)
+    {
+        LabelStaticContent content = new LabelStaticContent();
+        if (options.containsKey("label-sender"))
+        {
+            content.setReturnAddressLines(List.of(job.getSenderName(), job.getSenderStreet(), job.getSenderCity()));
+        }
+        content.setMarking(options.get("label-marking"));
+        if (options.containsKey("label-logo"))
+        {
+            content.setLogoFile(new File(options.get("label-logo")));
+        }
+        return content.isEmpty() ? null : content;
+    }
+
+    /**
+     * Formát štítkov z voľby --format (názov preddefinovaného formátu)
+     * alebo --format-spec (vlastný formát).
+     */
+    static LabelFormat resolveFormat(Map<String, String> options)
+    {
+        String spec = options.get("format-spec");
+        if (spec != null && !spec.isEmpty())
+        {
+            return LabelFormat.fromSpec(spec);
+        }
+
+        String name = options.get("format");
+        if (name == null || name.isEmpty())
+        {
+            return LabelFormat.getPredefinedFormatList().get(0);
+        }
+
+        LabelFormat format = LabelFormat.findPredefined(name);
+        if (format == null)
+        {
+            throw new IllegalArgumentException("Neznámy alebo nejednoznačný formát štítkov: " + name
+                    + " (zoznam formátov: príkaz 'formats')");
+        }
+        return format;
+    }
+
+    private static int runCommand(Map<String, String> options)
+    {
+        LabelJob job;
+        try
+        {
+            job = createJob(options);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            LabelJobResult result = new LabelPipelineService().run(job);
+            printResult(result);
+            if (options.containsKey("metrics"))
+            {
+                writeMetrics(job.getOutputDirectory() != null
+                        ? job.getOutputDirectory()
+                        : job.getInputFile().getAbsoluteFile().getParentFile());
+            }
+            return EXIT_OK;
+        }
+        catch (Exception e)
+        {
+            System.err.println("Chyba pri spracovaní súboru " + job.getInputFile() + ": " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static int recommendCommand(Map<String, String> options)
+    {
+        LabelJob job;
+        try
+        {
+            job = createJob(options);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        // Porovnávajú sa preddefinované formáty a vlastný formát z --format-spec, všetky s rovnakým pevným obsahom
+        List<LabelFormat> formats = new ArrayList<>(LabelFormat.getPredefinedFormatList());
+        if (options.containsKey("format-spec"))
+        {
+            formats.add(job.getLabelFormat());
+        }
+        for (LabelFormat format : formats)
+        {
+            format.setStaticContent(job.getLabelFormat().getStaticContent());
+        }
+
+        try
+        {
+            LabelPipelineService pipeline = new LabelPipelineService();
+            List<Parent> parents = pipeline.readParents(job.getInputFile(), new LabelJobResult(job.getInputFile()));
+            printRecommendation(pipeline.recommendFormat(parents, job, formats));
+            return EXIT_OK;
+        }
+        catch (Exception e)
+        {
+            System.err.println("Chyba pri spracovaní súboru " + job.getInputFile() + ": " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static void printRecommendation(FormatRecommendation recommendation)
+    {
+        List<FormatEvaluation> evaluations = recommendation.getEvaluations();
+        int labelCount = evaluations.isEmpty() ? 0 : evaluations.get(0).getLabelCount();
+        System.out.println("Štítkov: " + labelCount + " (porovnanie " + evaluations.size() + " formátov za "
+                + recommendation.getDurationMillis() + " ms)");
+        for (FormatEvaluation evaluation : evaluations)
+        {
+            System.out.println(String.format(Locale.forLanguageTag("sk"),
+                    "- %s: %d hárkov, nezmestí sa %d (%.1f %% vyhovuje), bez skratiek %d",
+                    evaluation.getFormat().getName(), evaluation.getSheetCount(),
+                    evaluation.getNotFittingAbbreviated(), evaluation.getAbbreviatedFitRate() * 100,
+                    evaluation.getNotFittingOriginal()));
+        }
+
+        FormatEvaluation recommended = recommendation.getRecommended();
+        if (recommended != null)
+        {
+            System.out.println("Odporúčaný formát: " + recommended.getFormat().getName()
+                    + " (" + recommended.getSheetCount() + " hárkov)");
+        }
+        else
+        {
+            System.out.println("Žiadny formát nepojme všetky štítky ani po skrátení adries");
+        }
+    }
+
+    private static int watchCommand(Map<String, String> options)
+    {
+        FolderWatchService watchService;
+        List<Path> directories = new ArrayList<>();
+        try
+        {
+            String dirs = options.get("dir");
+            if (dirs == null || dirs.isEmpty())
+            {
+                throw new IllegalArgumentException("Chýba sledovaný adresár (--dir)");
+            }
+            for (String dir : dirs.split(File.pathSeparator))
+            {
+                directories.add(Paths.get(dir));
+            }
+
+            int workers = Integer.parseInt(options.getOrDefault("workers", "2"));
+            long quietMillis = Long.parseLong(options.getOrDefault("quiet-ms", "3000"));
+            watchService = new FolderWatchService(createJobSettings(options), workers, quietMillis);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            watchService.start(directories);
+            Runtime.getRuntime().addShutdownHook(new Thread(watchService::stop, "adreskobox-watch-stop"));
+            System.out.println("Sledujem adresáre: " + directories);
+            watchService.awaitTermination();
+            return EXIT_OK;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa spustiť sledovanie: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return EXIT_OK;
+        }
+    }
+
+    private static int serveCommand(Map<String, String> options)
+    {
+        LabelHttpServer server;
+        String host = options.getOrDefault("host", "127.0.0.1");
+        int port;
+        try
+        {
+            port = Integer.parseInt(options.getOrDefault("port", "8080"));
+            long maxBodyBytes = Long.parseLong(options.getOrDefault("max-body-mb", "20")) * 1024 * 1024;
+            int maxConcurrent = Integer.parseInt(options.getOrDefault("max-concurrent",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            server = new LabelHttpServer(createJobSettings(options), maxBodyBytes, maxConcurrent);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            server.start(host, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5), "adreskobox-server-stop"));
+            System.out.println("Server beží na http://" + host + ":" + server.getPort() + "/");
+            // Hlavné vlákno čaká, kým proces neukončí signál
+            Thread.currentThread().join();
+            return EXIT_OK;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa spustiť server: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return EXIT_OK;
+        }
+    }
+
+    private static int batchCommand(Map<String, String> options)
+    {
+        LabelJob settings;
+        List<File> inputFiles = new ArrayList<>();
+        File outputRoot;
+        int parallel;
+        try
+        {
+            settings = createJobSettings(options);
+            parallel = Integer.parseInt(options.getOrDefault("parallel",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+            if (options.containsKey("dir"))
+            {
+                File dir = new File(options.get("dir"));
+                if (!dir.isDirectory())
+                {
+                    throw new IllegalArgumentException("Adresár neexistuje: " + dir);
+                }
+                inputFiles.addAll(BatchJobRunner.listInputFiles(dir));
+            }
+            if (options.containsKey("inputs"))
+            {
+                for (String input : options.get("inputs").split(File.pathSeparator))
+                {
+                    inputFiles.add(new File(input));
+                }
+            }
+            if (inputFiles.isEmpty())
+            {
+                throw new IllegalArgumentException("Žiadne vstupné súbory (--dir alebo --inputs)");
+            }
+
+            outputRoot = new File(options.getOrDefault("output",
+                    options.containsKey("dir") ? options.get("dir") : "."));
+            if (!outputRoot.exists() && !outputRoot.mkdirs())
+            {
+                throw new IllegalArgumentException("Nepodarilo sa vytvoriť výstupný adresár: " + outputRoot);
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa prečítať adresár: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+
+        try
+        {
+            long start = System.nanoTime();
+            BatchJobRunner runner = new BatchJobRunner(new LabelPipelineService(), parallel);
+            List<LabelJobResult> results = runner.run(inputFiles, settings, outputRoot);
+            File report = BatchJobRunner.writeReport(results, outputRoot);
+
+            int failed = 0;
+            for (LabelJobResult result : results)
+            {
+                if (result.isSuccessful())
+                {
+                    System.out.println("OK     " + result.getInputFile().getName() + ": "
+                            + result.getParentCount() + " príjemcov, " + result.getElapsedMillis() + " ms");
+                }
+                else
+                {
+                    failed++;
+                    System.out.println("CHYBA  " + result.getInputFile().getName() + ": " + result.getError());
+                }
+            }
+            System.out.println("Spracovaných súborov: " + (results.size() - failed) + "/" + results.size()
+                    + " za " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            System.out.println("Súhrn: " + report.getAbsolutePath());
+            if (options.containsKey("metrics"))
+            {
+                writeMetrics(outputRoot);
+            }
+            return failed == 0 ? EXIT_OK : EXIT_FAILURE;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa zapísať súhrn: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static int generateDataCommand(Map<String, String> options)
+    {
+        File output;
+        long rows;
+        long seed;
+        try
+        {
+            if (!options.containsKey("output"))
+            {
+                throw new IllegalArgumentException("Chýba voľba --output");
+            }
+            output = new File(options.get("output"));
+            rows = Long.parseLong(options.getOrDefault("rows", "1000"));
+            seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            if (rows < 0)
+            {
+                throw new IllegalArgumentException("Počet riadkov nesmie byť záporný");
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try
+        {
+            long start = System.nanoTime();
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(seed);
+            String name = output.getName().toLowerCase();
+            if (name.endsWith(".xlsx"))
+            {
+                if (rows > SyntheticDataGenerator.MAX_XLSX_ROWS)
+                {
+                    System.err.println("Hárok XLSX môže mať najviac " + SyntheticDataGenerator.MAX_XLSX_ROWS
+                            + " riadkov, pre väčší počet použite CSV");
+                    return EXIT_USAGE;
+                }
+                generator.writeXlsx(output, (int) rows);
+            }
+            else
+            {
+                generator.writeCsv(output, rows);
+            }
+            System.out.println("Vygenerovaných riadkov: " + rows + " → " + output.getAbsolutePath()
+                    + " (" + output.length() / 1024 + " kB, " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            return EXIT_OK;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa zapísať súbor: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Uloží merania fáz spracovania do JSON súboru; chyba zápisu neovplyvní návratový kód.
+     */
+    private static void writeMetrics(File directory)
+    {
+        try
+        {
+            File file = MetricsRegistry.getInstance().writeJson(directory);
+            System.out.println("Merania: " + file.getAbsolutePath());
+        }
+        catch (IOException e)
+        {
+            System.err.println("Nepodarilo sa uložiť merania: " + e.getMessage());
+        }
+    }
+
+    static void printResult(LabelJobResult result)
+    {
+        System.out.println("Súbor: " + result.getInputFile().getName());
+        System.out.println("- Načítaných riadkov: " + result.getRecordCount());
+        System.out.println("- Príjemcov: " + result.getParentCount()
+                + " (skrátených adries: " + result.getAbbreviatedCount() + ")");
+        if (!result.getNotFitting().isEmpty())
+        {
+            System.out.println("- Nezmestí sa na štítok: " + result.getNotFitting().size()
+                    + " " + result.getNotFitting());
+            if (result.getWorstOffender() != null)
+            {
+                System.out.println(String.format(Locale.forLanguageTag("sk"), "- Najväčší presah: %s (%.1f b)",
+                        result.getWorstOffender(), result.getWorstOverflow()));
+            }
+        }
+        if (result.getLabelsFile() != null)
+        {
+            System.out.println("- Štítky: " + result.getLabelsFile().getAbsolutePath());
+            if (result.getLabelsSize() != null)
+            {
+                System.out.println("- Veľkosť PDF: " + result.getLabelsSize().describe()
+                        + ", písmo " + result.getLabelsSize().getFontName());
+            }
+        }
+        for (File sheet : result.getSubmissionSheets())
+        {
+            System.out.println("- Podací hárok: " + sheet.getAbsolutePath());
+        }
+        System.out.println("- Čas spracovania: " + result.getElapsedMillis() + " ms");
+    }
+
+    private static void printFormats()
+    {
+        for (LabelFormat format : LabelFormat.getPredefinedFormatList())
+        {
+            System.out.println(format.getName());
+        }
+    }
+
+    private static void printUsage()
+    {
+        System.out.println("Použitie: AdreskoboxCli [príkaz] [voľby]");
+        System.out.println();
+        System.out.println("Príkazy:");
+        System.out.println("  run       spracuje jeden súbor (predvolený príkaz)");
+        System.out.println("  watch     sleduje adresáre a spracuje každý nový CSV/XLSX súbor");
+        System.out.println("  serve     spustí lokálny HTTP server (POST /labels → PDF, POST /sheets → ZIP)");
+        System.out.println("  batch     spracuje viac súborov naraz (napr. jeden súbor pre každú triedu)");
+        System.out.println("  generate-data  vytvorí umelý vstupný súbor pre záťažové testy");
+        System.out.println("  formats   vypíše preddefinované formáty štítkov");
+        System.out.println("  recommend porovná formáty so vstupným súborom a odporučí formát s najmenším počtom hárkov,");
+        System.out.println("            na ktorý sa zmestia všetky štítky (voľby ako pri run, --format-spec sa pridá k porovnaniu)");
+        System.out.println();
+        System.out.println("Spoločné voľby:");
+        System.out.println("  --jfr <súbor.jfr>        počas príkazu nahráva záznam JDK Flight Recorder (otvára sa v JMC)");
+        System.out.println();
+        System.out.println("Voľby príkazu run:");
+        System.out.println("  --input <súbor>          vstupný CSV/XLSX súbor (povinné)");
+        System.out.println("  --format <názov>         preddefinovaný formát, stačí časť názvu (napr. 70x37)");
+        System.out.println("  --format-spec <zápis>    vlastný formát názov;šírka;výška;stĺpce;riadky;");
+        System.out.println("                           ľavý;pravý;horný;dolný;hMedzera;vMedzera;maxDĺžka");
+        System.out.println("  --sender-name <meno>     meno odosielateľa");
+        System.out.println("  --sender-street <ulica>  ulica odosielateľa");
+        System.out.println("  --sender-city <obec>     PSČ a obec odosielateľa");
+        System.out.println("  --template <súbor>       šablóna podacieho hárku (predvolene templates/podaci-harok.xlsx)");
+        System.out.println("  --output <adresár>       výstupný adresár (predvolene adresár vstupného súboru)");
+        System.out.println("  --no-merge               nezlučovať rodičov s rovnakou adresou");
+        System.out.println("  --no-labels              negenerovať PDF so štítkami");
+        System.out.println("  --no-sheets              negenerovať podacie hárky");
+        System.out.println("  --label-sender           tlačiť odosielateľa ako spiatočnú adresu na každý štítok");
+        System.out.println("  --label-marking <text>   označenie zásielky na každom štítku (napr. Doporučene)");
+        System.out.println("  --label-logo <obrázok>   logo (PNG/JPG) v rohu každého štítka");
+        System.out.println("  --auto-font-size         každý štítok najväčším písmom, pri ktorom sa zmestí");
+        System.out.println("  --font-size-range <a-b>  rozsah písma pre --auto-font-size v bodoch (predvolene 6-12)");
+        System.out.println("  --optimize-pdf           menšie PDF: podmnožina písma TrueType, PDF 1.5 s komprimovanými objektmi");
+        System.out.println("  --compare-pdf-size       pri --optimize-pdf vypíše aj veľkosť štandardného PDF (vykreslí ho navyše)");
+        System.out.println("  --pdf-font <súbor.ttf>   písmo vložené pri --optimize-pdf (predvolene Arial/Liberation Sans)");
+        System.out.println("  --metrics                uložiť merania fáz do metriky_<čas>.json vo výstupnom adresári");
+        System.out.println();
+        System.out.println("Voľby príkazu watch (okrem --input a --output rovnaké ako pri run):");
+        System.out.println("  --dir <adresáre>         sledované adresáre oddelené '" + File.pathSeparator + "' (povinné)");
+        System.out.println("  --workers <počet>        počet súčasne spracovávaných súborov (predvolene 2)");
+        System.out.println("  --quiet-ms <ms>          ako dlho sa súbor nesmie meniť pred spracovaním (predvolene 3000)");
+        System.out.println("  Výstupy sa zapíšu do adresára <názov>_vystup a stav do <názov>.stav.json vedľa vstupu.");
+        System.out.println();
+        System.out.println("Voľby príkazu batch (okrem --input rovnaké ako pri run):");
+        System.out.println("  --dir <adresár>          spracuje všetky CSV/XLSX súbory v adresári");
+        System.out.println("  --inputs <súbory>        zoznam súborov oddelených '" + File.pathSeparator + "'");
+        System.out.println("  --parallel <počet>       počet súčasne spracovávaných súborov (predvolene počet jadier)");
+        System.out.println("  Každý súbor dostane podadresár vo výstupnom adresári, súhrn sa zapíše do suhrn_<čas>.csv.");
+        System.out.println();
+        System.out.println("Voľby príkazu serve (voľby formátu a odosielateľa sú predvolené hodnoty pre požiadavky):");
+        System.out.println("  --host <adresa>          adresa servera (predvolene 127.0.0.1)");
+        System.out.println("  --port <port>            port servera (predvolene 8080)");
+        System.out.println("  --max-body-mb <MB>       maximálna veľkosť požiadavky (predvolene 20)");
+        System.out.println("  --max-concurrent <počet> počet súčasne spracovávaných požiadaviek (predvolene počet jadier)");
+        System.out.println();
+        System.out.println("Voľby príkazu generate-data:");
+        System.out.println("  --output <súbor>         výstupný súbor .csv alebo .xlsx (povinné)");
+        System.out.println("  --rows <počet>           počet riadkov (predvolene 1000, XLSX najviac "
+                + SyntheticDataGenerator.MAX_XLSX_ROWS + ")");
+        System.out.println("  --seed <číslo>           semienko - rovnaké semienko vytvorí rovnaký súbor (predvolene 42)");
+    }
+}
@@ -1,22 +1,44 @@
 package sk.bakaj.adreskobox.controller;
 
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.CheckBoxTableCell;
+import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import sk.bakaj.adreskobox.jfr.AbbreviationPassEvent;
+import sk.bakaj.adreskobox.jfr.FitCheckRecorder;
+import sk.bakaj.adreskobox.model.AbbreviationSuggestion;
+import sk.bakaj.adreskobox.model.FitCheckReport;
+import sk.bakaj.adreskobox.model.FormatEvaluation;
+import sk.bakaj.adreskobox.model.FormatRecommendation;
 import sk.bakaj.adreskobox.model.LabelFormat;
 import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
 import sk.bakaj.adreskobox.service.AbbreviationService;
+import sk.bakaj.adreskobox.service.AbbreviationSuggestionService;
+import sk.bakaj.adreskobox.service.AddressCorrectionService;
+import sk.bakaj.adreskobox.service.LabelFormatRecommender;
+import sk.bakaj.adreskobox.service.MetricsRegistry;
 import sk.bakaj.adreskobox.service.PDFService;
+import sk.bakaj.adreskobox.service.ParentRepository;
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Kontroler pre kartu kontroly a uprav adries
@@ -34,19 +56,54 @@ public class AdressCheckTabController
     @FXML
     private TableColumn<AddressPreviewItem, String> abbreviatedAddressColumn;
     @FXML
+    private TableColumn<AddressPreviewItem, String> correctedAddressColumn;
+    @FXML
     private TableColumn<AddressPreviewItem, String> statusColumn;
     @FXML
     private Button addAbbreviationButton;
     @FXML
     private Button manageAbbreviationsButton;
+    @FXML
+    private Button suggestAbbreviationsButton;
+    @FXML
+    private Button applyCorrectionsButton;
+    @FXML
+    private Button recommendFormatButton;
+
+    // Maximálny počet návrhov skratiek zobrazených v dialógu
+    private static final int MAX_SUGGESTIONS = 50;
 
-    private List<Parent> parents;
+    private ParentRepository parents;
     private LabelFormat labelFormat;
+    /** Zvolený formát s pevným obsahom štítkov - podľa neho sa kontrolujú rozmery */
+    private LabelFormat layoutFormat;
+    /** Voľby PDF, s ktorými sa štítky vygenerujú (písmo, automatická veľkosť písma) */
+    private PdfOutputOptions pdfOptions = PdfOutputOptions.standard();
+    private String layoutKey = "";
     private AbbreviationService abbreviationService = new AbbreviationService();
     private PDFService pdfService = new PDFService();
+    private AbbreviationSuggestionService suggestionService =
+            new AbbreviationSuggestionService(pdfService, abbreviationService);
+    private AddressCorrectionService correctionService = new AddressCorrectionService();
+    private LabelFormatRecommender formatRecommender = new LabelFormatRecommender(pdfService, abbreviationService);
+
+    // Formáty ponúkané pri odporúčaní a akcia pri výbere odporúčaného formátu
+    private List<LabelFormat> availableFormats = new ArrayList<>();
+    private Consumer<LabelFormat> onFormatSelected;
 
     private ObservableList<AddressPreviewItem> addressItems = FXCollections.observableArrayList();
 
+    // Vyrovnávacia pamäť vyhodnotených adries podľa mena a adresy - platí pre daný formát a verziu skratiek
+    private Map<String, AddressPreviewItem> itemCache = new HashMap<>();
+    private LabelFormat cachedFormat;
+    private String cachedLayoutKey;
+    private long cachedAbbreviationVersion = -1;
+
+    // Verzia položiek tabuľky - mení sa pri každej zmene skrátenej adresy
+    private long itemsVersion;
+    private ParentRepository processedParents;
+    private long processedParentsVersion = -1;
+
     @FXML
     public void initialize()
     {
@@ -65,6 +122,10 @@ public class AdressCheckTabController
                 new SimpleStringProperty(data.getValue().getAbbreviatedAddress()));
         statusColumn.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().getStatus()));
+        if (correctedAddressColumn != null) {
+            correctedAddressColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(data.getValue().getCorrectedAddress()));
+        }
 
         //Nastavenie Obsahu tabuľky
         addressTable.setItems(addressItems);
@@ -80,6 +141,8 @@ public class AdressCheckTabController
                         setStyle("");
                     } else if (!item.getFits()) {
                         setStyle("-fx-background-color: #ffcccc;");
+                    } else if (item.isUnknownZipCode()) {
+                        setStyle("-fx-background-color: #fff3cd;");
                     } else {
                         setStyle("");
                     }
@@ -94,7 +157,10 @@ public class AdressCheckTabController
             MenuItem editAddressItem = new MenuItem("Upraviť adresu");
             editAddressItem.setOnAction(event -> showEditAddressDialog(row.getItem()));
 
-            contextMenu.getItems().addAll(addAbbreviationItem, editAddressItem);
+            MenuItem applyCorrectionItem = new MenuItem("Použiť návrh opravy");
+            applyCorrectionItem.setOnAction(event -> applyCorrection(row.getItem()));
+
+            contextMenu.getItems().addAll(addAbbreviationItem, editAddressItem, applyCorrectionItem);
 
             row.contextMenuProperty().bind(
                     javafx.beans.binding.Bindings.when(row.emptyProperty())
@@ -111,28 +177,128 @@ public class AdressCheckTabController
         if (manageAbbreviationsButton != null) {
             manageAbbreviationsButton.setOnAction(event -> showManageAbbreviationsDialog());
         }
+
+        //Nastavenie akcie pre tlačidlo na hromadné návrhy skratiek
+        if (suggestAbbreviationsButton != null) {
+            suggestAbbreviationsButton.setOnAction(event -> showSuggestAbbreviationsDialog());
+        }
+
+        //Nastavenie akcie pre tlačidlo na hromadnú opravu preklepov
+        if (applyCorrectionsButton != null) {
+            applyCorrectionsButton.setOnAction(event -> applyAllCorrections());
+        }
+
+        //Nastavenie akcie pre tlačidlo na odporúčanie formátu
+        if (recommendFormatButton != null) {
+            recommendFormatButton.setOnAction(event -> showRecommendFormatDialog());
+        }
     }
 
     /**
-     * Nastavenie dát z predchadzajúcej karty
+     * Nastavenie dát z predchadzajúcej karty.
+     * Ak sa vstup, formát, rozloženie štítka ani skratky nezmenili, tabuľka sa neprepočítava.
+     *
+     * @param labelFormat zvolený formát štítkov
+     * @param layoutFormat zvolený formát s pevným obsahom štítkov, s ktorým sa štítky vygenerujú
+     * @param pdfOptions voľby PDF, s ktorými sa štítky vygenerujú
      */
-    public void setData(List<Parent> parents, LabelFormat labelFormat) {
+    public void setData(ParentRepository parents, LabelFormat labelFormat, LabelFormat layoutFormat,
+                        PdfOutputOptions pdfOptions) {
+        // Kópia formátu a voľby sa vytvárajú pri každom volaní - porovnávajú sa podľa hodnôt
+        String newLayoutKey = describeLayout(layoutFormat, pdfOptions);
+        if (parents == this.parents && labelFormat == this.labelFormat && newLayoutKey.equals(layoutKey)
+                && abbreviationService.getVersion() == cachedAbbreviationVersion) {
+            return;
+        }
         this.parents = parents;
         this.labelFormat = labelFormat;
+        this.layoutFormat = layoutFormat != null ? layoutFormat : labelFormat;
+        this.pdfOptions = pdfOptions != null ? pdfOptions : PdfOutputOptions.standard();
+        this.layoutKey = newLayoutKey;
         processAddresses();
     }
 
     /**
-     * Spracovanie a vyhodnotenie adries
+     * Hodnoty, od ktorých závisí, či sa adresa zmestí na štítok zvoleného formátu:
+     * výška pevného obsahu, písmo a rozsah veľkosti písma.
+     */
+    private String describeLayout(LabelFormat layoutFormat, PdfOutputOptions pdfOptions) {
+        if (layoutFormat == null || pdfOptions == null) {
+            return "";
+        }
+        return pdfService.getStaticContentHeight(layoutFormat) + ";" + pdfOptions.isEmbedFontSubset()
+                + ";" + pdfOptions.getFontFile() + ";" + pdfOptions.isAutoFitFontSize()
+                + ";" + pdfOptions.getMinFontSize() + ";" + pdfOptions.getMaxFontSize();
+    }
+
+    /**
+     * Nastavenie formátov, ktoré sa porovnávajú pri odporúčaní formátu
+     */
+    public void setAvailableFormats(List<LabelFormat> availableFormats) {
+        this.availableFormats = availableFormats != null ? availableFormats : new ArrayList<>();
+    }
+
+    /**
+     * Nastavenie akcie pri výbere odporúčaného formátu
+     */
+    public void setOnFormatSelected(Consumer<LabelFormat> onFormatSelected) {
+        this.onFormatSelected = onFormatSelected;
+    }
+
+    /**
+     * Spracovanie a vyhodnotenie adries.
+     * Prepočítajú sa iba adresy, ktoré ešte neboli vyhodnotené pre aktuálny formát a skratky;
+     * ostatné (vrátane ručných úprav) sa prevezmú z vyrovnávacej pamäte.
      */
     private void processAddresses() {
-        addressItems.clear();
+        itemsVersion++;
 
         if (parents == null || labelFormat == null) {
+            addressItems.clear();
             return;
         }
 
-        for (Parent parent : parents) {
+        // Zmena formátu, rozloženia štítka alebo skratiek znehodnotí všetky vyhodnotené adresy
+        if (labelFormat != cachedFormat || !layoutKey.equals(cachedLayoutKey)
+                || abbreviationService.getVersion() != cachedAbbreviationVersion) {
+            itemCache.clear();
+            cachedFormat = labelFormat;
+            cachedLayoutKey = layoutKey;
+            cachedAbbreviationVersion = abbreviationService.getVersion();
+        }
+
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.PROCESS_ADDRESSES);
+        List<Parent> parentList = parents.getAll();
+        sample.addRows(parentList.size());
+        List<AddressPreviewItem> items = new ArrayList<>(parentList.size());
+        Map<String, AddressPreviewItem> newCache = new HashMap<>(parentList.size() * 2);
+        String[] corrections = null;
+        List<Parent> pendingParents = new ArrayList<>();
+        List<AddressPreviewItem> pendingItems = new ArrayList<>();
+        AbbreviationPassEvent event = new AbbreviationPassEvent();
+        event.begin();
+        FitCheckRecorder fitChecks = new FitCheckRecorder(labelFormat.getName());
+        int computed = 0;
+        int changed = 0;
+
+        for (int i = 0; i < parentList.size(); i++) {
+            Parent parent = parentList.get(i);
+            String cacheKey = parent.getFullName() + '\n' + parent.getFullAddress();
+
+            // Rovnaký záznam viackrát vo vstupe - položka z pamäte sa použije iba raz
+            AddressPreviewItem cached = newCache.containsKey(cacheKey) ? null : itemCache.get(cacheKey);
+            if (cached != null) {
+                cached.setParentId(parent.getId());
+                items.add(cached);
+                newCache.put(cacheKey, cached);
+                continue;
+            }
+
+            // Návrhy opráv preklepov v obciach a uliciach pre celý import naraz (iba ak je čo prepočítať)
+            if (corrections == null) {
+                corrections = correctionService.suggestCorrections(parentList);
+            }
+
             String originalAddress = parent.getFullAddress();
             //Použitie abbreviationService na ziskanie najlepšej skratky
             String abbreviatedAddress = abbreviationService.getBestAbbreviation(
@@ -140,30 +306,55 @@ public class AdressCheckTabController
                     labelFormat.getMaxAddressLength(),
                     pdfService
             );
-            // Vytvorenie testového Parent objektu s upravenou adresou
-            Parent testParent = createTestParent(parent, abbreviatedAddress);
-
-            // Použitie správnej kontroly rozmerov namiesto len počtu znakov
-            boolean fits = pdfService.checkIfLabelFits(testParent, labelFormat);
-
-            String status;
-            if (fits) {
-                status = "Vyhovuje";
-            } else {
-                String longestLine = pdfService.getLongestLine(testParent);
-                status = "Nevyhovuje - text príliš dlhý (najdlhší riadok: " + longestLine.length() + " znakov)";
+            // Testový Parent objekt s upravenou adresou - rozmery sa skontrolujú naraz po cykle
+            pendingParents.add(createTestParent(parent, abbreviatedAddress));
+            computed++;
+            if (!originalAddress.equals(abbreviatedAddress)) {
+                changed++;
             }
 
             AddressPreviewItem item = new AddressPreviewItem(
+                    parent.getId(),
                     parent.getFullName(),
                     originalAddress,
                     abbreviatedAddress,
-                    status,
-                    fits
+                    "Vyhovuje",
+                    true
             );
+            item.setCorrectedAddress(corrections[i]);
+            item.setUnknownZipCode(isUnknownZipCode(parent));
+            item.setStatus(describeFitting(item));
+
+            items.add(item);
+            pendingItems.add(item);
+            newCache.putIfAbsent(cacheKey, item);
+        }
 
-            addressItems.add(item);
+        // Hromadná kontrola rozmerov všetkých prepočítaných adries
+        if (!pendingParents.isEmpty()) {
+            long checkStart = fitChecks.begin();
+            FitCheckReport report = pdfService.checkLabelsFit(pendingParents, layoutFormat, pdfOptions);
+            fitChecks.recordBulk(report.getLabelCount(), report.getNotFittingCount(), checkStart);
+            BitSet notFitting = report.getNotFitting();
+            for (int i = notFitting.nextSetBit(0); i >= 0; i = notFitting.nextSetBit(i + 1)) {
+                AddressPreviewItem item = pendingItems.get(i);
+                item.setFits(false);
+                item.setStatus(describeNotFitting(report, i) + describeZipCode(item));
+            }
+        }
+        fitChecks.finish();
+        if (event.shouldCommit()) {
+            event.format = labelFormat.getName();
+            event.addresses = parentList.size();
+            event.computed = computed;
+            event.changed = changed;
+            event.maxLength = labelFormat.getMaxAddressLength();
+            event.commit();
         }
+
+        itemCache = newCache;
+        addressItems.setAll(items);
+        sample.stop();
     }
     /**
      * Vytvorí testovací Parent objekt s upravenou adresou
@@ -267,28 +458,8 @@ public class AdressCheckTabController
             {
                 if (!newAddress.isEmpty())
                 {
-                item.setAbbreviatedAddress(newAddress);
-
-                // Nájdeme pôvodný Parent objekt a vytvoríme testovací
-                Parent originalParent = findParentByName(item.getName());
-                if (originalParent != null)
-                {
-                    Parent testParent = createTestParent(originalParent, newAddress);
-                    boolean fits = pdfService.checkIfLabelFits(testParent, labelFormat);
-
-                    String status;
-                    if (fits)
-                    {
-                        status = "Vyhovuje";
-                    } else
-                        {
-                        String longestLine = pdfService.getLongestLine(testParent);
-                        status = "Nevyhovuje - text príliš dlhý (najdlhší riadok: " + longestLine.length() + " znakov)";
-                        }
-
-                    item.setStatus(status);
-                    item.setFits(fits);
-                    }
+                // Nájdeme pôvodný Parent objekt a znovu overíme rozmery
+                updateItemAddress(item, parents.findById(item.getParentId()), newAddress);
 
                 addressTable.refresh();
                 }
@@ -301,21 +472,119 @@ public class AdressCheckTabController
     }
 
     /**
-     * Nájde Parent objekt podľa mena
+     * Nastaví novú adresu položky a znovu overí, či sa zmestí na štítok
+     */
+    private void updateItemAddress(AddressPreviewItem item, Parent originalParent, String newAddress)
+    {
+        item.setAbbreviatedAddress(newAddress);
+        itemsVersion++;
+
+        if (originalParent != null)
+        {
+            Parent testParent = createTestParent(originalParent, newAddress);
+            FitCheckReport report = pdfService.checkLabelsFit(List.of(testParent), layoutFormat, pdfOptions);
+            boolean fits = report.fits(0);
+
+            item.setFits(fits);
+            item.setUnknownZipCode(isUnknownZipCode(testParent));
+            item.setStatus(fits ? describeFitting(item) : describeNotFitting(report, 0) + describeZipCode(item));
+        }
+    }
+
+    /**
+     * PSČ je vyplnené, ale nie je v indexe PSČ - pravdepodobne preklep.
+     * Štítok sa tým nepovažuje za nevyhovujúci, iba sa zobrazí upozornenie. Ak pribalený
+     * index obsahuje iba výber PSČ, neupozorňuje sa - chýbajúce PSČ môže byť správne.
+     */
+    private static boolean isUnknownZipCode(Parent parent)
+    {
+        PostalCodeIndex index = PostalCodeIndex.getInstance();
+        String zipCode = parent.getZipCode();
+        return index.isComplete() && !zipCode.isEmpty() && !index.isKnown(zipCode);
+    }
+
+    /**
+     * Popis vyhovujúcej adresy (s upozornením na neznáme PSČ)
+     */
+    private static String describeFitting(AddressPreviewItem item)
+    {
+        return "Vyhovuje" + describeZipCode(item);
+    }
+
+    /**
+     * Doplnenie popisu o upozornenie na neznáme PSČ
+     */
+    private static String describeZipCode(AddressPreviewItem item)
+    {
+        return item.isUnknownZipCode() ? " - neznáme PSČ" : "";
+    }
+
+    /**
+     * Popis nevyhovujúcej adresy s presahom v bodoch - slovo, ktoré sa nedá zalomiť, má
+     * prednosť pred presahom výšky zalomených riadkov
+     */
+    private static String describeNotFitting(FitCheckReport report, int index)
+    {
+        float wordOverflow = 0f;
+        for (float overflow : report.getLineOverflows(index))
+        {
+            wordOverflow = Math.max(wordOverflow, overflow);
+        }
+        if (wordOverflow > 0)
+        {
+            return String.format(Locale.forLanguageTag("sk"),
+                    "Nevyhovuje - slovo sa nedá zalomiť (presahuje o %.1f b)", wordOverflow);
+        }
+        return String.format(Locale.forLanguageTag("sk"),
+                "Nevyhovuje - príliš veľa riadkov po zalomení (presah %.1f b)", report.getHeightOverflow(index));
+    }
+
+    /**
+     * Použitie návrhu opravy preklepov pre jednu položku
      */
-    private Parent findParentByName(String name)
+    private void applyCorrection(AddressPreviewItem item)
     {
-     if (parents != null)
-     {
-        for (Parent parent : parents)
+        if (item == null || item.getCorrectedAddress() == null)
         {
-            if (parent.getFullName().equals(name))
+            return;
+        }
+
+        String correctedAddress = abbreviationService.getBestAbbreviation(
+                item.getCorrectedAddress(), labelFormat.getMaxAddressLength(), pdfService);
+        updateItemAddress(item, parents.findById(item.getParentId()), correctedAddress);
+        item.setCorrectedAddress(null);
+        addressTable.refresh();
+    }
+
+    /**
+     * Hromadné použitie všetkých návrhov opráv preklepov
+     */
+    private void applyAllCorrections()
+    {
+        if (parents == null || labelFormat == null)
+        {
+            return;
+        }
+
+        int applied = 0;
+        for (AddressPreviewItem item : addressItems)
+        {
+            if (item.getCorrectedAddress() == null)
             {
-                return parent;
+                continue;
             }
+
+            String correctedAddress = abbreviationService.getBestAbbreviation(
+                    item.getCorrectedAddress(), labelFormat.getMaxAddressLength(), pdfService);
+            updateItemAddress(item, parents.findById(item.getParentId()), correctedAddress);
+            item.setCorrectedAddress(null);
+            applied++;
         }
-    }
-    return null;
+
+        addressTable.refresh();
+        showAlert(Alert.AlertType.INFORMATION, "Oprava preklepov",
+                applied > 0 ? "Počet opravených adries: " + applied
+                        : "V adresách sa nenašli žiadne preklepy na opravu.");
     }
 
     /**
@@ -376,24 +645,232 @@ public class AdressCheckTabController
 }
 
     /**
-     * Získanie zoznamu rodičov s upravenými adresami
+     * Zobrazenie dialogu s hromadnými návrhmi skratiek z analýzy všetkých adries
      */
-    public List<Parent> getParentsWithAbbreviatedAddresses()
+    private void showSuggestAbbreviationsDialog()
     {
-        List<Parent> result = new ArrayList<>();
+        try
+        {
+            List<AbbreviationSuggestion> suggestions =
+                    suggestionService.suggest(parents.getAll(), labelFormat, MAX_SUGGESTIONS);
+
+            if (suggestions.isEmpty())
+            {
+                showAlert(Alert.AlertType.INFORMATION, "Návrhy skratiek",
+                        "V adresách sa nenašli žiadne opakujúce sa dlhé slová na skrátenie.");
+                return;
+            }
+
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.setTitle("Návrhy skratiek");
+            dialog.setHeaderText("Vyberte skratky, ktoré sa majú uložiť (návrhy je možné upraviť)");
+
+            ButtonType saveButtonType = new ButtonType("Uložiť vybrané", ButtonBar.ButtonData.OK_DONE);
+            dialog.getDialogPane().getButtonTypes().addAll(saveButtonType, ButtonType.CANCEL);
+
+            // Predvolene sú vybrané návrhy, ktoré pomôžu aspoň jednému nevyhovujúcemu štítku
+            Map<AbbreviationSuggestion, SimpleBooleanProperty> selection = new IdentityHashMap<>();
+            for (AbbreviationSuggestion suggestion : suggestions)
+            {
+                selection.put(suggestion, new SimpleBooleanProperty(suggestion.getAffectedLabels() > 0));
+            }
+
+            TableView<AbbreviationSuggestion> suggestionsTable = new TableView<>();
+            suggestionsTable.setEditable(true);
+            suggestionsTable.setPrefHeight(350);
+
+            TableColumn<AbbreviationSuggestion, Boolean> useColumn = new TableColumn<>("Použiť");
+            useColumn.setCellValueFactory(data -> selection.get(data.getValue()));
+            useColumn.setCellFactory(CheckBoxTableCell.forTableColumn(useColumn));
+            useColumn.setPrefWidth(60);
+
+            TableColumn<AbbreviationSuggestion, String> originalColumn = new TableColumn<>("Pôvodný text");
+            originalColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(data.getValue().getOriginalText()));
+            originalColumn.setPrefWidth(180);
+
+            TableColumn<AbbreviationSuggestion, String> abbreviationColumn = new TableColumn<>("Skratka");
+            abbreviationColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(data.getValue().getAbbreviation()));
+            abbreviationColumn.setCellFactory(TextFieldTableCell.forTableColumn());
+            abbreviationColumn.setOnEditCommit(event ->
+                    event.getRowValue().setAbbreviation(event.getNewValue()));
+            abbreviationColumn.setPrefWidth(120);
+
+            TableColumn<AbbreviationSuggestion, String> occurrencesColumn = new TableColumn<>("Výskyty");
+            occurrencesColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getOccurrences())));
+
+            TableColumn<AbbreviationSuggestion, String> affectedColumn = new TableColumn<>("Nevyhovujúce štítky");
+            affectedColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getAffectedLabels())));
+
+            suggestionsTable.getColumns().addAll(useColumn, originalColumn, abbreviationColumn,
+                    occurrencesColumn, affectedColumn);
+            suggestionsTable.setItems(FXCollections.observableArrayList(suggestions));
+
+            dialog.getDialogPane().setContent(suggestionsTable);
+            dialog.getDialogPane().setPrefSize(650, 450);
+
+            Optional<ButtonType> result = dialog.showAndWait();
+            if (result.isPresent() && result.get() == saveButtonType)
+            {
+                Map<String, String> selected = new LinkedHashMap<>();
+                for (AbbreviationSuggestion suggestion : suggestions)
+                {
+                    if (selection.get(suggestion).get())
+                    {
+                        selected.put(suggestion.getOriginalText(), suggestion.getAbbreviation());
+                    }
+                }
+
+                if (!selected.isEmpty())
+                {
+                    abbreviationService.saveAbbreviations(selected);
+                    processAddresses();
+                    showAlert(Alert.AlertType.INFORMATION, "Skratky pridané",
+                            "Počet uložených skratiek: " + selected.size());
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            showAlert(Alert.AlertType.ERROR, "Chyba",
+                    "Nepodarilo sa vytvoriť návrhy skratiek: " + e.getMessage());
+        }
+    }
 
-        if (parents == null || addressItems.isEmpty())
+    /**
+     * Zobrazenie porovnania formátov štítkov s odporúčaným formátom
+     */
+    private void showRecommendFormatDialog()
+    {
+        if (parents == null || parents.getAll().isEmpty())
         {
-        return result;
+            return;
         }
 
-        for (int i = 0; i < parents.size() && i < addressItems.size(); i++)
+        try
         {
-        Parent parent = parents.get(i);
-        AddressPreviewItem item = addressItems.get(i);
+            List<LabelFormat> formats = availableFormats.isEmpty()
+                    ? LabelFormat.getPredefinedFormatList()
+                    : availableFormats;
+            // Všetky formáty sa porovnávajú s pevným obsahom a voľbami PDF, s ktorými sa štítky
+            // vygenerujú; kópie formátov sa pri výbere prevedú späť na pôvodné formáty
+            Map<LabelFormat, LabelFormat> originalFormats = new IdentityHashMap<>();
+            List<LabelFormat> comparedFormats = new ArrayList<>(formats.size());
+            for (LabelFormat format : formats)
+            {
+                LabelFormat compared = format.withStaticContent(layoutFormat.getStaticContent());
+                originalFormats.put(compared, format);
+                comparedFormats.add(compared);
+            }
+            FormatRecommendation recommendation =
+                    formatRecommender.recommend(parents.getAll(), comparedFormats, pdfOptions);
+            FormatEvaluation recommended = recommendation.getRecommended();
+
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.setTitle("Odporúčanie formátu");
+            dialog.setHeaderText(recommended != null
+                    ? "Odporúčaný formát: " + recommended.getFormat().getName()
+                            + " (" + recommended.getSheetCount() + " hárkov)"
+                    : "Žiadny formát nepojme všetky štítky ani po skrátení adries");
+
+            ButtonType useButtonType = new ButtonType("Použiť vybraný", ButtonBar.ButtonData.OK_DONE);
+            dialog.getDialogPane().getButtonTypes().addAll(useButtonType, ButtonType.CANCEL);
+
+            TableView<FormatEvaluation> formatsTable = new TableView<>();
+            formatsTable.setPrefHeight(250);
+
+            TableColumn<FormatEvaluation, String> formatColumn = new TableColumn<>("Formát");
+            formatColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(data.getValue().getFormat().getName()));
+            formatColumn.setPrefWidth(220);
+
+            TableColumn<FormatEvaluation, String> sheetsColumn = new TableColumn<>("Hárky");
+            sheetsColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getSheetCount())));
+
+            TableColumn<FormatEvaluation, String> notFittingColumn = new TableColumn<>("Nezmestí sa");
+            notFittingColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getNotFittingAbbreviated())));
+
+            TableColumn<FormatEvaluation, String> originalColumn = new TableColumn<>("Nezmestí sa bez skratiek");
+            originalColumn.setCellValueFactory(data ->
+                    new SimpleStringProperty(String.valueOf(data.getValue().getNotFittingOriginal())));
+            originalColumn.setPrefWidth(160);
+
+            formatsTable.getColumns().addAll(formatColumn, sheetsColumn, notFittingColumn, originalColumn);
+            formatsTable.setItems(FXCollections.observableArrayList(recommendation.getEvaluations()));
+            // Predvolene je vybraný odporúčaný formát, inak aktuálne zvolený
+            FormatEvaluation preselected = recommended != null
+                    ? recommended
+                    : findCurrentFormatEvaluation(recommendation, originalFormats);
+            if (preselected != null)
+            {
+                formatsTable.getSelectionModel().select(preselected);
+            }
+
+            dialog.getDialogPane().setContent(formatsTable);
+            dialog.getDialogPane().setPrefSize(600, 350);
 
-        result.add(new Parent(parent.getFullName(), item.getAbbreviatedAddress()));
+            Optional<ButtonType> result = dialog.showAndWait();
+            FormatEvaluation selected = formatsTable.getSelectionModel().getSelectedItem();
+            LabelFormat selectedFormat = selected != null ? originalFormats.get(selected.getFormat()) : null;
+            if (result.isPresent() && result.get() == useButtonType && selectedFormat != null
+                    && selectedFormat != labelFormat && onFormatSelected != null)
+            {
+                onFormatSelected.accept(selectedFormat);
+            }
+        }
+        catch (Exception e)
+        {
+            showAlert(Alert.AlertType.ERROR, "Chyba",
+                    "Nepodarilo sa porovnať formáty: " + e.getMessage());
         }
+    }
+
+    /**
+     * Vyhodnotenie aktuálne zvoleného formátu alebo null
+     */
+    private FormatEvaluation findCurrentFormatEvaluation(FormatRecommendation recommendation,
+                                                         Map<LabelFormat, LabelFormat> originalFormats)
+    {
+        for (FormatEvaluation evaluation : recommendation.getEvaluations())
+        {
+            if (originalFormats.get(evaluation.getFormat()) == labelFormat)
+            {
+                return evaluation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Získanie úložiska rodičov s upravenými adresami (id zostávajú rovnaké ako vo vstupe).
+     * Ak sa položky od posledného volania nezmenili, vráti sa to isté úložisko;
+     * objekt Parent sa vytvorí znovu iba pre položky so zmenenou adresou.
+     */
+    public ParentRepository getParentsWithAbbreviatedAddresses()
+    {
+        if (processedParents != null && processedParentsVersion == itemsVersion)
+        {
+        return processedParents;
+        }
+
+        ParentRepository result = new ParentRepository();
+        if (parents != null)
+        {
+        for (AddressPreviewItem item : addressItems)
+        {
+        Parent processed = item.getProcessedParent();
+        processed.setId(item.getParentId());
+        result.add(processed);
+        }
+        }
+
+        processedParents = result;
+        processedParentsVersion = itemsVersion;
         return result;
     }
 
@@ -413,14 +890,19 @@ public class AdressCheckTabController
      */
     public static class AddressPreviewItem
     {
+        private int parentId;
         private final String name;
         private final String originalAddress;
         private String abbreviatedAddress;
+        private String correctedAddress;
         private String status;
+        private Parent processedParent;
         private boolean fits;
+        private boolean unknownZipCode;
 
-        public AddressPreviewItem(String name, String originalAddress, String abbreviatedAddress, String status, boolean fits)
+        public AddressPreviewItem(int parentId, String name, String originalAddress, String abbreviatedAddress, String status, boolean fits)
         {
+        this.parentId = parentId;
         this.name = name;
         this.originalAddress = originalAddress;
         this.abbreviatedAddress = abbreviatedAddress;
@@ -428,6 +910,28 @@ public class AdressCheckTabController
         this.fits = fits;
         }
 
+        public int getParentId()
+        {
+        return parentId;
+        }
+
+        public void setParentId(int parentId)
+        {
+        this.parentId = parentId;
+        }
+
+        /**
+         * Rodič s upravenou adresou pre ďalšie kroky - vytvára sa iba pri zmene adresy
+         */
+        public Parent getProcessedParent()
+        {
+        if (processedParent == null)
+        {
+            processedParent = new Parent(name, abbreviatedAddress);
+        }
+        return processedParent;
+        }
+
         public String getName()
         {
         return name;
@@ -446,6 +950,17 @@ public class AdressCheckTabController
         public void setAbbreviatedAddress(String abbreviatedAddress)
         {
         this.abbreviatedAddress = abbreviatedAddress;
+        this.processedParent = null;
+        }
+
+        public String getCorrectedAddress()
+        {
+        return correctedAddress;
+        }
+
+        public void setCorrectedAddress(String correctedAddress)
+        {
+        this.correctedAddress = correctedAddress;
         }
 
         public String getStatus()
@@ -467,5 +982,18 @@ public class AdressCheckTabController
         {
         this.fits = fits;
         }
+
+        /**
+         * PSČ adresy nie je v indexe PSČ
+         */
+        public boolean isUnknownZipCode()
+        {
+        return unknownZipCode;
+        }
+
+        public void setUnknownZipCode(boolean unknownZipCode)
+        {
+        this.unknownZipCode = unknownZipCode;
+        }
     }
 }
\ No newline at end of file
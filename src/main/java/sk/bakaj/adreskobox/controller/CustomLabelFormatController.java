@@ -11,6 +11,8 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import sk.bakaj.adreskobox.model.LabelFormat;
 
 /**
@@ -19,6 +21,8 @@ import sk.bakaj.adreskobox.model.LabelFormat;
  */
 public class CustomLabelFormatController
 {
+    private static final Logger logger = LogManager.getLogger(CustomLabelFormatController.class);
+
     @FunctionalInterface
     public interface FormatSavedCallback
     {
@@ -305,7 +309,7 @@ public class CustomLabelFormatController
         }
         else
         {
-            System.err.println("Preview canvas is null - check FXML binding");
+            logger.warn("Preview canvas is null - check FXML binding");
         }
     }
 
@@ -1,18 +1,27 @@
 package sk.bakaj.adreskobox.controller;
 
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.DirectoryChooser;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.jfr.FlightRecording;
+import sk.bakaj.adreskobox.logging.LogAreaUpdater;
+import sk.bakaj.adreskobox.logging.UiLogAppender;
 import sk.bakaj.adreskobox.model.LabelFormat;
-import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+import sk.bakaj.adreskobox.model.PdfSizeReport;
 import sk.bakaj.adreskobox.service.ExcelService;
+import sk.bakaj.adreskobox.service.MetricsRegistry;
 import sk.bakaj.adreskobox.service.PDFService;
+import sk.bakaj.adreskobox.service.ParentRepository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -24,7 +33,10 @@ import java.util.List;
  */
 public class GenerateTabController
 {
-    private static final Log log = LogFactory.getLog(GenerateTabController.class);
+    private static final Logger logger = LogManager.getLogger(GenerateTabController.class);
+
+    /** Maximálny počet znakov v protokole generovania */
+    private static final int MAX_LOG_CHARS = 500_000;
 
     @FXML
     private VBox rootVbox;
@@ -41,6 +53,15 @@ public class GenerateTabController
     @FXML
     private Button browseOutputDirButton;
 
+    @FXML
+    private CheckBox optimizePdfCheckBox;
+
+    @FXML
+    private CheckBox comparePdfSizeCheckBox;
+
+    @FXML
+    private CheckBox autoFitFontSizeCheckBox;
+
     @FXML
     private Button generateButton;
 
@@ -50,8 +71,28 @@ public class GenerateTabController
     @FXML
     private TextArea generationLogArea;
 
+    @FXML
+    private Button flightRecordingButton;
+
+    @FXML
+    private TableView<MetricsRegistry.StageStats> metricsTable;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, String> metricsStageColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, Long> metricsCallsColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, String> metricsTotalColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, String> metricsLastColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, Long> metricsRowsColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, Long> metricsBytesColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.StageStats, Long> metricsErrorsColumn;
+
     // Vstupné dáta pre generovanie
-    private List<Parent> selectedParents;
+    private ParentRepository selectedParents;
     private LabelFormat selectedLabelFormat;
     private String senderName;
     private String senderStreet;
@@ -64,6 +105,7 @@ public class GenerateTabController
     private ExcelService excelService = new ExcelService();
 
     private List<File> generatedFiles = new ArrayList<>();
+    private LogAreaUpdater logAreaUpdater;
 
     /**
      * Inicializácia kontroléra po načítaní FXML.
@@ -84,6 +126,99 @@ public class GenerateTabController
             outputDirectory.mkdir();
         }
         outputDirField.setText(outputDirectory.getAbsolutePath());
+
+        // Porovnanie veľkosti má zmysel iba pri optimalizovanom PDF
+        comparePdfSizeCheckBox.disableProperty().bind(optimizePdfCheckBox.selectedProperty().not());
+
+        // Protokol sa plní z logu po snímkach, nie po jednotlivých správach
+        UiLogAppender uiLog = UiLogAppender.install(GenerateTabController.class.getName());
+        logAreaUpdater = new LogAreaUpdater(generationLogArea, uiLog.getBuffer(), MAX_LOG_CHARS);
+        logAreaUpdater.start();
+
+        setupMetricsTable();
+    }
+
+    /**
+     * Nastaví stĺpce tabuľky meraní.
+     */
+    private void setupMetricsTable()
+    {
+        metricsStageColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStage()));
+        metricsCallsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getCalls()));
+        metricsTotalColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(String.format("%.1f", data.getValue().getTotalMillis())));
+        metricsLastColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(String.format("%.1f", data.getValue().getLastMillis())));
+        metricsRowsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getRows()));
+        metricsBytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getBytes()));
+        metricsErrorsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getErrors()));
+        refreshMetrics();
+    }
+
+    /**
+     * Načíta aktuálne merania do tabuľky.
+     */
+    private void refreshMetrics()
+    {
+        metricsTable.getItems().setAll(MetricsRegistry.getInstance().snapshot());
+    }
+
+    @FXML
+    private void handleRefreshMetrics()
+    {
+        refreshMetrics();
+    }
+
+    /**
+     * Uloží merania do JSON súboru vo výstupnom adresári.
+     */
+    @FXML
+    private void handleExportMetrics()
+    {
+        try
+        {
+            File file = MetricsRegistry.getInstance().writeJson(outputDirectory);
+            log("Merania uložené do súboru: " + file.getAbsolutePath());
+        }
+        catch (IOException e)
+        {
+            showAlert(Alert.AlertType.ERROR, "Chyba", "Nepodarilo sa uložiť merania: " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleResetMetrics()
+    {
+        MetricsRegistry.getInstance().reset();
+        refreshMetrics();
+    }
+
+    /**
+     * Spustí záznam JDK Flight Recorder, pri druhom stlačení ho uloží do výstupného adresára.
+     */
+    @FXML
+    private void handleFlightRecording()
+    {
+        if (FlightRecording.isRunning())
+        {
+            Path file = FlightRecording.stop();
+            flightRecordingButton.setText("Spustiť záznam JFR");
+            log("Záznam JFR uložený do súboru: " + file.toAbsolutePath());
+            return;
+        }
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path file = new File(outputDirectory, "AdreskoBox_" + timestamp + ".jfr").toPath();
+        try
+        {
+            FlightRecording.start(file);
+            flightRecordingButton.setText("Uložiť záznam JFR");
+            log("Záznam JFR beží - zopakujte pomalý krok a potom záznam uložte.");
+        }
+        catch (IOException e)
+        {
+            showAlert(Alert.AlertType.ERROR, "Chyba", "Nepodarilo sa spustiť záznam JFR: " + e.getMessage());
+        }
     }
 
     /**
@@ -120,7 +255,7 @@ public class GenerateTabController
             return;
         }
 
-        generationLogArea.clear();
+        logAreaUpdater.clear();
         generatedFiles.clear();
 
         try
@@ -146,15 +281,37 @@ public class GenerateTabController
             log("- Celkový počet strán: " + totalPages);
             log("- Rozmer štítku: " + selectedLabelFormat.getWidth() + "x" + selectedLabelFormat.getHeight() + "mm");
 
+            PdfOutputOptions pdfOptions = getPdfOutputOptions();
+            if (pdfOptions.isAutoFitFontSize())
+            {
+                log("- Veľkosť písma: automaticky " + pdfOptions.getMinFontSize() + " – " + pdfOptions.getMaxFontSize() + " b");
+            }
+
+            if (selectedLabelFormat.hasStaticContent())
+            {
+                // Pás pevného obsahu zmenšuje miesto pre adresu - kontrola rozmerov sa zopakuje
+                // s písmom a veľkosťou písma, ktorými sa štítky naozaj vytlačia
+                int notFitting = pdfService.checkLabelsFit(selectedParents.getAll(), selectedLabelFormat, pdfOptions)
+                        .getNotFittingCount();
+                log("- Pevný obsah štítka: " + String.format("%.1f", pdfService.getStaticContentHeight(selectedLabelFormat))
+                        + " b v hornej časti, vykreslený raz a zdieľaný všetkými štítkami");
+                if (notFitting > 0)
+                {
+                    log("- ⚠ VAROVANIE: Pod pevný obsah sa nezmestí " + notFitting + " adries");
+                }
+            }
+
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             File labelsFile = new File(outputDirectory, "Stitky_" + timestamp + ".pdf");
 
             log("- Začínam generovanie PDF súboru: " + labelsFile.getName());
 
             try {
-                pdfService.generateLabels(selectedParents, selectedLabelFormat, labelsFile);
+                PdfSizeReport pdfSize = pdfService.generateLabels(selectedParents.getAll(), selectedLabelFormat,
+                        labelsFile, pdfOptions);
                 generatedFiles.add(labelsFile);
                 log("- ✓ Štítky boli úspešne vygenerované do súboru: " + labelsFile.getName());
+                log("- Veľkosť PDF: " + pdfSize.describe() + ", písmo " + pdfSize.getFontName());
             } catch (Exception e) {
                 log("- ✗ CHYBA pri generovaní štítkov: " + e.getMessage());
                 throw e;
@@ -183,7 +340,7 @@ public class GenerateTabController
 
             try {
                 List<File> submissionSheets = excelService.createSubmissionSheets(
-                        selectedParents, senderName, senderStreet, senderCity,
+                        selectedParents.getAll(), senderName, senderStreet, senderCity,
                         templateFile.getAbsolutePath());
 
                 generatedFiles.addAll(submissionSheets);
@@ -194,8 +351,7 @@ public class GenerateTabController
                     log("  " + (i + 1) + ". " + submissionSheets.get(i).getName());
                 }
             } catch (Exception e) {
-                log("- ✗ CHYBA pri generovaní podacích hárkov: " + e.getMessage());
-                e.printStackTrace();
+                logger.error("- ✗ CHYBA pri generovaní podacích hárkov: {}", e.getMessage(), e);
                 // Neprerušujeme proces - aspoň štítky sú vygenerované
                 log("- Pokračujem bez podacích hárkov...");
             }
@@ -209,13 +365,16 @@ public class GenerateTabController
             int sheetsCount = (int) Math.ceil(selectedParents.size() / 12.0);
             submissionSheetsCountLabel.setText(String.valueOf(sheetsCount));
 
+            refreshMetrics();
+
             showAlert(Alert.AlertType.INFORMATION, "Generovanie dokončené",
                     "Štítky boli úspešne vygenerované.\n" +
                             "Súbory sa nachádzajú v: " + outputDirectory.getAbsolutePath());
 
         } catch (Exception e)
         {
-            log("\n✗ KRITICKÁ CHYBA pri generovaní: " + e.getMessage());
+            logger.error("Kritická chyba pri generovaní: {}", e.getMessage(), e);
+            refreshMetrics();
 
             showAlert(Alert.AlertType.ERROR, "Chyba pri generovaní",
                     "Nastala chyba pri generovaní súborov:\n\n" +
@@ -257,14 +416,14 @@ public class GenerateTabController
     /**
      * Nastaví vstupné dáta potrebné pre generovanie.
      *
-     * @param parents Zoznam rodičov
+     * @param parents Úložisko rodičov s upravenými adresami
      * @param labelFormat Formát štítkov
      * @param senderName Meno odosielateľa
      * @param senderStreet Ulica odosielateľa
      * @param senderCity Mesto odosielateľa
      * @param templateFile Súbor šablóny pre podacie hárky
      */
-    public void setData(List<Parent> parents, LabelFormat labelFormat,
+    public void setData(ParentRepository parents, LabelFormat labelFormat,
                         String senderName, String senderStreet, String senderCity,
                         File templateFile)
     {
@@ -287,12 +446,27 @@ public class GenerateTabController
     }
 
     /**
-     * Pridá správu do logu aplikácie aj konzoly.
+     * Voľby PDF podľa nastavení na karte generovania. Rovnaké voľby používa aj kontrola adries,
+     * aby sa rozmery štítkov kontrolovali s písmom a veľkosťou písma, ktorými sa vytlačia.
+     */
+    public PdfOutputOptions getPdfOutputOptions()
+    {
+        PdfOutputOptions pdfOptions = PdfOutputOptions.standard();
+        if (optimizePdfCheckBox.isSelected())
+        {
+            pdfOptions = PdfOutputOptions.optimized();
+            pdfOptions.setCompareWithStandard(comparePdfSizeCheckBox.isSelected());
+        }
+        pdfOptions.setAutoFitFontSize(autoFitFontSizeCheckBox.isSelected());
+        return pdfOptions;
+    }
+
+    /**
+     * Zapíše správu do logu - v protokole generovania sa zobrazí pri najbližšej snímke.
      */
     private void log(String message)
     {
-        System.out.println(message); // Pre ladenie v konzole
-        generationLogArea.appendText(message + "\n");
+        logger.info(message);
     }
 
     /**
@@ -8,10 +8,13 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import sk.bakaj.adreskobox.model.ImportedData;
 import sk.bakaj.adreskobox.model.LabelFormat;
 import sk.bakaj.adreskobox.service.FileService;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import javafx.scene.Parent;
 
@@ -21,6 +24,8 @@ import javafx.scene.Parent;
  */
 public class ImportController
 {
+    private static final Logger logger = LogManager.getLogger(ImportController.class);
+
     // FXML komponenty
     @FXML
     private VBox rootVbox;
@@ -323,8 +328,7 @@ public class ImportController
         }
         catch (Exception e)
         {
-            System.err.println("Chyba pri otváraní vlastného formátu: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Chyba pri otváraní vlastného formátu: {}", e.getMessage(), e);
 
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Chyba");
@@ -416,6 +420,26 @@ public class ImportController
         return selectedLabelFormat;
     }
 
+    /**
+     * Získanie všetkých ponúkaných formátov štítkov vrátane vlastných
+     * @return zoznam formátov
+     */
+    public List<LabelFormat> getAvailableFormats()
+    {
+        return new ArrayList<>(predefinedFormatsComboBox.getItems());
+    }
+
+    /**
+     * Výber formátu štítku z iného miesta aplikácie (napr. odporúčaný formát)
+     * @param format formát z ponúkaných formátov
+     */
+    public void selectLabelFormat(LabelFormat format)
+    {
+        predefinedFormatsComboBox.setValue(format);
+        selectedLabelFormat = format;
+        updateSelectedFormatLabel();
+    }
+
     /**
      * Aktualizácia zobrazenia vybraného formátu štítku
      */
@@ -9,9 +9,14 @@ import javafx.scene.control.Button;
 import javafx.scene.control.TabPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import sk.bakaj.adreskobox.model.ImportedData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
+import sk.bakaj.adreskobox.model.LabelFormat;
 import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
 import sk.bakaj.adreskobox.service.FileService;
+import sk.bakaj.adreskobox.service.ParentRepository;
 
 import java.io.File;
 import java.util.List;
@@ -22,6 +27,8 @@ import java.util.List;
  */
 public class MainController
 {
+    private static final Logger logger = LogManager.getLogger(MainController.class);
+
     // FXML komponenty
     @FXML
     private Button prevButton;
@@ -44,9 +51,14 @@ public class MainController
     private GenerateTabController generateTabController;
 
     // Dátové objekty pre tok informácií medzi záložkami
-    private List<ImportedData> importedData;
-    private List<Parent> selectedParents;
-    private List<Parent> processedParents;
+    private ImportedRecordStore importedData;
+    private ParentRepository selectedParents;
+    private ParentRepository processedParents;
+
+    // Identifikácia naposledy importovaného súboru - pri nezmenenom súbore sa import neopakuje
+    private File importedFile;
+    private long importedFileModified;
+    private long importedFileLength;
 
     // Služby
     private FileService fileService = new FileService();
@@ -112,7 +124,15 @@ public class MainController
 
         // Listener pre zmenu záložky - aktualizuje stav tlačidiel
         tabPane.getSelectionModel().selectedIndexProperty().addListener(
-                (observable, oldValue, newValue) -> updateButtonStates());
+                (observable, oldValue, newValue) ->
+                {
+                    updateButtonStates();
+                    // Po návrate na kontrolu adries sa zohľadnia prípadne zmenené nastavenia výstupu
+                    if (newValue.intValue() == 2 && selectedParents != null && importController != null)
+                    {
+                        updateAddressCheckTab(importController.getSelectedLabelFormat());
+                    }
+                });
     }
 
     /**
@@ -271,8 +291,7 @@ public class MainController
             }
             catch (Exception e)
             {
-                System.err.println("Chyba pri načítavaní kontrolérov: " + e.getMessage());
-                e.printStackTrace();
+                logger.error("Chyba pri načítavaní kontrolérov: {}", e.getMessage(), e);
             }
         });
     }
@@ -443,9 +462,20 @@ public class MainController
                 return false;
             }
 
+            // Súbor sa od posledného importu nezmenil - zachováme načítané dáta aj výber rodičov
+            if (importedData != null && selectedFile.equals(importedFile)
+                    && selectedFile.lastModified() == importedFileModified
+                    && selectedFile.length() == importedFileLength)
+            {
+                return true;
+            }
+
             try
             {
-                importedData = fileService.readFile(selectedFile);
+                importedData = fileService.readRecords(selectedFile);
+                importedFile = selectedFile;
+                importedFileModified = selectedFile.lastModified();
+                importedFileLength = selectedFile.length();
 
                 // Posielanie načítaných dát do kontroléra záložky rodičov
                 if (parentsTabController != null)
@@ -481,12 +511,48 @@ public class MainController
             // Poslanie vybraných rodičov do AddressCheckTabController
             if (adressCheckTabController != null)
             {
-                adressCheckTabController.setData(selectedParents, importController.getSelectedLabelFormat());
+                // Odporúčanie formátu porovnáva všetky formáty z importu vrátane vlastných
+                adressCheckTabController.setAvailableFormats(importController.getAvailableFormats());
+                adressCheckTabController.setOnFormatSelected(format ->
+                {
+                    importController.selectLabelFormat(format);
+                    updateAddressCheckTab(format);
+                });
+                updateAddressCheckTab(importController.getSelectedLabelFormat());
             }
         }
         return true;
     }
 
+    /**
+     * Poslanie vybraných rodičov do kontroly adries spolu s pevným obsahom štítkov a voľbami PDF,
+     * s ktorými sa štítky vygenerujú. Ak sa nič nezmenilo, kontrola sa neprepočítava.
+     */
+    private void updateAddressCheckTab(LabelFormat selectedFormat)
+    {
+        if (adressCheckTabController == null)
+        {
+            return;
+        }
+        PdfOutputOptions pdfOptions = generateTabController != null
+                ? generateTabController.getPdfOutputOptions()
+                : PdfOutputOptions.standard();
+        adressCheckTabController.setData(selectedParents, selectedFormat, getOutputFormat(selectedFormat), pdfOptions);
+    }
+
+    /**
+     * Kópia zvoleného formátu s pevným obsahom z nastavení výstupu - zdieľaný formát
+     * zostane bez zmeny.
+     */
+    private LabelFormat getOutputFormat(LabelFormat selectedFormat)
+    {
+        if (selectedFormat == null || outputSettingTabController == null)
+        {
+            return selectedFormat;
+        }
+        return selectedFormat.withStaticContent(outputSettingTabController.getLabelStaticContent());
+    }
+
     /**
      * Spracovanie záložky kontroly adries
      * @return true ak je spracovanie úspešné, false inak
@@ -495,6 +561,7 @@ public class MainController
     {
         if (adressCheckTabController != null)
         {
+            ParentRepository previousParents = processedParents;
             processedParents = adressCheckTabController.getParentsWithAbbreviatedAddresses();
 
             if (processedParents.isEmpty())
@@ -503,8 +570,8 @@ public class MainController
                         "Neboli nájdené žiadne upravené adresy.");
                 return false;
             }
-            // Poslanie upravených adries do PrintPreviewController
-            if (printPreviewController != null)
+            // Poslanie upravených adries do PrintPreviewController (iba ak sa zmenili)
+            if (printPreviewController != null && processedParents != previousParents)
             {
                 printPreviewController.setData(processedParents, importController.getSelectedLabelFormat());
             }
@@ -525,12 +592,14 @@ public class MainController
                 return false;
             }
 
+            LabelFormat outputFormat = getOutputFormat(importController.getSelectedLabelFormat());
+
             // Poslanie údajov do GenerateTabController
             if (generateTabController != null)
             {
                 generateTabController.setData(
                         processedParents,
-                        importController.getSelectedLabelFormat(),
+                        outputFormat,
                         outputSettingTabController.getSenderName(),
                         outputSettingTabController.getSenderStreet(),
                         outputSettingTabController.getSenderCity(),
@@ -570,7 +639,7 @@ public class MainController
      */
     public List<Parent> getSelectedParents()
     {
-        return selectedParents;
+        return selectedParents != null ? selectedParents.getAll() : null;
     }
 
     /**
@@ -579,7 +648,7 @@ public class MainController
      */
     public List<Parent> getProcessedParents()
     {
-        return processedParents;
+        return processedParents != null ? processedParents.getAll() : null;
     }
 
     /**
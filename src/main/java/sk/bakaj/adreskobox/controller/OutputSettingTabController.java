@@ -6,6 +6,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.LabelStaticContent;
 import sk.bakaj.adreskobox.model.Parent;
 import sk.bakaj.adreskobox.service.ExcelService;
 
@@ -36,7 +37,17 @@ public class OutputSettingTabController
     @FXML
     private Button createTemplateButton;
 
+    @FXML
+    private CheckBox printSenderOnLabelCheckBox;
+
+    @FXML
+    private TextField labelMarkingField;
+
+    @FXML
+    private TextField logoPathField;
+
     private File templateFile;
+    private File logoFile;
     private ExcelService excelService = new ExcelService();
     private List<Parent> selectedParents;
     private LabelFormat selectedLabelFormat;
@@ -93,6 +104,29 @@ public class OutputSettingTabController
         }
     }
 
+    @FXML
+    private void handleBrowseLogo()
+    {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Vybrať logo na štítky");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Obrázky", "*.png", "*.jpg", "*.jpeg", "*.gif"));
+
+        File file = fileChooser.showOpenDialog(senderNameField.getScene().getWindow());
+        if (file != null)
+        {
+            logoFile = file;
+            logoPathField.setText(file.getAbsolutePath());
+        }
+    }
+
+    @FXML
+    private void handleClearLogo()
+    {
+        logoFile = null;
+        logoPathField.clear();
+    }
+
     @FXML
     private void handleCreateTemplate()
     {
@@ -220,6 +254,24 @@ public class OutputSettingTabController
         return templateFile;
     }
 
+    /**
+     * Pevný obsah štítkov podľa nastavení - spiatočná adresa z údajov odosielateľa,
+     * označenie zásielky a logo.
+     *
+     * @return pevný obsah alebo null, ak nie je nič nastavené
+     */
+    public LabelStaticContent getLabelStaticContent()
+    {
+        LabelStaticContent content = new LabelStaticContent();
+        if (printSenderOnLabelCheckBox.isSelected())
+        {
+            content.setReturnAddressLines(List.of(getSenderName(), getSenderStreet(), getSenderCity()));
+        }
+        content.setMarking(labelMarkingField.getText());
+        content.setLogoFile(logoFile);
+        return content.isEmpty() ? null : content;
+    }
+
     private void showAlert(Alert.AlertType type, String title, String content)
     {
         Alert alert = new Alert(type);
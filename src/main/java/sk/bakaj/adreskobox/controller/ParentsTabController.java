@@ -4,14 +4,23 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.CheckBoxTableCell;
 import javafx.scene.layout.VBox;
 import sk.bakaj.adreskobox.model.ImportedData;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
 import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.ParentSelectionModel;
+import sk.bakaj.adreskobox.service.HouseholdDeduplicationService;
+import sk.bakaj.adreskobox.service.MetricsRegistry;
+import sk.bakaj.adreskobox.service.ParentRepository;
+import sk.bakaj.adreskobox.service.SearchIndex;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controller pre záložku správy rodičov.
@@ -40,9 +49,35 @@ public class ParentsTabController
     @FXML
     private Label selectedCountLabel;
 
+    @FXML
+    private CheckBox mergeHouseholdsCheckBox;
+
+    @FXML
+    private TextField searchField;
+
+    /** Služba pre zlúčenie rodičov z jednej domácnosti */
+    private HouseholdDeduplicationService deduplicationService = new HouseholdDeduplicationService();
+
     /** Observable zoznam všetkých rodičov pre tabuľku */
     private ObservableList<ParentEntry> parentList = FXCollections.observableArrayList();
 
+    /** Zoznam rodičov filtrovaný podľa vyhľadávania */
+    private FilteredList<ParentEntry> filteredList = new FilteredList<>(parentList);
+
+    /** Výber rodičov podľa indexu záznamu v zozname */
+    private ParentSelectionModel selectionModel = new ParentSelectionModel();
+
+    /** Vyhľadávací index nad menom študenta, rodiča, obcou a PSČ */
+    private SearchIndex searchIndex = new SearchIndex();
+
+    /** Indexy záznamov zodpovedajúcich aktuálnemu hľadaniu (null = bez filtra) */
+    private BitSet searchMatches;
+
+    /** Posledný vytvorený výber - vracia sa znovu, ak sa výber ani zlúčenie nezmenili */
+    private ParentRepository selectedRepository;
+    private long selectedRepositoryVersion = -1;
+    private boolean selectedRepositoryMerged;
+
     /**
      * Inicializácia controllera.
      * Nastavuje cell factories pre stĺpce tabuľky a základné vlastnosti.
@@ -59,9 +94,19 @@ public class ParentsTabController
         setupTableColumns();
         setupTableProperties();
 
-        // Nastavenie obsahu tabuľky
-        parentsTable.setItems(parentList);
-        updateSelectedCount();
+        // Nastavenie obsahu tabuľky - triedenie nemení poradie v parentList (indexy výberu)
+        SortedList<ParentEntry> sortedList = new SortedList<>(filteredList);
+        sortedList.comparatorProperty().bind(parentsTable.comparatorProperty());
+        parentsTable.setItems(sortedList);
+
+        // Filtrovanie pri každom stlačení klávesu
+        if (searchField != null)
+        {
+            searchField.textProperty().addListener((obs, oldVal, newVal) -> applySearch(newVal));
+        }
+
+        // Počítadlo je naviazané na model výberu, ktorý ho udržiava priebežne
+        selectedCountLabel.textProperty().bind(selectionModel.selectedCountProperty().asString());
     }
 
     /**
@@ -71,7 +116,14 @@ public class ParentsTabController
     {
 
         // Stĺpec pre výber rodičov (checkbox)
-        selectColumn.setCellValueFactory(cellData -> cellData.getValue().selectedProperty());
+        // Vlastnosť sa vytvára iba pre viditeľné bunky a zmeny zapisuje priamo do modelu výberu
+        selectColumn.setCellValueFactory(cellData ->
+        {
+            int index = cellData.getValue().getIndex();
+            SimpleBooleanProperty property = new SimpleBooleanProperty(selectionModel.isSelected(index));
+            property.addListener((obs, oldVal, newVal) -> selectionModel.setSelected(index, newVal));
+            return property;
+        });
         selectColumn.setCellFactory(CheckBoxTableCell.forTableColumn(selectColumn));
 
         // Stĺpec pre meno študenta
@@ -96,150 +148,206 @@ public class ParentsTabController
     }
 
     /**
-     * Aktualizuje počítadlo vybraných rodičov v používateľskom rozhraní.
+     * Načíta zoznam rodičov z importovaných dát.
+     *
+     * @param importedDataList zoznam importovaných dát zo súboru
      */
-    private void updateSelectedCount()
+    public void loadData(List<ImportedData> importedDataList)
     {
-        long selectedCount = parentList.stream()
-                .filter(ParentEntry::isSelected)
-                .count();
-        selectedCountLabel.setText(String.valueOf(selectedCount));
+        loadData(ImportedRecordStore.fromImportedData(importedDataList));
     }
+
     /**
-     * Načíta zoznam rodičov z importovaných dát.
+     * Načíta zoznam rodičov zo stĺpcového úložiska importovaných dát.
      * Pre každý záznam vytvorí záznamy pre rodiča 1 a rodiča 2 (ak existujú).
+     * Záznamy v tabuľke sú iba pohľady do úložiska a nekopírujú reťazce.
      *
-     * @param importedDataList zoznam importovaných dát zo súboru
+     * @param store úložisko importovaných záznamov
      */
-    public void loadData(List<ImportedData> importedDataList)
+    public void loadData(ImportedRecordStore store)
     {
-        parentList.clear();
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.LOAD_DATA);
+        sample.addRows(store.size());
+        List<ParentEntry> entries = new ArrayList<>(store.size() * ImportedRecordStore.PARENT_SLOTS);
 
-        for (ImportedData data : importedDataList)
+        for (int row = 0; row < store.size(); row++)
         {
-            String studentName = data.getStudentFirstName() + " " + data.getStudentLastName();
-
-            // Pridanie prvého rodiča ak existuje
-            addParentIfExists(studentName, data.getParent1Name(), data.getAddress1());
+            for (int slot = 0; slot < ImportedRecordStore.PARENT_SLOTS; slot++)
+            {
+                // Pridanie rodiča ak existuje
+                if (store.hasParent(row, slot))
+                {
+                    entries.add(new ParentEntry(store, row, slot, entries.size()));
+                }
+            }
+        }
 
-            // Pridanie druhého rodiča ak existuje
-            addParentIfExists(studentName, data.getParent2Name(), data.getAddress2());
+        // Vyhľadávací index sa postaví raz pri načítaní dát
+        searchIndex = new SearchIndex();
+        for (ParentEntry entry : entries)
+        {
+            searchIndex.add(entry.getIndex(), entry.getStudentName(), entry.getParentName(),
+                    entry.getCity(), entry.getZipCode());
         }
 
-        updateSelectedCount();
+        selectionModel.reset(entries.size());
+        parentList.setAll(entries);
+        applySearch(searchField != null ? searchField.getText() : null);
         parentsTable.refresh();
+        sample.stop();
     }
 
     /**
-     * Pridá rodiča do zoznamu ak má platné údaje.
+     * Vyfiltruje tabuľku podľa hľadaného textu pomocou vyhľadávacieho indexu.
      *
-     * @param studentName meno študenta
-     * @param parentName meno rodiča
-     * @param address adresa rodiča
+     * @param query hľadaný text
      */
-    private void addParentIfExists(String studentName, String parentName, String address)
+    private void applySearch(String query)
     {
-        if (parentName != null && !parentName.trim().isEmpty())
-        {
-            ParentEntry entry = new ParentEntry(studentName, parentName, address, false);
-            parentList.add(entry);
-
-            // Pridanie listener-a pre aktualizáciu počítadla pri zmene výberu
-            entry.selectedProperty().addListener((obs, oldVal, newVal) -> updateSelectedCount());
-        }
+        searchMatches = searchIndex.search(query);
+        BitSet matches = searchMatches;
+        filteredList.setPredicate(matches == null ? null : entry -> matches.get(entry.getIndex()));
     }
 
     /**
-     * Označí všetkých rodičov ako vybraných.
+     * Označí všetkých rodičov ako vybraných (pri hľadaní iba zobrazených).
      */
     @FXML
     private void handleSelectAll()
     {
-        parentList.forEach(entry -> entry.setSelected(true));
-        parentsTable.refresh();
-        updateSelectedCount();
+        setSelectedForVisible(true);
     }
 
     /**
-     * Zruší výber všetkých rodičov.
+     * Zruší výber všetkých rodičov (pri hľadaní iba zobrazených).
      */
     @FXML
     private void handleUnselectAll()
     {
-        parentList.forEach(entry -> entry.setSelected(false));
+        setSelectedForVisible(false);
+    }
+
+    /**
+     * Hromadne zmení výber pre všetky zobrazené záznamy a tabuľku prekreslí iba raz.
+     */
+    private void setSelectedForVisible(boolean value)
+    {
+        BitSet matches = searchMatches;
+        if (matches == null)
+        {
+            if (value)
+            {
+                selectionModel.selectAll();
+            }
+            else
+            {
+                selectionModel.clearAll();
+            }
+        }
+        else
+        {
+            selectionModel.setWhere(matches::get, value);
+        }
         parentsTable.refresh();
-        updateSelectedCount();
     }
 
     /**
-     * Vráti zoznam aktuálne vybraných rodičov.
+     * Vráti úložisko aktuálne vybraných rodičov so stabilnými id.
+     * Ak je zapnuté zlúčenie domácností, rodičia na rovnakej adrese sú zlúčení do jedného príjemcu.
      *
-     * @return zoznam vybraných rodičov ako objekty typu Parent
+     * @return úložisko vybraných rodičov
      */
-    public List<Parent> getSelectedParents()
+    public ParentRepository getSelectedParents()
     {
-        return parentList.stream()
-                .filter(ParentEntry::isSelected)
-                .map(entry -> new Parent(entry.getParentName(), entry.getAddress()))
-                .collect(Collectors.toList());
+        boolean merge = mergeHouseholdsCheckBox != null && mergeHouseholdsCheckBox.isSelected();
+        if (selectedRepository != null && selectedRepositoryVersion == selectionModel.getVersion()
+                && selectedRepositoryMerged == merge)
+        {
+            return selectedRepository;
+        }
+
+        List<Parent> selectedParents = new ArrayList<>(selectionModel.getSelectedCount());
+        for (int i = selectionModel.nextSelected(0); i >= 0; i = selectionModel.nextSelected(i + 1))
+        {
+            selectedParents.add(parentList.get(i).toParent());
+        }
+
+        if (merge)
+        {
+            selectedParents = deduplicationService.mergeHouseholds(selectedParents);
+        }
+
+        selectedRepository = new ParentRepository(selectedParents);
+        selectedRepositoryVersion = selectionModel.getVersion();
+        selectedRepositoryMerged = merge;
+        return selectedRepository;
     }
 
     /**
      * Trieda reprezentujúca jeden riadok v tabuľke rodičov.
-     * Obsahuje informácie o študentovi, rodičovi a jeho adrese.
+     * Je to iba pohľad do úložiska importovaných záznamov (riadok a slot rodiča),
+     * informácie o študentovi, rodičovi a jeho adrese sa čítajú priamo z úložiska.
      */
     public static class ParentEntry
     {
-        private final String studentName;
-        private final String parentName;
-        private final String address;
-        private final SimpleBooleanProperty selected;
+        private final ImportedRecordStore store;
+        private final int row;
+        private final int slot;
+        private final int index;
 
         /**
          * Konštruktor pre vytvorenie nového záznamu rodiča.
          *
-         * @param studentName meno študenta
-         * @param parentName meno rodiča
-         * @param address adresa rodiča
-         * @param selected či je rodič označený ako vybraný
+         * @param store úložisko importovaných záznamov
+         * @param row index riadku v úložisku
+         * @param slot slot rodiča (0 = Rodič 1., 1 = Rodič 2.)
+         * @param index index záznamu v zozname rodičov (bit v modeli výberu)
          */
-        public ParentEntry(String studentName, String parentName, String address, boolean selected)
+        public ParentEntry(ImportedRecordStore store, int row, int slot, int index)
+        {
+            this.store = store;
+            this.row = row;
+            this.slot = slot;
+            this.index = index;
+        }
+
+        public int getIndex()
         {
-            this.studentName = studentName;
-            this.parentName = parentName;
-            this.address = address;
-            this.selected = new SimpleBooleanProperty(selected);
+            return index;
         }
 
         // Getter metódy
         public String getStudentName()
         {
-            return studentName;
+            return store.getStudentName(row);
         }
 
         public String getParentName()
         {
-            return parentName;
+            return store.getParentName(row, slot);
         }
 
         public String getAddress()
         {
-            return address;
+            return store.getAddress(row, slot);
         }
 
-        public boolean isSelected()
+        public String getCity()
         {
-            return selected.get();
+            return store.getCity(row, slot);
         }
 
-        public void setSelected(boolean selected)
+        public String getZipCode()
         {
-            this.selected.set(selected);
+            return store.getZipCode(row, slot);
         }
 
-        public SimpleBooleanProperty selectedProperty()
+        /**
+         * Vytvorí objekt rodiča pre ďalšie spracovanie.
+         */
+        public Parent toParent()
         {
-            return selected;
+            return store.toParent(row, slot);
         }
     }
 
@@ -7,11 +7,11 @@ import javafx.stage.FileChooser;
 import sk.bakaj.adreskobox.model.LabelFormat;
 import sk.bakaj.adreskobox.model.Parent;
 import sk.bakaj.adreskobox.service.PDFService;
+import sk.bakaj.adreskobox.service.ParentRepository;
 
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.Label;
-import java.util.List;
 import java.io.File;
 
 /**
@@ -35,7 +35,7 @@ public class PrintPreviewController
     private Label totalLabelsLabel; // Label zobrazujúci celkový počet štítkov
 
     // Dáta pre generovanie štítkov
-    private  List<Parent> parents;                      // Zoznam rodičov na tlač
+    private ParentRepository parents;                   // Rodičia na tlač
     private LabelFormat format;                         // Formát štítkov
     private PDFService pdfService = new PDFService();   // Služba pre generovanie PDF
 
@@ -48,11 +48,11 @@ public class PrintPreviewController
                 new SimpleStringProperty(data.getValue().getFullAddress()));
     }
 
-    public void setData(List<Parent> parents, LabelFormat format)
+    public void setData(ParentRepository parents, LabelFormat format)
     {
         this.parents = parents;
         this.format = format;
-        labelsTable.getItems().setAll(parents);
+        labelsTable.getItems().setAll(parents.getAll());
         totalLabelsLabel.setText(String.valueOf(parents.size()));
     }
 
@@ -69,7 +69,7 @@ public class PrintPreviewController
         {
             try
             {
-                pdfService.generateLabels(parents,format, file);
+                pdfService.generateLabels(parents.getAll(), format, file);
                 showAlert(Alert.AlertType.INFORMATION, "Úspech",
                         "PDF bolo úspešne vytvorené.");
             } catch (Exception e)
@@ -0,0 +1,32 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Jeden prechod skracovania adries pre celý zoznam rodičov.
+ */
+@Name("sk.bakaj.adreskobox.AbbreviationPass")
+@Label("Skracovanie adries")
+@Category({"AdreskoBox", "Adresy"})
+@Description("Skrátenie adries pre zvolený formát štítkov")
+public class AbbreviationPassEvent extends jdk.jfr.Event
+{
+    @Label("Formát štítkov")
+    public String format;
+
+    @Label("Adresy")
+    public int addresses;
+
+    @Label("Prepočítané adresy")
+    @Description("Adresy, ktoré neboli v pamäti a skracovali sa znova")
+    public int computed;
+
+    @Label("Zmenené adresy")
+    public int changed;
+
+    @Label("Maximálna dĺžka")
+    public int maxLength;
+}
@@ -0,0 +1,30 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Zápis jedného podacieho hárku zo šablóny.
+ */
+@Name("sk.bakaj.adreskobox.ExcelSheet")
+@Label("Podací hárok")
+@Category({"AdreskoBox", "Výstup"})
+@Description("Vyplnenie šablóny a zápis jedného podacieho hárku")
+public class ExcelSheetEvent extends jdk.jfr.Event
+{
+    @Label("Súbor")
+    public String file;
+
+    @Label("Číslo hárku")
+    public int sheet;
+
+    @Label("Príjemcovia")
+    public int recipients;
+
+    @Label("Veľkosť")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,34 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Import jedného vstupného súboru (CSV alebo Excel).
+ */
+@Name("sk.bakaj.adreskobox.FileImport")
+@Label("Import súboru")
+@Category({"AdreskoBox", "Import"})
+@Description("Načítanie riadkov zo vstupného súboru")
+public class FileImportEvent extends jdk.jfr.Event
+{
+    @Label("Súbor")
+    public String file;
+
+    @Label("Typ súboru")
+    public String fileType;
+
+    @Label("Kódovanie")
+    @Description("Kódovanie CSV súboru, pri Exceli prázdne")
+    public String charset;
+
+    @Label("Riadky")
+    public long rows;
+
+    @Label("Veľkosť")
+    @DataAmount
+    public long bytes;
+}
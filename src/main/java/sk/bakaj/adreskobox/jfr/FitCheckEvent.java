@@ -0,0 +1,34 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Kontrola rozmerov jednej dávky štítkov. Trvanie udalosti zahŕňa celú dávku,
+ * čas samotného merania textu je v poli {@link #checkTime}.
+ */
+@Name("sk.bakaj.adreskobox.FitCheck")
+@Label("Kontrola rozmerov")
+@Category({"AdreskoBox", "Adresy"})
+@Description("Kontrola, či sa text zmestí na štítok, po dávkach")
+public class FitCheckEvent extends jdk.jfr.Event
+{
+    @Label("Formát štítkov")
+    public String format;
+
+    @Label("Poradie dávky")
+    public int batch;
+
+    @Label("Kontroly")
+    public int checks;
+
+    @Label("Nezmestí sa")
+    public int notFitting;
+
+    @Label("Čas kontrol")
+    @Timespan(Timespan.NANOSECONDS)
+    public long checkTime;
+}
@@ -0,0 +1,104 @@
+package sk.bakaj.adreskobox.jfr;
+
+/**
+ * Zbiera výsledky kontrol rozmerov a zapisuje ich ako {@link FitCheckEvent} po dávkach,
+ * aby záznam neobsahoval udalosť pre každý štítok. Ak záznam nebeží, nič nemeria.
+ */
+public class FitCheckRecorder
+{
+    /** Počet kontrol v jednej dávke */
+    public static final int BATCH_SIZE = 256;
+
+    private final String format;
+    private final boolean enabled;
+    private FitCheckEvent event;
+    private int batch;
+
+    /**
+     * @param format názov formátu štítkov
+     */
+    public FitCheckRecorder(String format)
+    {
+        this.format = format;
+        this.enabled = new FitCheckEvent().isEnabled();
+    }
+
+    /**
+     * @return čas začiatku kontroly pre {@link #record(boolean, long)}, 0 ak záznam nebeží
+     */
+    public long begin()
+    {
+        if (!enabled)
+        {
+            return 0;
+        }
+        if (event == null)
+        {
+            event = new FitCheckEvent();
+            event.format = format;
+            event.batch = ++batch;
+            event.begin();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Zaznamená výsledok jednej kontroly.
+     *
+     * @param fits true, ak sa štítok zmestí
+     * @param startNanos hodnota vrátená z {@link #begin()}
+     */
+    public void record(boolean fits, long startNanos)
+    {
+        if (event == null)
+        {
+            return;
+        }
+        event.checkTime += System.nanoTime() - startNanos;
+        event.checks++;
+        if (!fits)
+        {
+            event.notFitting++;
+        }
+        if (event.checks >= BATCH_SIZE)
+        {
+            commit();
+        }
+    }
+
+    /**
+     * Zaznamená hromadnú kontrolu viacerých štítkov ako jednu dávku.
+     *
+     * @param checks počet kontrolovaných štítkov
+     * @param notFitting počet nevyhovujúcich štítkov
+     * @param startNanos hodnota vrátená z {@link #begin()}
+     */
+    public void recordBulk(int checks, int notFitting, long startNanos)
+    {
+        if (event == null)
+        {
+            return;
+        }
+        event.checkTime += System.nanoTime() - startNanos;
+        event.checks += checks;
+        event.notFitting += notFitting;
+        commit();
+    }
+
+    /**
+     * Zapíše poslednú neúplnú dávku.
+     */
+    public void finish()
+    {
+        if (event != null)
+        {
+            commit();
+        }
+    }
+
+    private void commit()
+    {
+        event.commit();
+        event = null;
+    }
+}
@@ -0,0 +1,86 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Spúšťa a ukladá záznam JDK Flight Recorder s udalosťami AdreskoBoxu a profilovacími
+ * udalosťami JDK (vzorky vykonávania, alokácie, GC). Záznam sa otvára v JDK Mission Control.
+ * V aplikácii beží najviac jeden záznam naraz.
+ */
+public final class FlightRecording
+{
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(FileImportEvent.class,
+            HeaderDetectionEvent.class, AbbreviationPassEvent.class, FitCheckEvent.class,
+            PdfPageEvent.class, ExcelSheetEvent.class);
+
+    private static Recording recording;
+
+    private FlightRecording()
+    {
+    }
+
+    /**
+     * Spustí záznam. Ak JVM skončí skôr ako {@link #stop()}, záznam sa uloží pri ukončení.
+     *
+     * @param destination súbor .jfr pre záznam
+     * @throws IOException ak sa záznam nedá spustiť alebo už beží
+     */
+    public static synchronized void start(Path destination) throws IOException
+    {
+        if (recording != null)
+        {
+            throw new IOException("Záznam už beží");
+        }
+
+        Recording newRecording;
+        try
+        {
+            newRecording = new Recording(Configuration.getConfiguration("profile"));
+        }
+        catch (ParseException e)
+        {
+            throw new IOException("Nepodarilo sa načítať nastavenia záznamu: " + e.getMessage(), e);
+        }
+        newRecording.setName("AdreskoBox");
+        for (Class<? extends jdk.jfr.Event> event : EVENTS)
+        {
+            newRecording.enable(event);
+        }
+        newRecording.setDestination(destination);
+        newRecording.setDumpOnExit(true);
+        newRecording.start();
+        recording = newRecording;
+    }
+
+    /**
+     * @return true, ak záznam beží
+     */
+    public static synchronized boolean isRunning()
+    {
+        return recording != null;
+    }
+
+    /**
+     * Zastaví záznam a zapíše ho do súboru zadaného pri spustení.
+     *
+     * @return súbor so záznamom alebo null, ak záznam nebežal
+     */
+    public static synchronized Path stop()
+    {
+        if (recording == null)
+        {
+            return null;
+        }
+        Path destination = recording.getDestination();
+        recording.stop();
+        recording.close();
+        recording = null;
+        return destination;
+    }
+}
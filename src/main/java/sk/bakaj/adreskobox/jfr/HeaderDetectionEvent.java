@@ -0,0 +1,28 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Hľadanie riadku s hlavičkou a oddeľovača vo vstupnom súbore.
+ */
+@Name("sk.bakaj.adreskobox.HeaderDetection")
+@Label("Detekcia hlavičky")
+@Category({"AdreskoBox", "Import"})
+@Description("Zistenie, či súbor obsahuje hlavičku s očakávanými stĺpcami")
+public class HeaderDetectionEvent extends jdk.jfr.Event
+{
+    @Label("Súbor")
+    public String file;
+
+    @Label("Typ súboru")
+    public String fileType;
+
+    @Label("Oddeľovač")
+    public String delimiter;
+
+    @Label("Hlavička nájdená")
+    public boolean hasHeader;
+}
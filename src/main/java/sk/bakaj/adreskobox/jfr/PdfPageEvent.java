@@ -0,0 +1,22 @@
+package sk.bakaj.adreskobox.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Vytvorenie jednej strany PDF so štítkami.
+ */
+@Name("sk.bakaj.adreskobox.PdfPage")
+@Label("Strana PDF")
+@Category({"AdreskoBox", "Výstup"})
+@Description("Vykreslenie štítkov jednej strany PDF")
+public class PdfPageEvent extends jdk.jfr.Event
+{
+    @Label("Číslo strany")
+    public int page;
+
+    @Label("Štítky")
+    public int labels;
+}
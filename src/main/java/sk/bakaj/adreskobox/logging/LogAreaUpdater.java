@@ -0,0 +1,58 @@
+package sk.bakaj.adreskobox.logging;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.TextArea;
+
+/**
+ * Prenáša riadky z {@link LogRingBuffer} do textového poľa raz za snímku.
+ *
+ * Všetky riadky nazbierané od poslednej snímky sa pridajú jedným volaním appendText,
+ * takže ani tisíce správ nespôsobia tisíce prekreslení. Text v poli sa obmedzí
+ * na posledných {@code maxChars} znakov.
+ */
+public class LogAreaUpdater extends AnimationTimer
+{
+    private final TextArea textArea;
+    private final LogRingBuffer buffer;
+    private final int maxChars;
+
+    /**
+     * @param textArea cieľové textové pole
+     * @param buffer zdroj riadkov
+     * @param maxChars maximálny počet znakov ponechaných v poli
+     */
+    public LogAreaUpdater(TextArea textArea, LogRingBuffer buffer, int maxChars)
+    {
+        this.textArea = textArea;
+        this.buffer = buffer;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public void handle(long now)
+    {
+        String text = buffer.drain();
+        if (text == null)
+        {
+            return;
+        }
+
+        textArea.appendText(text);
+        int excess = textArea.getLength() - maxChars;
+        if (excess > 0)
+        {
+            // Odstránia sa celé riadky od začiatku
+            int lineEnd = textArea.getText().indexOf('\n', excess);
+            textArea.deleteText(0, lineEnd >= 0 ? lineEnd + 1 : excess);
+        }
+    }
+
+    /**
+     * Vymaže pole aj riadky čakajúce na zobrazenie.
+     */
+    public void clear()
+    {
+        buffer.clear();
+        textArea.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package sk.bakaj.adreskobox.logging;
+
+import java.util.Arrays;
+
+/**
+ * Ohraničený kruhový buffer riadkov logu pre zobrazenie v aplikácii.
+ *
+ * Appender doň zapisuje z vlákna asynchrónneho loggera, GUI si riadky vyberá naraz
+ * raz za snímku. Pri zaplnení sa prepisujú najstaršie riadky, takže zápis nikdy nečaká.
+ */
+public class LogRingBuffer
+{
+    private final String[] lines;
+    private int head;
+    private int size;
+    private long dropped;
+
+    /**
+     * @param capacity maximálny počet riadkov čakajúcich na zobrazenie
+     */
+    public LogRingBuffer(int capacity)
+    {
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Pridá riadok; ak je buffer plný, prepíše najstarší.
+     */
+    public synchronized void add(String line)
+    {
+        int tail = (head + size) % lines.length;
+        lines[tail] = line;
+        if (size < lines.length)
+        {
+            size++;
+        }
+        else
+        {
+            head = (head + 1) % lines.length;
+            dropped++;
+        }
+    }
+
+    /**
+     * Vyberie všetky čakajúce riadky ako jeden text.
+     *
+     * @return spojené riadky alebo null, ak nič nečaká
+     */
+    public synchronized String drain()
+    {
+        if (size == 0 && dropped == 0)
+        {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder();
+        if (dropped > 0)
+        {
+            text.append("… vynechaných ").append(dropped).append(" riadkov …\n");
+            dropped = 0;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            int index = (head + i) % lines.length;
+            text.append(lines[index]);
+            lines[index] = null;
+        }
+        head = 0;
+        size = 0;
+        return text.toString();
+    }
+
+    /**
+     * Zahodí čakajúce riadky.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+        dropped = 0;
+    }
+}
@@ -0,0 +1,77 @@
+package sk.bakaj.adreskobox.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.util.Set;
+
+/**
+ * Appender Log4j2, ktorý zapisuje správy do {@link LogRingBuffer} pre protokol v aplikácii.
+ *
+ * Pridáva sa programovo pri štarte GUI (príkazový riadok ho nepotrebuje) ku koreňovému
+ * loggeru. Do protokolu prepúšťa správy loggerov generovania od úrovne INFO a z ostatných
+ * loggerov iba varovania a chyby, aby protokol nezahltili informačné správy celej aplikácie.
+ * Zapisuje sa iba text správy bez výpisu zásobníka výnimky (ten je v súbore logu).
+ * Volá ho vlákno asynchrónneho loggera - iba naformátuje správu a vloží ju do buffra.
+ */
+public class UiLogAppender extends AbstractAppender
+{
+    public static final String NAME = "Ui";
+    private static final int CAPACITY = 5000;
+
+    private static UiLogAppender instance;
+
+    private final LogRingBuffer buffer = new LogRingBuffer(CAPACITY);
+    private final Set<String> generationLoggers;
+
+    private UiLogAppender(Set<String> generationLoggers)
+    {
+        super(NAME, null, PatternLayout.newBuilder().withPattern("%msg%n").withAlwaysWriteExceptions(false).build(),
+                true, Property.EMPTY_ARRAY);
+        this.generationLoggers = generationLoggers;
+    }
+
+    /**
+     * Pridá appender do aktuálnej konfigurácie logovania (iba raz).
+     *
+     * @param generationLoggers názvy loggerov generovania, ktorých správy sa zobrazia od úrovne INFO
+     * @return nainštalovaný appender
+     */
+    public static synchronized UiLogAppender install(String... generationLoggers)
+    {
+        if (instance == null)
+        {
+            UiLogAppender appender = new UiLogAppender(Set.of(generationLoggers));
+            appender.start();
+
+            LoggerContext context = (LoggerContext) LogManager.getContext(false);
+            Configuration configuration = context.getConfiguration();
+            configuration.addAppender(appender);
+            configuration.getRootLogger().addAppender(appender, Level.INFO, null);
+            context.updateLoggers();
+            instance = appender;
+        }
+        return instance;
+    }
+
+    public LogRingBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    @Override
+    public void append(LogEvent event)
+    {
+        if (!event.getLevel().isMoreSpecificThan(Level.WARN) && !generationLoggers.contains(event.getLoggerName()))
+        {
+            return;
+        }
+        buffer.add(getLayout().toSerializable(event).toString());
+    }
+}
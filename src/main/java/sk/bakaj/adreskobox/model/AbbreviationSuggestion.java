@@ -0,0 +1,79 @@
+package sk.bakaj.adreskobox.model;
+
+/**
+ * Trieda reprezentujúca návrh novej skratky vytvorený analýzou importovaných adries.
+ * Okrem navrhovanej dvojice text → skratka uchováva aj štatistiky, podľa ktorých
+ * sa návrhy zoraďujú (počet výskytov a celková ušetrená šírka na štítkoch).
+ */
+public class AbbreviationSuggestion
+{
+    // Pôvodný text (slovo alebo viacslovné spojenie) tak, ako sa vyskytol v adrese
+    private final String originalText;
+    // Navrhovaná skratka
+    private String abbreviation;
+    // Počet výskytov vo všetkých adresách
+    private final int occurrences;
+    // Počet štítkov, ktoré sa nezmestia a obsahujú tento text
+    private final int affectedLabels;
+    // Celková šírka v bodoch ušetrená na štítkoch, ktoré sa nezmestia
+    private final float savedWidth;
+
+    /**
+     * Konštruktor pre vytvorenie návrhu skratky.
+     *
+     * @param originalText pôvodný text (napr. "Hviezdoslavova")
+     * @param abbreviation navrhovaná skratka (napr. "Hviezd.")
+     * @param occurrences počet výskytov vo všetkých adresách
+     * @param affectedLabels počet nevyhovujúcich štítkov s týmto textom
+     * @param savedWidth celková ušetrená šírka v bodoch na nevyhovujúcich štítkoch
+     */
+    public AbbreviationSuggestion(String originalText, String abbreviation, int occurrences,
+                                  int affectedLabels, float savedWidth)
+    {
+        this.originalText = originalText;
+        this.abbreviation = abbreviation;
+        this.occurrences = occurrences;
+        this.affectedLabels = affectedLabels;
+        this.savedWidth = savedWidth;
+    }
+
+    /** @return pôvodný text pred skrátením */
+    public String getOriginalText()
+    {
+        return originalText;
+    }
+
+    /** @return navrhovaná skratka */
+    public String getAbbreviation()
+    {
+        return abbreviation;
+    }
+
+    /**
+     * Setter metóda pre úpravu navrhovanej skratky používateľom.
+     *
+     * @param abbreviation nová skratka
+     */
+    public void setAbbreviation(String abbreviation)
+    {
+        this.abbreviation = abbreviation;
+    }
+
+    /** @return počet výskytov vo všetkých adresách */
+    public int getOccurrences()
+    {
+        return occurrences;
+    }
+
+    /** @return počet nevyhovujúcich štítkov obsahujúcich tento text */
+    public int getAffectedLabels()
+    {
+        return affectedLabels;
+    }
+
+    /** @return celková ušetrená šírka v bodoch na nevyhovujúcich štítkoch */
+    public float getSavedWidth()
+    {
+        return savedWidth;
+    }
+}
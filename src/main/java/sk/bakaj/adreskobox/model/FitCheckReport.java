@@ -0,0 +1,121 @@
+package sk.bakaj.adreskobox.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Výsledok hromadnej kontroly rozmerov štítkov.
+ *
+ * Nevyhovujúce štítky sú uložené ako bitová množina indexov vo vstupnom zozname, presah
+ * v bodoch sa uchováva iba pre ne: pre každý pôvodný riadok o koľko je slovo, ktoré sa nedá
+ * zalomiť, širšie ako plocha textu, a o koľko sú riadky po zalomení spolu vyššie ako plocha
+ * textu. Presah sa počíta na rovnakom zalomení ako samotná kontrola, pri veľkosti písma,
+ * ktorou by sa štítok vytlačil.
+ */
+public class FitCheckReport
+{
+    private static final float[] NO_OVERFLOW = new float[0];
+
+    private final int labelCount;
+    private final BitSet notFitting;
+    private final int[] failingIndexes;
+    private final float[][] lineOverflows;
+    private final float[] heightOverflows;
+    private final int worstIndex;
+    private final float worstOverflow;
+
+    /**
+     * @param labelCount počet kontrolovaných štítkov
+     * @param notFitting indexy nevyhovujúcich štítkov
+     * @param lineOverflows presah nezalomiteľných slov pôvodných riadkov v bodoch pre každý
+     *                      nevyhovujúci štítok (v poradí indexov)
+     * @param heightOverflows presah výšky zalomených riadkov v bodoch pre každý nevyhovujúci štítok
+     *                        (v poradí indexov)
+     */
+    public FitCheckReport(int labelCount, BitSet notFitting, float[][] lineOverflows, float[] heightOverflows)
+    {
+        this.labelCount = labelCount;
+        this.notFitting = notFitting;
+        this.failingIndexes = notFitting.stream().toArray();
+        this.lineOverflows = lineOverflows;
+        this.heightOverflows = heightOverflows;
+
+        // Najväčší presah - pri rovnosti prvý štítok
+        int worst = -1;
+        float worstValue = 0f;
+        for (int i = 0; i < failingIndexes.length; i++)
+        {
+            float overflow = getOverflow(i);
+            if (worst < 0 || overflow > worstValue)
+            {
+                worst = failingIndexes[i];
+                worstValue = overflow;
+            }
+        }
+        this.worstIndex = worst;
+        this.worstOverflow = worstValue;
+    }
+
+    /** @return počet kontrolovaných štítkov */
+    public int getLabelCount()
+    {
+        return labelCount;
+    }
+
+    /** @return kópia množiny indexov nevyhovujúcich štítkov */
+    public BitSet getNotFitting()
+    {
+        return (BitSet) notFitting.clone();
+    }
+
+    /** @return počet nevyhovujúcich štítkov */
+    public int getNotFittingCount()
+    {
+        return failingIndexes.length;
+    }
+
+    /** @return true, ak sa štítok s daným indexom zmestí */
+    public boolean fits(int index)
+    {
+        return !notFitting.get(index);
+    }
+
+    /**
+     * @return presah najširšieho nezalomiteľného slova pre každý pôvodný riadok štítka v bodoch
+     *         (0 pre riadok, ktorý sa dá zalomiť do šírky), prázdne pole pre vyhovujúci štítok
+     */
+    public float[] getLineOverflows(int index)
+    {
+        int position = Arrays.binarySearch(failingIndexes, index);
+        return position >= 0 ? lineOverflows[position].clone() : NO_OVERFLOW;
+    }
+
+    /** @return presah zalomených riadkov štítka na výšku v bodoch, 0 pre vyhovujúci štítok */
+    public float getHeightOverflow(int index)
+    {
+        int position = Arrays.binarySearch(failingIndexes, index);
+        return position >= 0 ? heightOverflows[position] : 0f;
+    }
+
+    /** @return index štítka s najväčším presahom alebo -1, ak sa zmestia všetky */
+    public int getWorstIndex()
+    {
+        return worstIndex;
+    }
+
+    /** @return najväčší presah v bodoch (na šírku alebo na výšku) */
+    public float getWorstOverflow()
+    {
+        return worstOverflow;
+    }
+
+    private float getOverflow(int position)
+    {
+        float overflow = heightOverflows[position];
+        for (float lineOverflow : lineOverflows[position])
+        {
+            overflow = Math.max(overflow, lineOverflow);
+        }
+        return overflow;
+    }
+}
@@ -0,0 +1,82 @@
+package sk.bakaj.adreskobox.model;
+
+/**
+ * Vyhodnotenie jedného formátu štítkov voči skupine príjemcov - koľko štítkov sa nezmestí
+ * bez skratiek a so skratkami a koľko hárkov sa spotrebuje.
+ */
+public class FormatEvaluation
+{
+    private final LabelFormat format;
+    private final int labelCount;
+    private final int notFittingOriginal;
+    private final int notFittingAbbreviated;
+
+    /**
+     * @param format vyhodnotený formát
+     * @param labelCount počet štítkov
+     * @param notFittingOriginal počet štítkov, ktoré sa nezmestia s pôvodnou adresou
+     * @param notFittingAbbreviated počet štítkov, ktoré sa nezmestia ani so skrátenou adresou
+     */
+    public FormatEvaluation(LabelFormat format, int labelCount, int notFittingOriginal, int notFittingAbbreviated)
+    {
+        this.format = format;
+        this.labelCount = labelCount;
+        this.notFittingOriginal = notFittingOriginal;
+        this.notFittingAbbreviated = notFittingAbbreviated;
+    }
+
+    /** @return vyhodnotený formát */
+    public LabelFormat getFormat()
+    {
+        return format;
+    }
+
+    /** @return počet štítkov */
+    public int getLabelCount()
+    {
+        return labelCount;
+    }
+
+    /** @return počet štítkov na jednom hárku */
+    public int getLabelsPerSheet()
+    {
+        return format.getColumns() * format.getRows();
+    }
+
+    /** @return počet hárkov potrebných pre všetky štítky */
+    public int getSheetCount()
+    {
+        int perSheet = getLabelsPerSheet();
+        return perSheet > 0 ? (labelCount + perSheet - 1) / perSheet : 0;
+    }
+
+    /** @return počet štítkov, ktoré sa nezmestia s pôvodnou adresou */
+    public int getNotFittingOriginal()
+    {
+        return notFittingOriginal;
+    }
+
+    /** @return počet štítkov, ktoré sa nezmestia ani so skrátenou adresou */
+    public int getNotFittingAbbreviated()
+    {
+        return notFittingAbbreviated;
+    }
+
+    /** @return podiel vyhovujúcich štítkov s pôvodnou adresou (0 až 1) */
+    public double getOriginalFitRate()
+    {
+        return labelCount > 0 ? (double) (labelCount - notFittingOriginal) / labelCount : 1;
+    }
+
+    /** @return podiel vyhovujúcich štítkov so skrátenou adresou (0 až 1) */
+    public double getAbbreviatedFitRate()
+    {
+        return labelCount > 0 ? (double) (labelCount - notFittingAbbreviated) / labelCount : 1;
+    }
+
+    /** @return true, ak sa po skrátení adries zmestia všetky štítky */
+    public boolean isAllFitting()
+    {
+        return notFittingAbbreviated == 0;
+    }
+}
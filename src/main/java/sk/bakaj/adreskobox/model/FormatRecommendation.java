@@ -0,0 +1,44 @@
+package sk.bakaj.adreskobox.model;
+
+import java.util.List;
+
+/**
+ * Výsledok porovnania formátov štítkov - vyhodnotenia zoradené od najvhodnejšieho formátu
+ * a odporúčaný formát.
+ */
+public class FormatRecommendation
+{
+    private final List<FormatEvaluation> evaluations;
+    private final long durationMillis;
+
+    /**
+     * @param evaluations vyhodnotenia zoradené od najvhodnejšieho formátu
+     * @param durationMillis trvanie vyhodnotenia v ms
+     */
+    public FormatRecommendation(List<FormatEvaluation> evaluations, long durationMillis)
+    {
+        this.evaluations = evaluations;
+        this.durationMillis = durationMillis;
+    }
+
+    /** @return vyhodnotenia zoradené od najvhodnejšieho formátu */
+    public List<FormatEvaluation> getEvaluations()
+    {
+        return evaluations;
+    }
+
+    /**
+     * @return vyhodnotenie odporúčaného formátu - s najmenším počtom hárkov, na ktorý
+     *         sa po skrátení adries zmestia všetky štítky - alebo null, ak taký formát nie je
+     */
+    public FormatEvaluation getRecommended()
+    {
+        return !evaluations.isEmpty() && evaluations.get(0).isAllFitting() ? evaluations.get(0) : null;
+    }
+
+    /** @return trvanie vyhodnotenia v ms */
+    public long getDurationMillis()
+    {
+        return durationMillis;
+    }
+}
@@ -0,0 +1,242 @@
+package sk.bakaj.adreskobox.model;
+
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
+import sk.bakaj.adreskobox.util.StringDictionary;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stĺpcové úložisko importovaných záznamov.
+ *
+ * Namiesto samostatných objektov s vlastnými kópiami reťazcov sú hodnoty uložené
+ * v poliach primitívnych typov a opakujúce sa texty (mená, celé adresy, ulice, obce)
+ * sú zakódované do slovníkov ({@link StringDictionary}). PSČ sa ukladá ako číslo.
+ * Každá rôzna adresa sa rozloží na ulicu, PSČ a obec iba raz.
+ *
+ * Každý riadok má dva sloty rodičov (0 = Rodič 1., 1 = Rodič 2.). Záložky pracujú
+ * s ľahkými pohľadmi (riadok, slot) a objekt {@link Parent} sa vytvorí až pri potrebe.
+ */
+public class ImportedRecordStore
+{
+    /** Počet rodičov v jednom riadku */
+    public static final int PARENT_SLOTS = 2;
+
+    private final StringDictionary names = new StringDictionary(1024);
+    private final StringDictionary addresses = new StringDictionary(1024);
+    private final StringDictionary streets = new StringDictionary(256);
+    private final StringDictionary cities = new StringDictionary(64);
+
+    // Stĺpce riadkov
+    private int[] studentFirstNames;
+    private int[] studentLastNames;
+    // Stĺpce rodičov, index = riadok * PARENT_SLOTS + slot
+    private int[] parentNames;
+    private int[] parentAddresses;
+    private int size;
+
+    // Rozložené adresy, index = id adresy v slovníku
+    private int[] addressStreets = new int[1024];
+    private int[] addressZipCodes = new int[1024];
+    private int[] addressCities = new int[1024];
+    private int parsedAddresses;
+
+    public ImportedRecordStore()
+    {
+        this(256);
+    }
+
+    /**
+     * @param expectedRows očakávaný počet riadkov
+     */
+    public ImportedRecordStore(int expectedRows)
+    {
+        int capacity = Math.max(16, expectedRows);
+        studentFirstNames = new int[capacity];
+        studentLastNames = new int[capacity];
+        parentNames = new int[capacity * PARENT_SLOTS];
+        parentAddresses = new int[capacity * PARENT_SLOTS];
+    }
+
+    /**
+     * Vytvorí úložisko zo zoznamu importovaných dát.
+     *
+     * @param importedDataList zoznam importovaných dát
+     * @return nové úložisko
+     */
+    public static ImportedRecordStore fromImportedData(List<ImportedData> importedDataList)
+    {
+        ImportedRecordStore store = new ImportedRecordStore(importedDataList.size());
+        for (ImportedData data : importedDataList)
+        {
+            store.add(data.getStudentFirstName(), data.getStudentLastName(),
+                    data.getParent1Name(), data.getAddress1(),
+                    data.getParent2Name(), data.getAddress2());
+        }
+        return store;
+    }
+
+    /**
+     * Pridá jeden riadok importu.
+     *
+     * @return index pridaného riadku
+     */
+    public int add(String studentFirstName, String studentLastName,
+                   String parent1Name, String address1,
+                   String parent2Name, String address2)
+    {
+        if (size == studentFirstNames.length)
+        {
+            int capacity = size * 2;
+            studentFirstNames = Arrays.copyOf(studentFirstNames, capacity);
+            studentLastNames = Arrays.copyOf(studentLastNames, capacity);
+            parentNames = Arrays.copyOf(parentNames, capacity * PARENT_SLOTS);
+            parentAddresses = Arrays.copyOf(parentAddresses, capacity * PARENT_SLOTS);
+        }
+
+        int row = size++;
+        studentFirstNames[row] = names.encode(trim(studentFirstName));
+        studentLastNames[row] = names.encode(trim(studentLastName));
+        setParent(row * PARENT_SLOTS, parent1Name, address1);
+        setParent(row * PARENT_SLOTS + 1, parent2Name, address2);
+        return row;
+    }
+
+    private void setParent(int index, String parentName, String address)
+    {
+        parentNames[index] = names.encode(trim(parentName));
+        int addressId = addresses.encode(trim(address));
+        parentAddresses[index] = addressId;
+
+        if (addressId >= parsedAddresses)
+        {
+            parseAddress(addressId);
+        }
+    }
+
+    /**
+     * Rozloží novú adresu na ulicu, PSČ a obec - rovnakým spôsobom ako {@link Parent}.
+     */
+    private void parseAddress(int addressId)
+    {
+        if (addressId == addressStreets.length)
+        {
+            int capacity = addressId * 2;
+            addressStreets = Arrays.copyOf(addressStreets, capacity);
+            addressZipCodes = Arrays.copyOf(addressZipCodes, capacity);
+            addressCities = Arrays.copyOf(addressCities, capacity);
+        }
+
+        Parent parsed = new Parent("", addresses.decode(addressId));
+        addressStreets[addressId] = streets.encode(parsed.getAddress());
+        addressZipCodes[addressId] = PostalCodeIndex.parse(parsed.getZipCode());
+        addressCities[addressId] = cities.encode(parsed.getCity());
+        parsedAddresses = addressId + 1;
+    }
+
+    private static String trim(String value)
+    {
+        return value != null ? value.trim() : null;
+    }
+
+    /** @return počet riadkov */
+    public int size()
+    {
+        return size;
+    }
+
+    public String getStudentFirstName(int row)
+    {
+        return names.decode(studentFirstNames[row]);
+    }
+
+    public String getStudentLastName(int row)
+    {
+        return names.decode(studentLastNames[row]);
+    }
+
+    /**
+     * @return celé meno študenta ("Meno Priezvisko")
+     */
+    public String getStudentName(int row)
+    {
+        return getStudentFirstName(row) + " " + getStudentLastName(row);
+    }
+
+    /**
+     * @return true ak je v slote vyplnené meno rodiča
+     */
+    public boolean hasParent(int row, int slot)
+    {
+        return parentNames[row * PARENT_SLOTS + slot] != StringDictionary.EMPTY_ID;
+    }
+
+    public String getParentName(int row, int slot)
+    {
+        return names.decode(parentNames[row * PARENT_SLOTS + slot]);
+    }
+
+    /**
+     * @return celá adresa rodiča tak, ako bola v importe
+     */
+    public String getAddress(int row, int slot)
+    {
+        return addresses.decode(parentAddresses[row * PARENT_SLOTS + slot]);
+    }
+
+    /**
+     * @return ulica a číslo z adresy rodiča
+     */
+    public String getStreet(int row, int slot)
+    {
+        int addressId = parentAddresses[row * PARENT_SLOTS + slot];
+        return addressId == StringDictionary.EMPTY_ID ? "" : streets.decode(addressStreets[addressId]);
+    }
+
+    /**
+     * @return PSČ ako číslo alebo -1, ak adresa PSČ neobsahuje
+     */
+    public int getZipCodeValue(int row, int slot)
+    {
+        int addressId = parentAddresses[row * PARENT_SLOTS + slot];
+        return addressId == StringDictionary.EMPTY_ID ? -1 : addressZipCodes[addressId];
+    }
+
+    /**
+     * @return PSČ v tvare "811 01" alebo prázdny reťazec
+     */
+    public String getZipCode(int row, int slot)
+    {
+        int zipCode = getZipCodeValue(row, slot);
+        return zipCode < 0 ? "" : PostalCodeIndex.format(zipCode);
+    }
+
+    public String getCity(int row, int slot)
+    {
+        int addressId = parentAddresses[row * PARENT_SLOTS + slot];
+        return addressId == StringDictionary.EMPTY_ID ? "" : cities.decode(addressCities[addressId]);
+    }
+
+    /**
+     * Vytvorí objekt rodiča pre ďalšie spracovanie (kontrola adries, štítky).
+     */
+    public Parent toParent(int row, int slot)
+    {
+        return new Parent(getParentName(row, slot), getAddress(row, slot));
+    }
+
+    /**
+     * Vytvorí objekt ImportedData pre riadok (pre kód, ktorý pracuje s pôvodným modelom).
+     */
+    public ImportedData toImportedData(int row)
+    {
+        ImportedData data = new ImportedData();
+        data.setStudentFirstName(getStudentFirstName(row));
+        data.setStudentLastName(getStudentLastName(row));
+        data.setParent1Name(getParentName(row, 0));
+        data.setAddress1(getAddress(row, 0));
+        data.setParent2Name(getParentName(row, 1));
+        data.setAddress2(getAddress(row, 1));
+        return data;
+    }
+}
@@ -3,6 +3,8 @@ package sk.bakaj.adreskobox.model;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.List;
+
 /**
  * Model reprezentujúci formát štítkov pre tlač adries.
  *
@@ -49,6 +51,9 @@ public class LabelFormat
     /** Maximálna dĺžka adresy v znakoch */
     private int maxAddressLength;
 
+    /** Pevný obsah tlačený na každý štítok (spiatočná adresa, označenie, logo) */
+    private LabelStaticContent staticContent;
+
     /**
      * Vytvorí nový formát štítkov so zadanými parametrami.
      *
@@ -194,6 +199,38 @@ public class LabelFormat
         return maxAddressLength;
     }
 
+    /** @return pevný obsah štítkov alebo null */
+    public LabelStaticContent getStaticContent()
+    {
+        return staticContent;
+    }
+
+    public void setStaticContent(LabelStaticContent staticContent)
+    {
+        this.staticContent = staticContent;
+    }
+
+    /**
+     * Vytvorí kópiu formátu s daným pevným obsahom. Pôvodný formát (napr. zdieľaný zvolený
+     * formát, ktorý sa používa aj pri kontrole adries) zostane nezmenený.
+     *
+     * @param staticContent pevný obsah štítkov alebo null
+     * @return nový formát s rovnakými rozmermi a zadaným pevným obsahom
+     */
+    public LabelFormat withStaticContent(LabelStaticContent staticContent)
+    {
+        LabelFormat copy = new LabelFormat(name, width, height, columns, rows, leftMargin, rightMargin,
+                topMargin, bottomMargin, horizontalGap, verticalGap, maxAddressLength);
+        copy.staticContent = staticContent;
+        return copy;
+    }
+
+    /** @return true, ak má formát neprázdny pevný obsah */
+    public boolean hasStaticContent()
+    {
+        return staticContent != null && !staticContent.isEmpty();
+    }
+
     /**
      * Vypočíta celkový počet štítkov na jednej stránke.
      *
@@ -275,7 +312,18 @@ public class LabelFormat
      */
     public static ObservableList<LabelFormat> getPredefinedFormats()
     {
-        return FXCollections.observableArrayList(
+        return FXCollections.observableArrayList(getPredefinedFormatList());
+    }
+
+    /**
+     * Poskytuje zoznam preddefinovaných formátov štítkov bez závislosti na JavaFX
+     * (pre režim príkazového riadku).
+     *
+     * @return nemodifikovateľný zoznam dostupných formátov
+     */
+    public static List<LabelFormat> getPredefinedFormatList()
+    {
+        return List.of(
                 // Avery štandardné formáty
                 new LabelFormat("A4 - 48,3 x 16,9 mm (64 ks)",
                         48.3, 16.9, 4, 16,
@@ -298,4 +346,83 @@ public class LabelFormat
                         0, 0, 80)
         );
     }
+
+    /**
+     * Vyhľadá preddefinovaný formát podľa názvu. Porovnáva sa bez ohľadu na veľkosť písmen,
+     * medzery a znak "×", takže stačí napr. "70x37" alebo "64 ks".
+     *
+     * @param name názov alebo jeho jednoznačná časť
+     * @return nájdený formát alebo null, ak žiadny alebo viac formátov zodpovedá názvu
+     */
+    public static LabelFormat findPredefined(String name)
+    {
+        if (name == null || name.trim().isEmpty())
+        {
+            return null;
+        }
+
+        String key = createSearchKey(name);
+        LabelFormat found = null;
+        for (LabelFormat format : getPredefinedFormatList())
+        {
+            String formatKey = createSearchKey(format.getName());
+            if (formatKey.equals(key))
+            {
+                return format;
+            }
+            if (formatKey.contains(key))
+            {
+                if (found != null)
+                {
+                    return null; // Nejednoznačný názov
+                }
+                found = format;
+            }
+        }
+        return found;
+    }
+
+    private static String createSearchKey(String name)
+    {
+        return name.toLowerCase().replace('×', 'x').replace('.', ',').replaceAll("\\s+", "");
+    }
+
+    /**
+     * Vytvorí vlastný formát z textového zápisu
+     * "názov;šírka;výška;stĺpce;riadky;ľavý;pravý;horný;dolný;hMedzera;vMedzera;maxDĺžka".
+     * Desatinné čísla môžu používať bodku aj čiarku.
+     *
+     * @param spec textový zápis formátu
+     * @return nový formát
+     * @throws IllegalArgumentException ak zápis nemá 12 častí alebo obsahuje neplatné hodnoty
+     */
+    public static LabelFormat fromSpec(String spec)
+    {
+        String[] parts = spec != null ? spec.split(";", -1) : new String[0];
+        if (parts.length != 12)
+        {
+            throw new IllegalArgumentException("Vlastný formát musí mať 12 častí oddelených ';' "
+                    + "(názov;šírka;výška;stĺpce;riadky;ľavý;pravý;horný;dolný;hMedzera;vMedzera;maxDĺžka)");
+        }
+
+        try
+        {
+            return new LabelFormat(parts[0].trim(),
+                    parseNumber(parts[1]), parseNumber(parts[2]),
+                    Integer.parseInt(parts[3].trim()), Integer.parseInt(parts[4].trim()),
+                    parseNumber(parts[5]), parseNumber(parts[6]),
+                    parseNumber(parts[7]), parseNumber(parts[8]),
+                    parseNumber(parts[9]), parseNumber(parts[10]),
+                    Integer.parseInt(parts[11].trim()));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Neplatné číslo vo formáte štítkov: " + e.getMessage());
+        }
+    }
+
+    private static double parseNumber(String value)
+    {
+        return Double.parseDouble(value.trim().replace(',', '.'));
+    }
 }
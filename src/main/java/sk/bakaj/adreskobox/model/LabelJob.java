@@ -0,0 +1,164 @@
+package sk.bakaj.adreskobox.model;
+
+import java.io.File;
+
+/**
+ * Zadanie jedného behu generovania bez grafického rozhrania
+ * (vstupný súbor, formát štítkov, odosielateľ, šablóna a výstupný adresár).
+ */
+public class LabelJob
+{
+    private File inputFile;
+    private LabelFormat labelFormat;
+    private String senderName = "";
+    private String senderStreet = "";
+    private String senderCity = "";
+    private File templateFile;
+    private File outputDirectory;
+    private boolean mergeHouseholds = true;
+    private boolean generateLabels = true;
+    private boolean generateSubmissionSheets = true;
+    private PdfOutputOptions pdfOutputOptions = PdfOutputOptions.standard();
+
+    public LabelJob()
+    {
+    }
+
+    /**
+     * Vytvorí kópiu nastavení zadania pre iný vstupný súbor a výstupný adresár
+     * (sledovaný adresár, dávkové spracovanie).
+     *
+     * @param inputFile vstupný súbor
+     * @param outputDirectory výstupný adresár
+     * @return nové zadanie
+     */
+    public LabelJob copyFor(File inputFile, File outputDirectory)
+    {
+        LabelJob copy = new LabelJob();
+        copy.inputFile = inputFile;
+        copy.outputDirectory = outputDirectory;
+        copy.labelFormat = labelFormat;
+        copy.senderName = senderName;
+        copy.senderStreet = senderStreet;
+        copy.senderCity = senderCity;
+        copy.templateFile = templateFile;
+        copy.mergeHouseholds = mergeHouseholds;
+        copy.generateLabels = generateLabels;
+        copy.generateSubmissionSheets = generateSubmissionSheets;
+        copy.pdfOutputOptions = pdfOutputOptions;
+        return copy;
+    }
+
+    public File getInputFile()
+    {
+        return inputFile;
+    }
+
+    public void setInputFile(File inputFile)
+    {
+        this.inputFile = inputFile;
+    }
+
+    public LabelFormat getLabelFormat()
+    {
+        return labelFormat;
+    }
+
+    public void setLabelFormat(LabelFormat labelFormat)
+    {
+        this.labelFormat = labelFormat;
+    }
+
+    public String getSenderName()
+    {
+        return senderName;
+    }
+
+    public void setSenderName(String senderName)
+    {
+        this.senderName = senderName != null ? senderName : "";
+    }
+
+    public String getSenderStreet()
+    {
+        return senderStreet;
+    }
+
+    public void setSenderStreet(String senderStreet)
+    {
+        this.senderStreet = senderStreet != null ? senderStreet : "";
+    }
+
+    public String getSenderCity()
+    {
+        return senderCity;
+    }
+
+    public void setSenderCity(String senderCity)
+    {
+        this.senderCity = senderCity != null ? senderCity : "";
+    }
+
+    /** @return šablóna podacieho hárku alebo null pre vytvorenie novej */
+    public File getTemplateFile()
+    {
+        return templateFile;
+    }
+
+    public void setTemplateFile(File templateFile)
+    {
+        this.templateFile = templateFile;
+    }
+
+    /** @return výstupný adresár alebo null pre adresár vstupného súboru */
+    public File getOutputDirectory()
+    {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(File outputDirectory)
+    {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public boolean isMergeHouseholds()
+    {
+        return mergeHouseholds;
+    }
+
+    public void setMergeHouseholds(boolean mergeHouseholds)
+    {
+        this.mergeHouseholds = mergeHouseholds;
+    }
+
+    public boolean isGenerateLabels()
+    {
+        return generateLabels;
+    }
+
+    public void setGenerateLabels(boolean generateLabels)
+    {
+        this.generateLabels = generateLabels;
+    }
+
+    public boolean isGenerateSubmissionSheets()
+    {
+        return generateSubmissionSheets;
+    }
+
+    public void setGenerateSubmissionSheets(boolean generateSubmissionSheets)
+    {
+        this.generateSubmissionSheets = generateSubmissionSheets;
+    }
+
+    /** @return nastavenia výstupu PDF so štítkami */
+    public PdfOutputOptions getPdfOutputOptions()
+    {
+        return pdfOutputOptions;
+    }
+
+    public void setPdfOutputOptions(PdfOutputOptions pdfOutputOptions)
+    {
+        this.pdfOutputOptions = pdfOutputOptions != null ? pdfOutputOptions : PdfOutputOptions.standard();
+    }
+}
@@ -0,0 +1,147 @@
+package sk.bakaj.adreskobox.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Výsledok jedného behu generovania - počty spracovaných záznamov,
+ * vytvorené súbory a čas spracovania.
+ */
+public class LabelJobResult
+{
+    private final File inputFile;
+    private int recordCount;
+    private int parentCount;
+    private int abbreviatedCount;
+    /** Mená príjemcov, ktorých štítok sa nezmestí ani po skrátení adresy */
+    private final List<String> notFitting = new ArrayList<>();
+    /** Príjemca so štítkom s najväčším presahom a presah v bodoch */
+    private String worstOffender;
+    private float worstOverflow;
+    private File labelsFile;
+    private PdfSizeReport labelsSize;
+    private final List<File> submissionSheets = new ArrayList<>();
+    private long elapsedMillis;
+    /** Chybová správa, ak spracovanie zlyhalo */
+    private String error;
+
+    public LabelJobResult(File inputFile)
+    {
+        this.inputFile = inputFile;
+    }
+
+    public File getInputFile()
+    {
+        return inputFile;
+    }
+
+    /** @return počet načítaných riadkov (žiakov) */
+    public int getRecordCount()
+    {
+        return recordCount;
+    }
+
+    public void setRecordCount(int recordCount)
+    {
+        this.recordCount = recordCount;
+    }
+
+    /** @return počet príjemcov po prípadnom zlúčení domácností */
+    public int getParentCount()
+    {
+        return parentCount;
+    }
+
+    public void setParentCount(int parentCount)
+    {
+        this.parentCount = parentCount;
+    }
+
+    /** @return počet adries zmenených skratkami */
+    public int getAbbreviatedCount()
+    {
+        return abbreviatedCount;
+    }
+
+    public void setAbbreviatedCount(int abbreviatedCount)
+    {
+        this.abbreviatedCount = abbreviatedCount;
+    }
+
+    public List<String> getNotFitting()
+    {
+        return notFitting;
+    }
+
+    /** @return meno príjemcu so štítkom s najväčším presahom alebo null, ak sa zmestia všetky */
+    public String getWorstOffender()
+    {
+        return worstOffender;
+    }
+
+    /** @return najväčší presah štítka v bodoch */
+    public float getWorstOverflow()
+    {
+        return worstOverflow;
+    }
+
+    public void setWorstOffender(String worstOffender, float worstOverflow)
+    {
+        this.worstOffender = worstOffender;
+        this.worstOverflow = worstOverflow;
+    }
+
+    /** @return súbor so štítkami alebo null, ak sa negeneroval */
+    public File getLabelsFile()
+    {
+        return labelsFile;
+    }
+
+    public void setLabelsFile(File labelsFile)
+    {
+        this.labelsFile = labelsFile;
+    }
+
+    /** @return veľkosť PDF so štítkami alebo null, ak sa negeneroval */
+    public PdfSizeReport getLabelsSize()
+    {
+        return labelsSize;
+    }
+
+    public void setLabelsSize(PdfSizeReport labelsSize)
+    {
+        this.labelsSize = labelsSize;
+    }
+
+    public List<File> getSubmissionSheets()
+    {
+        return submissionSheets;
+    }
+
+    public long getElapsedMillis()
+    {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis)
+    {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getError()
+    {
+        return error;
+    }
+
+    public void setError(String error)
+    {
+        this.error = error;
+    }
+
+    /** @return true, ak spracovanie prebehlo bez chyby */
+    public boolean isSuccessful()
+    {
+        return error == null;
+    }
+}
@@ -0,0 +1,52 @@
+package sk.bakaj.adreskobox.model;
+
+import java.util.List;
+
+/**
+ * Rozloženie textu jedného štítka - zalomené riadky a veľkosť písma, ktorými sa štítok vytlačí.
+ */
+public class LabelLayout
+{
+    private final List<String> lines;
+    private final float fontSize;
+    private final float leading;
+    private final boolean fits;
+
+    /**
+     * @param lines riadky po zalomení
+     * @param fontSize veľkosť písma v bodoch
+     * @param leading riadkovanie v bodoch
+     * @param fits true, ak sa riadky zmestia do plochy štítka
+     */
+    public LabelLayout(List<String> lines, float fontSize, float leading, boolean fits)
+    {
+        this.lines = lines;
+        this.fontSize = fontSize;
+        this.leading = leading;
+        this.fits = fits;
+    }
+
+    /** @return riadky po zalomení */
+    public List<String> getLines()
+    {
+        return lines;
+    }
+
+    /** @return veľkosť písma v bodoch */
+    public float getFontSize()
+    {
+        return fontSize;
+    }
+
+    /** @return riadkovanie v bodoch */
+    public float getLeading()
+    {
+        return leading;
+    }
+
+    /** @return true, ak sa riadky zmestia do plochy štítka */
+    public boolean isFits()
+    {
+        return fits;
+    }
+}
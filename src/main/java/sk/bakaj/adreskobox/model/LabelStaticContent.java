@@ -0,0 +1,71 @@
+package sk.bakaj.adreskobox.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pevný obsah, ktorý je rovnaký na každom štítku formátu - spiatočná adresa odosielateľa,
+ * označenie zásielky (napr. "Doporučene") a logo.
+ *
+ * Pri generovaní PDF sa vykreslí iba raz do šablóny (form XObject) a na štítky sa
+ * iba odkazuje. Zaberá pás v hornej časti štítka, adresa príjemcu sa tlačí pod ním.
+ */
+public class LabelStaticContent
+{
+    private List<String> returnAddressLines = new ArrayList<>();
+    private String marking = "";
+    private File logoFile;
+
+    /** @return riadky spiatočnej adresy (bez prázdnych riadkov) */
+    public List<String> getReturnAddressLines()
+    {
+        return returnAddressLines;
+    }
+
+    /**
+     * Nastaví spiatočnú adresu; prázdne riadky sa vynechajú.
+     */
+    public void setReturnAddressLines(List<String> returnAddressLines)
+    {
+        this.returnAddressLines = new ArrayList<>();
+        if (returnAddressLines != null)
+        {
+            for (String line : returnAddressLines)
+            {
+                if (line != null && !line.trim().isEmpty())
+                {
+                    this.returnAddressLines.add(line.trim());
+                }
+            }
+        }
+    }
+
+    /** @return označenie zásielky alebo prázdny reťazec */
+    public String getMarking()
+    {
+        return marking;
+    }
+
+    public void setMarking(String marking)
+    {
+        this.marking = marking != null ? marking.trim() : "";
+    }
+
+    /** @return obrázok loga alebo null */
+    public File getLogoFile()
+    {
+        return logoFile;
+    }
+
+    public void setLogoFile(File logoFile)
+    {
+        this.logoFile = logoFile;
+    }
+
+    /** @return true, ak nie je nastavený žiadny pevný obsah */
+    public boolean isEmpty()
+    {
+        return returnAddressLines.isEmpty() && marking.isEmpty() && logoFile == null;
+    }
+}
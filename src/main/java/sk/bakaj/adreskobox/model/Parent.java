@@ -1,10 +1,13 @@
 package sk.bakaj.adreskobox.model;
 
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
+
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Parent
 {
+    private int id;
     private String firstName;
     private String lastName;
     private String address;
@@ -20,7 +23,7 @@ public class Parent
         this.lastName = lastName;
         this.address = address;
         this.city = city;
-        this.zipCode = zipCode;
+        this.zipCode = PostalCodeIndex.normalize(zipCode);
     }
 
     public Parent(String fullName, String fullAddress)
@@ -110,6 +113,44 @@ public class Parent
                 this.zipCode = "";
             }
         }
+
+        completeFromPostalIndex();
+    }
+
+    /**
+     * Zjednotí zápis PSČ ("81101" → "811 01") a ak chýba mesto,
+     * doplní ho z indexu PSČ
+     */
+    private void completeFromPostalIndex()
+    {
+        if (zipCode == null || zipCode.isEmpty())
+        {
+            return;
+        }
+
+        zipCode = PostalCodeIndex.normalize(zipCode);
+
+        if (city == null || city.trim().isEmpty())
+        {
+            String municipality = PostalCodeIndex.getInstance().findMunicipality(zipCode);
+            if (municipality != null)
+            {
+                city = municipality;
+            }
+        }
+    }
+
+    /**
+     * Stabilné id rodiča pridelené úložiskom (0 = zatiaľ nepridelené)
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    public void setId(int id)
+    {
+        this.id = id;
     }
 
     public String getFirstName()
@@ -247,10 +288,15 @@ public class Parent
         String city = getCity() != null ? getCity().trim() : "";
 
         // Ak adresa omylom obsahuje aj PSČ alebo mesto, odstránime to
+        // (PSČ môže byť v adrese zapísané aj bez medzery)
         if (!zip.isEmpty() && addressLine.contains(zip))
         {
             addressLine = addressLine.replace(zip, "").trim();
         }
+        else if (!zip.isEmpty() && addressLine.contains(zip.replace(" ", "")))
+        {
+            addressLine = addressLine.replace(zip.replace(" ", ""), "").trim();
+        }
         if (!city.isEmpty() && addressLine.contains(city))
         {
             addressLine = addressLine.replace(city, "").trim();
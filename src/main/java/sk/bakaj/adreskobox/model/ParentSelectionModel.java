@@ -0,0 +1,160 @@
+package sk.bakaj.adreskobox.model;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Model výberu rodičov uložený v {@link BitSet}.
+ *
+ * Každý riadok tabuľky má jeden bit podľa svojho indexu. Počet vybraných sa udržiava
+ * priebežne, preto je zmena jedného riadku aj zistenie počtu O(1). Hromadné operácie
+ * (všetko, rozsah, podmienka) zmenia bity naraz a počítadlo aktualizujú iba raz,
+ * takže používateľské rozhranie stačí prekresliť jedenkrát.
+ */
+public class ParentSelectionModel
+{
+    private final BitSet selected = new BitSet();
+    private final ReadOnlyIntegerWrapper selectedCount = new ReadOnlyIntegerWrapper(0);
+    private int size;
+    // Verzia výberu - zvyšuje sa pri každej zmene
+    private long version;
+
+    /**
+     * Nastaví počet riadkov a zruší celý výber.
+     *
+     * @param size počet riadkov
+     */
+    public void reset(int size)
+    {
+        this.size = size;
+        selected.clear();
+        selectedCount.set(0);
+        version++;
+    }
+
+    /**
+     * Verzia výberu - mení sa pri každej zmene, podľa nej sa zisťuje potreba prepočtu ďalších krokov.
+     *
+     * @return aktuálna verzia
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /** @return počet riadkov */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return počet vybraných riadkov */
+    public int getSelectedCount()
+    {
+        return selectedCount.get();
+    }
+
+    /** @return vlastnosť s počtom vybraných riadkov pre naviazanie v UI */
+    public ReadOnlyIntegerProperty selectedCountProperty()
+    {
+        return selectedCount.getReadOnlyProperty();
+    }
+
+    public boolean isSelected(int index)
+    {
+        return selected.get(index);
+    }
+
+    /**
+     * Zmení výber jedného riadku.
+     *
+     * @param index index riadku
+     * @param value true pre výber
+     */
+    public void setSelected(int index, boolean value)
+    {
+        if (index < 0 || index >= size || selected.get(index) == value)
+        {
+            return;
+        }
+
+        selected.set(index, value);
+        selectedCount.set(selectedCount.get() + (value ? 1 : -1));
+        version++;
+    }
+
+    /**
+     * Vyberie všetky riadky.
+     */
+    public void selectAll()
+    {
+        setRange(0, size, true);
+    }
+
+    /**
+     * Zruší výber všetkých riadkov.
+     */
+    public void clearAll()
+    {
+        setRange(0, size, false);
+    }
+
+    /**
+     * Zmení výber pre rozsah riadkov.
+     *
+     * @param fromIndex prvý riadok (vrátane)
+     * @param toIndex posledný riadok (bez neho)
+     * @param value true pre výber
+     */
+    public void setRange(int fromIndex, int toIndex, boolean value)
+    {
+        int from = Math.max(0, fromIndex);
+        int to = Math.min(size, toIndex);
+        if (from >= to)
+        {
+            return;
+        }
+
+        selected.set(from, to, value);
+        selectedCount.set(selected.cardinality());
+        version++;
+    }
+
+    /**
+     * Zmení výber riadkov, ktoré spĺňajú podmienku.
+     *
+     * @param predicate podmienka nad indexom riadku
+     * @param value true pre výber
+     */
+    public void setWhere(IntPredicate predicate, boolean value)
+    {
+        int count = selectedCount.get();
+        for (int i = 0; i < size; i++)
+        {
+            if (selected.get(i) != value && predicate.test(i))
+            {
+                selected.set(i, value);
+                count += value ? 1 : -1;
+            }
+        }
+        if (count != selectedCount.get())
+        {
+            selectedCount.set(count);
+            version++;
+        }
+    }
+
+    /**
+     * Vráti index ďalšieho vybraného riadku.
+     *
+     * @param fromIndex index, od ktorého sa hľadá (vrátane)
+     * @return index vybraného riadku alebo -1, ak už žiadny nie je
+     */
+    public int nextSelected(int fromIndex)
+    {
+        return selected.nextSetBit(fromIndex);
+    }
+}
@@ -0,0 +1,154 @@
+package sk.bakaj.adreskobox.model;
+
+import java.io.File;
+
+/**
+ * Nastavenia výstupu PDF so štítkami.
+ *
+ * Štandardný výstup používa písmo Helvetica bez vloženia a bežnú kompresiu. Optimalizovaný
+ * výstup vloží podmnožinu písma TrueType iba s použitými znakmi a zapíše objekty a tabuľku
+ * odkazov ako komprimované prúdy (PDF 1.5). Porovnanie so štandardným výstupom vykreslí
+ * dokument druhýkrát, preto je iba na požiadanie. Nezávisle od toho
+ * sa dá zapnúť automatická veľkosť písma - každý štítok sa vytlačí najväčším písmom
+ * z rozsahu, pri ktorom sa zmestí.
+ */
+public class PdfOutputOptions
+{
+    private boolean embedFontSubset;
+    private boolean fullCompression;
+    private boolean compareWithStandard;
+    private File fontFile;
+    private boolean autoFitFontSize;
+    private float minFontSize = 6f;
+    private float maxFontSize = 12f;
+
+    public PdfOutputOptions()
+    {
+    }
+
+    /**
+     * @return nastavenia pôvodného výstupu (bez optimalizácie)
+     */
+    public static PdfOutputOptions standard()
+    {
+        return new PdfOutputOptions();
+    }
+
+    /**
+     * @return nastavenia s podmnožinou písma a plnou kompresiou
+     */
+    public static PdfOutputOptions optimized()
+    {
+        PdfOutputOptions options = new PdfOutputOptions();
+        options.embedFontSubset = true;
+        options.fullCompression = true;
+        return options;
+    }
+
+    /**
+     * @return kópia nastavení (napr. pre úpravu parametrami jednej požiadavky)
+     */
+    public PdfOutputOptions copy()
+    {
+        PdfOutputOptions copy = new PdfOutputOptions();
+        copy.embedFontSubset = embedFontSubset;
+        copy.fullCompression = fullCompression;
+        copy.compareWithStandard = compareWithStandard;
+        copy.fontFile = fontFile;
+        copy.autoFitFontSize = autoFitFontSize;
+        copy.minFontSize = minFontSize;
+        copy.maxFontSize = maxFontSize;
+        return copy;
+    }
+
+    /** @return true, ak sa má vložiť podmnožina písma TrueType */
+    public boolean isEmbedFontSubset()
+    {
+        return embedFontSubset;
+    }
+
+    public void setEmbedFontSubset(boolean embedFontSubset)
+    {
+        this.embedFontSubset = embedFontSubset;
+    }
+
+    /** @return true pre PDF 1.5 s komprimovanými prúdmi objektov a odkazov */
+    public boolean isFullCompression()
+    {
+        return fullCompression;
+    }
+
+    public void setFullCompression(boolean fullCompression)
+    {
+        this.fullCompression = fullCompression;
+    }
+
+    /**
+     * @return true, ak sa má pre porovnanie zmerať aj veľkosť štandardného výstupu
+     *         (dokument sa vykreslí dvakrát)
+     */
+    public boolean isCompareWithStandard()
+    {
+        return compareWithStandard;
+    }
+
+    public void setCompareWithStandard(boolean compareWithStandard)
+    {
+        this.compareWithStandard = compareWithStandard;
+    }
+
+    /** @return súbor písma TrueType alebo null pre vyhľadanie systémového písma */
+    public File getFontFile()
+    {
+        return fontFile;
+    }
+
+    public void setFontFile(File fontFile)
+    {
+        this.fontFile = fontFile;
+    }
+
+    /** @return true, ak sa má veľkosť písma každého štítka prispôsobiť jeho rozmerom */
+    public boolean isAutoFitFontSize()
+    {
+        return autoFitFontSize;
+    }
+
+    public void setAutoFitFontSize(boolean autoFitFontSize)
+    {
+        this.autoFitFontSize = autoFitFontSize;
+    }
+
+    /** @return najmenšia veľkosť písma pri automatickom prispôsobení v bodoch */
+    public float getMinFontSize()
+    {
+        return minFontSize;
+    }
+
+    /** @return najväčšia veľkosť písma pri automatickom prispôsobení v bodoch */
+    public float getMaxFontSize()
+    {
+        return maxFontSize;
+    }
+
+    /**
+     * Nastaví rozsah veľkosti písma pre automatické prispôsobenie.
+     *
+     * @throws IllegalArgumentException ak rozsah nie je kladný alebo je obrátený
+     */
+    public void setFontSizeRange(float minFontSize, float maxFontSize)
+    {
+        if (minFontSize <= 0 || maxFontSize < minFontSize)
+        {
+            throw new IllegalArgumentException("Neplatný rozsah veľkosti písma: " + minFontSize + "-" + maxFontSize);
+        }
+        this.minFontSize = minFontSize;
+        this.maxFontSize = maxFontSize;
+    }
+
+    /** @return true, ak je zapnutá aspoň jedna optimalizácia */
+    public boolean isOptimized()
+    {
+        return embedFontSubset || fullCompression;
+    }
+}
@@ -0,0 +1,89 @@
+package sk.bakaj.adreskobox.model;
+
+import java.util.Locale;
+
+/**
+ * Veľkosť vygenerovaného PDF so štítkami, prípadne porovnaná so štandardným výstupom.
+ */
+public class PdfSizeReport
+{
+    private long standardBytes = -1;
+    private long outputBytes;
+    private String fontName;
+
+    /** @return veľkosť štandardného výstupu alebo -1, ak sa nemerala */
+    public long getStandardBytes()
+    {
+        return standardBytes;
+    }
+
+    public void setStandardBytes(long standardBytes)
+    {
+        this.standardBytes = standardBytes;
+    }
+
+    /** @return veľkosť zapísaného výstupu v bajtoch */
+    public long getOutputBytes()
+    {
+        return outputBytes;
+    }
+
+    public void setOutputBytes(long outputBytes)
+    {
+        this.outputBytes = outputBytes;
+    }
+
+    /** @return názov písma použitého v dokumente */
+    public String getFontName()
+    {
+        return fontName;
+    }
+
+    public void setFontName(String fontName)
+    {
+        this.fontName = fontName;
+    }
+
+    /** @return true, ak je k dispozícii veľkosť štandardného výstupu */
+    public boolean hasComparison()
+    {
+        return standardBytes >= 0;
+    }
+
+    /** @return úspora oproti štandardnému výstupu v percentách (záporná pri náraste) */
+    public double getSavedPercent()
+    {
+        if (standardBytes <= 0)
+        {
+            return 0;
+        }
+        return 100.0 * (standardBytes - outputBytes) / standardBytes;
+    }
+
+    /**
+     * @return krátky popis, napr. "1,2 MB → 310,5 kB (úspora 74 %)"
+     */
+    public String describe()
+    {
+        if (!hasComparison())
+        {
+            return formatBytes(outputBytes);
+        }
+        return String.format(Locale.forLanguageTag("sk"), "%s → %s (úspora %.0f %%)",
+                formatBytes(standardBytes), formatBytes(outputBytes), getSavedPercent());
+    }
+
+    private static String formatBytes(long bytes)
+    {
+        Locale locale = Locale.forLanguageTag("sk");
+        if (bytes >= 1024 * 1024)
+        {
+            return String.format(locale, "%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+        if (bytes >= 1024)
+        {
+            return String.format(locale, "%.1f kB", bytes / 1024.0);
+        }
+        return bytes + " B";
+    }
+}
@@ -0,0 +1,556 @@
+package sk.bakaj.adreskobox.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.LabelJob;
+import sk.bakaj.adreskobox.model.LabelJobResult;
+import sk.bakaj.adreskobox.model.LabelStaticContent;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+import sk.bakaj.adreskobox.service.LabelPipelineService;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Lokálny HTTP server na generovanie štítkov z iných aplikácií (napr. školský informačný systém).
+ *
+ * Každá požiadavka beží vo vlastnom virtuálnom vlákne. Všetky požiadavky zdieľajú jednu
+ * inštanciu {@link LabelPipelineService}, takže fonty a skratky sa načítajú iba raz.
+ * <ul>
+ *   <li>POST /labels - telo CSV, XLSX alebo JSON s príjemcami, odpoveď PDF so štítkami</li>
+ *   <li>POST /sheets - rovnaké telo, odpoveď ZIP s podacími hárkami</li>
+ *   <li>GET /health - stav servera</li>
+ * </ul>
+ * Parametre v URL: format, formatSpec, senderName, senderStreet, senderCity, merge (true/false),
+ * optimize (true/false - menšie PDF, pozri {@link PdfOutputOptions#optimized()}),
+ * autoFit (true/false - automatická veľkosť písma štítkov).
+ * Veľkosť tela a počet súčasne spracovávaných požiadaviek sú obmedzené; časy jednotlivých
+ * krokov sa vracajú v hlavičke Server-Timing.
+ */
+public class LabelHttpServer
+{
+    private static final Logger logger = LogManager.getLogger(LabelHttpServer.class);
+
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 2000;
+
+    private final LabelJob defaults;
+    private final long maxBodyBytes;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final LabelPipelineService pipeline = new LabelPipelineService();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param defaults predvolené nastavenia (formát, odosielateľ, šablóna), parametre požiadavky ich prepíšu
+     * @param maxBodyBytes maximálna veľkosť tela požiadavky v bajtoch
+     * @param maxConcurrent maximálny počet súčasne generovaných výstupov
+     */
+    public LabelHttpServer(LabelJob defaults, long maxBodyBytes, int maxConcurrent)
+    {
+        this.defaults = defaults;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent);
+    }
+
+    /**
+     * Spustí server.
+     *
+     * @param host adresa, na ktorej server počúva (predvolene iba localhost)
+     * @param port port
+     * @throws IOException ak sa port nedá otvoriť
+     */
+    public void start(String host, int port) throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/labels", exchange -> handle(exchange, false));
+        server.createContext("/sheets", exchange -> handle(exchange, true));
+        server.createContext("/health", this::handleHealth);
+        server.start();
+    }
+
+    /**
+     * Zastaví server a počká najviac zadaný počet sekúnd na dokončenie požiadaviek.
+     */
+    public void stop(int delaySeconds)
+    {
+        if (server != null)
+        {
+            server.stop(delaySeconds);
+            executor.shutdown();
+        }
+    }
+
+    /** @return skutočný port servera (pri porte 0 pridelený systémom) */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException
+    {
+        int active = maxConcurrent - permits.availablePermits();
+        sendText(exchange, 200, "OK, spracováva sa " + active + "/" + maxConcurrent);
+    }
+
+    private void handle(HttpExchange exchange, boolean submissionSheets) throws IOException
+    {
+        long start = System.nanoTime();
+        Path upload = null;
+        try
+        {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod()))
+            {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendText(exchange, 405, "Povolená je iba metóda POST");
+                return;
+            }
+
+            String lengthHeader = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (lengthHeader != null && Long.parseLong(lengthHeader) > maxBodyBytes)
+            {
+                sendText(exchange, 413, "Telo požiadavky je väčšie ako " + maxBodyBytes + " bajtov");
+                return;
+            }
+
+            LabelJob job = createJob(parseQuery(exchange.getRequestURI().getRawQuery()));
+            String contentType = getMediaType(exchange.getRequestHeaders().getFirst("Content-Type"));
+
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 503, "Server je preťažený, skúste to znova");
+                return;
+            }
+
+            try
+            {
+                // Načítanie príjemcov
+                LabelJobResult result = new LabelJobResult(null);
+                List<Parent> parents;
+                if ("application/json".equals(contentType))
+                {
+                    parents = readJsonRecipients(exchange.getRequestBody(), result);
+                }
+                else
+                {
+                    String extension = getFileExtension(contentType);
+                    if (extension == null)
+                    {
+                        sendText(exchange, 415, "Nepodporovaný typ obsahu: " + contentType
+                                + " (text/csv, application/vnd.openxmlformats-officedocument.spreadsheetml.sheet, application/json)");
+                        return;
+                    }
+                    upload = Files.createTempFile("adreskobox-", extension);
+                    copyLimited(exchange.getRequestBody(), upload);
+                    parents = pipeline.readParents(upload.toFile(), result);
+                }
+                long read = System.nanoTime();
+
+                // Zlúčenie, skrátenie adries a kontrola rozmerov
+                List<Parent> processed = pipeline.prepareParents(parents, job, result);
+                if (processed.isEmpty())
+                {
+                    sendText(exchange, 400, "Vstup neobsahuje žiadnych príjemcov s adresou");
+                    return;
+                }
+                long prepared = System.nanoTime();
+
+                exchange.getResponseHeaders().set("Server-Timing", "read;dur=" + toMillis(read - start)
+                        + ", prepare;dur=" + toMillis(prepared - read));
+                exchange.getResponseHeaders().set("X-Recipients", String.valueOf(result.getParentCount()));
+                exchange.getResponseHeaders().set("X-Not-Fitting", String.valueOf(result.getNotFitting().size()));
+
+                if (submissionSheets)
+                {
+                    sendSubmissionSheets(exchange, processed, job);
+                }
+                else
+                {
+                    exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+                    exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"stitky.pdf\"");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream body = new BufferedOutputStream(exchange.getResponseBody()))
+                    {
+                        pipeline.writeLabels(processed, job.getLabelFormat(), body, job.getPdfOutputOptions());
+                    }
+                }
+                logger.info("{} {}: {} príjemcov za {} ms", exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                        processed.size(), toMillis(System.nanoTime() - start));
+            }
+            finally
+            {
+                permits.release();
+            }
+        }
+        catch (RequestTooLargeException e)
+        {
+            sendText(exchange, 413, e.getMessage());
+        }
+        catch (JsonParseException e)
+        {
+            // Prekročenie veľkosti počas čítania JSON obalí Gson do vlastnej výnimky
+            if (e.getCause() instanceof RequestTooLargeException)
+            {
+                sendText(exchange, 413, e.getCause().getMessage());
+            }
+            else
+            {
+                sendText(exchange, 400, "Neplatný JSON: " + e.getMessage());
+            }
+        }
+        catch (IllegalArgumentException | IllegalStateException e)
+        {
+            sendText(exchange, 400, "Neplatná požiadavka: " + e.getMessage());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            sendText(exchange, 503, "Server sa ukončuje");
+        }
+        catch (Exception e)
+        {
+            logger.error("Chyba pri spracovaní požiadavky: {}", e.getMessage(), e);
+            sendText(exchange, 500, "Chyba pri spracovaní: " + e.getMessage());
+        }
+        finally
+        {
+            if (upload != null)
+            {
+                Files.deleteIfExists(upload);
+            }
+            exchange.close();
+        }
+    }
+
+    /**
+     * Vytvorí podacie hárky do dočasného adresára a pošle ich ako ZIP.
+     */
+    private void sendSubmissionSheets(HttpExchange exchange, List<Parent> parents, LabelJob job) throws IOException
+    {
+        Path directory = Files.createTempDirectory("adreskobox-sheets-");
+        try
+        {
+            List<File> sheets = pipeline.writeSubmissionSheets(parents, job, directory.toFile());
+
+            exchange.getResponseHeaders().set("Content-Type", "application/zip");
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"podacie-harky.zip\"");
+            exchange.sendResponseHeaders(200, 0);
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(exchange.getResponseBody())))
+            {
+                for (File sheet : sheets)
+                {
+                    zip.putNextEntry(new ZipEntry(sheet.getName()));
+                    Files.copy(sheet.toPath(), zip);
+                    zip.closeEntry();
+                }
+            }
+        }
+        finally
+        {
+            try (Stream<Path> files = Files.walk(directory))
+            {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Pevný obsah štítkov zadania podľa predvolených nastavení. Ak sa tlačí spiatočná adresa,
+     * zostaví sa z odosielateľa zadania, teda aj z parametrov senderName, senderStreet a senderCity.
+     */
+    private LabelStaticContent getStaticContent(LabelJob job)
+    {
+        LabelStaticContent defaultContent = defaults.getLabelFormat().getStaticContent();
+        if (defaultContent == null || defaultContent.getReturnAddressLines().isEmpty())
+        {
+            return defaultContent;
+        }
+
+        LabelStaticContent content = new LabelStaticContent();
+        content.setReturnAddressLines(Arrays.asList(job.getSenderName(), job.getSenderStreet(), job.getSenderCity()));
+        content.setMarking(defaultContent.getMarking());
+        content.setLogoFile(defaultContent.getLogoFile());
+        return content.isEmpty() ? null : content;
+    }
+
+    /**
+     * Vytvorí zadanie z predvolených nastavení a parametrov URL.
+     */
+    private LabelJob createJob(Map<String, String> query)
+    {
+        LabelJob job = defaults.copyFor(null, null);
+
+        if (query.containsKey("formatSpec"))
+        {
+            job.setLabelFormat(LabelFormat.fromSpec(query.get("formatSpec")));
+        }
+        else if (query.containsKey("format"))
+        {
+            LabelFormat format = LabelFormat.findPredefined(query.get("format"));
+            if (format == null)
+            {
+                throw new IllegalArgumentException("Neznámy alebo nejednoznačný formát štítkov: " + query.get("format"));
+            }
+            job.setLabelFormat(format);
+        }
+
+        if (query.containsKey("senderName"))
+        {
+            job.setSenderName(query.get("senderName"));
+        }
+        if (query.containsKey("senderStreet"))
+        {
+            job.setSenderStreet(query.get("senderStreet"));
+        }
+        if (query.containsKey("senderCity"))
+        {
+            job.setSenderCity(query.get("senderCity"));
+        }
+        // Pevný obsah sa pridá ku kópii formátu - predvolený formát zdieľajú všetky požiadavky
+        job.setLabelFormat(job.getLabelFormat().withStaticContent(getStaticContent(job)));
+        if (query.containsKey("merge"))
+        {
+            job.setMergeHouseholds(Boolean.parseBoolean(query.get("merge")));
+        }
+        if (query.containsKey("optimize"))
+        {
+            PdfOutputOptions defaultOptions = job.getPdfOutputOptions();
+            PdfOutputOptions pdfOptions = Boolean.parseBoolean(query.get("optimize"))
+                    ? PdfOutputOptions.optimized()
+                    : PdfOutputOptions.standard();
+            pdfOptions.setAutoFitFontSize(defaultOptions.isAutoFitFontSize());
+            pdfOptions.setFontSizeRange(defaultOptions.getMinFontSize(), defaultOptions.getMaxFontSize());
+            job.setPdfOutputOptions(pdfOptions);
+        }
+        if (query.containsKey("autoFit"))
+        {
+            PdfOutputOptions pdfOptions = job.getPdfOutputOptions().copy();
+            pdfOptions.setAutoFitFontSize(Boolean.parseBoolean(query.get("autoFit")));
+            job.setPdfOutputOptions(pdfOptions);
+        }
+        return job;
+    }
+
+    /**
+     * Načíta príjemcov z JSON - pole objektov alebo objekt s poľom "recipients".
+     * Príjemca má buď "name" a "address", alebo "firstName", "lastName", "street", "zipCode" a "city".
+     */
+    private List<Parent> readJsonRecipients(InputStream body, LabelJobResult result) throws IOException
+    {
+        JsonElement root;
+        try (Reader reader = new InputStreamReader(new LimitedInputStream(body, maxBodyBytes),
+                StandardCharsets.UTF_8))
+        {
+            root = JsonParser.parseReader(reader);
+        }
+
+        JsonArray recipients;
+        if (root.isJsonArray())
+        {
+            recipients = root.getAsJsonArray();
+        }
+        else if (root.isJsonObject() && root.getAsJsonObject().has("recipients"))
+        {
+            recipients = root.getAsJsonObject().getAsJsonArray("recipients");
+        }
+        else
+        {
+            throw new IllegalArgumentException("JSON musí byť pole príjemcov alebo objekt s poľom \"recipients\"");
+        }
+
+        List<Parent> parents = new ArrayList<>(recipients.size());
+        for (JsonElement element : recipients)
+        {
+            JsonObject recipient = element.getAsJsonObject();
+            if (recipient.has("address"))
+            {
+                parents.add(new Parent(getString(recipient, "name"), getString(recipient, "address")));
+            }
+            else
+            {
+                parents.add(new Parent(getString(recipient, "firstName"), getString(recipient, "lastName"),
+                        getString(recipient, "street"), getString(recipient, "city"),
+                        getString(recipient, "zipCode")));
+            }
+        }
+        result.setRecordCount(parents.size());
+        return parents;
+    }
+
+    private static String getString(JsonObject object, String name)
+    {
+        JsonElement value = object.get(name);
+        return value != null && !value.isJsonNull() ? value.getAsString() : "";
+    }
+
+    /**
+     * Skopíruje telo požiadavky do súboru, najviac však povolenú veľkosť.
+     */
+    private void copyLimited(InputStream body, Path target) throws IOException
+    {
+        try (InputStream input = new LimitedInputStream(body, maxBodyBytes))
+        {
+            Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String getMediaType(String contentType)
+    {
+        if (contentType == null)
+        {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim().toLowerCase();
+    }
+
+    /**
+     * Prípona dočasného súboru podľa typu obsahu (podľa nej FileService rozpozná formát).
+     */
+    private static String getFileExtension(String mediaType)
+    {
+        switch (mediaType)
+        {
+            case "text/csv":
+            case "text/plain":
+                return ".csv";
+            case "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet":
+                return ".xlsx";
+            case "application/vnd.ms-excel":
+                return ".xls";
+            default:
+                return null;
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery)
+    {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty())
+        {
+            return query;
+        }
+        for (String pair : rawQuery.split("&"))
+        {
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException
+    {
+        if (exchange.getResponseCode() != -1)
+        {
+            // Hlavičky už boli odoslané (chyba počas posielania výstupu) - spojenie sa iba zatvorí
+            return;
+        }
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody())
+        {
+            body.write(bytes);
+        }
+    }
+
+    private static long toMillis(long nanos)
+    {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Vstupný prúd, ktorý po prekročení povolenej veľkosti vyhodí {@link RequestTooLargeException}.
+     */
+    private static class LimitedInputStream extends FilterInputStream
+    {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream input, long limit)
+        {
+            super(input);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int value = super.read();
+            if (value >= 0)
+            {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException
+        {
+            int read = super.read(buffer, offset, length);
+            if (read > 0)
+            {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws RequestTooLargeException
+        {
+            count += read;
+            if (count > limit)
+            {
+                throw new RequestTooLargeException("Telo požiadavky je väčšie ako " + limit + " bajtov");
+            }
+        }
+    }
+
+    private static class RequestTooLargeException extends IOException
+    {
+        RequestTooLargeException(String message)
+        {
+            super(message);
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package sk.bakaj.adreskobox.service;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Služba pre správu skratiek adries s ukladaním do properties súboru
  */
 public class AbbreviationService
 {
+    private static final Logger logger = LogManager.getLogger(AbbreviationService.class);
+
     private Map<String, String> abbreviations = new HashMap<>();
     private static final String PROPERTIES_FILE_NAME = "abbreviations.properties";
+    // Verzia skratiek - zvyšuje sa pri každej zmene, podľa nej sa zisťuje potreba prepočtu adries
+    private long version;
+    // Skompilované pravidlá a verzia skratiek, pre ktorú platia
+    private List<AbbreviationRule> compiledRules;
+    private long compiledVersion = -1;
+    // false - skratky sa neukladajú do súboru
+    private boolean persistent = true;
 
     public AbbreviationService()
     {
@@ -21,12 +38,27 @@ public class AbbreviationService
         }
         catch (Exception e)
         {
-            System.err.println("Chyba pri načítaní skratiek: " + e.getMessage());
+            logger.error("Chyba pri načítaní skratiek: {}", e.getMessage());
             //AK načitanie zlyha, inicializuje aspoň základne skratky
             initDefaultAbbreviations();
         }
     }
 
+    /**
+     * Vytvorí službu so zadanými skratkami iba v pamäti - súbor so skratkami sa nečíta
+     * ani neprepisuje (meranie výkonu, dávkové spracovanie s vlastným slovníkom).
+     *
+     * @param abbreviations skratky (pôvodný text → skratka)
+     */
+    public AbbreviationService(Map<String, String> abbreviations)
+    {
+        persistent = false;
+        for (Map.Entry<String, String> entry : abbreviations.entrySet())
+        {
+            this.abbreviations.put(entry.getKey().toLowerCase().trim(), entry.getValue().trim());
+        }
+    }
+
     /**
      * Inicializácia zakladných skratiek v pamäti
      */
@@ -43,7 +75,7 @@ public class AbbreviationService
         }
         catch (IOException e)
         {
-            System.err.println("Nepodarilo sa uložiť základné skratky: " + e.getMessage());
+            logger.error("Nepodarilo sa uložiť základné skratky: {}", e.getMessage());
         }
     }
 
@@ -81,6 +113,11 @@ public class AbbreviationService
      */
     private void saveAbbreviationsToProperties() throws IOException
     {
+        if (!persistent)
+        {
+            return;
+        }
+
         Properties props = new Properties();
         for (Map.Entry<String, String> entry : abbreviations.entrySet())
         {
@@ -109,6 +146,7 @@ public class AbbreviationService
 
         //uložime do mapy
         abbreviations.put(originalText, abbreviation);
+        version++;
 
         //Uložime do súboru
         try
@@ -117,7 +155,40 @@ public class AbbreviationService
         }
         catch (Exception e)
         {
-            System.err.println("Chyba pri uložení skratky: " + e.getMessage());
+            logger.error("Chyba pri uložení skratky: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hromadné uloženie skratiek - súbor sa zapíše iba raz
+     */
+    public void saveAbbreviations(Map<String, String> newAbbreviations)
+    {
+        if (newAbbreviations == null || newAbbreviations.isEmpty())
+        {
+            return;
+        }
+
+        for (Map.Entry<String, String> entry : newAbbreviations.entrySet())
+        {
+            String originalText = entry.getKey();
+            String abbreviation = entry.getValue();
+            if (originalText == null || abbreviation == null || originalText.trim().isEmpty() || abbreviation.trim().isEmpty())
+            {
+                continue;
+            }
+            abbreviations.put(originalText.toLowerCase().trim(), abbreviation.trim());
+        }
+        version++;
+
+        //Uložime do súboru
+        try
+        {
+            saveAbbreviationsToProperties();
+        }
+        catch (Exception e)
+        {
+            logger.error("Chyba pri uložení skratiek: {}", e.getMessage());
         }
     }
 
@@ -135,6 +206,7 @@ public class AbbreviationService
 
         //Odstranenie z mapy
         abbreviations.remove(originalText);
+        version++;
 
         //Uložime do súboru
         try
@@ -143,10 +215,18 @@ public class AbbreviationService
         }
         catch (Exception e)
         {
-            System.err.println("Chyba pri odstranení skratky: " + e.getMessage());
+            logger.error("Chyba pri odstranení skratky: {}", e.getMessage());
         }
     }
 
+    /**
+     * Verzia skratiek - mení sa pri každom pridaní alebo odstránení skratky
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
     /**
      * Získanie všetkých skratiek
      */
@@ -174,34 +254,47 @@ public class AbbreviationService
 
         //AK nemáme skratku pre celú adresu, skusíme nahradiť jednotlivé slová
         String result = address;
-
-        //Najprv viaceroslovné výrazy (dlhšie výrazy majú prednosť)
-        Map<String, String> multiWordAbbreviations = new HashMap<>();
-        for (Map.Entry<String, String> entry : abbreviations.entrySet())
+        for (AbbreviationRule rule : getCompiledRules())
         {
-            if (entry.getKey().contains(" "))
-            {
-                multiWordAbbreviations.put(entry.getKey(), entry.getValue());
-            }
+            result = rule.pattern.matcher(result).replaceAll(rule.replacement);
         }
 
-        // Zoradime viaceroslovné výrazy podľa dĺžky a aplikujeme ich pomocou reduce
-        result = multiWordAbbreviations.entrySet().stream()
-                .sorted((e1, e2) -> Integer.compare(e2.getKey().length(), e1.getKey().length()))
-                .reduce(result,
-                        (currentResult, entry) -> currentResult.replaceAll("(?i)\\b" + entry.getKey() + "\\b", entry.getValue()),
-                        (s1, s2) -> s2);
+        return result;
+    }
+
+    /**
+     * Skompilované pravidlá nahradenia - najprv viacslovné výrazy od najdlhšieho
+     * (dlhšie výrazy majú prednosť), potom jednoslovné. Regulárne výrazy sa kompilujú
+     * iba raz po každej zmene skratiek, nie pri každej adrese.
+     */
+    private synchronized List<AbbreviationRule> getCompiledRules()
+    {
+        if (compiledRules != null && compiledVersion == version)
+        {
+            return compiledRules;
+        }
 
-        //Potom jednoslovné výrazy
+        List<Map.Entry<String, String>> multiWord = new ArrayList<>();
+        List<Map.Entry<String, String>> singleWord = new ArrayList<>();
         for (Map.Entry<String, String> entry : abbreviations.entrySet())
         {
-            if (!entry.getKey().contains(" "))
-            {
-                result = result.replaceAll("(?i)\\b" + entry.getKey() + "\\b", entry.getValue());
-            }
+            (entry.getKey().contains(" ") ? multiWord : singleWord).add(entry);
         }
+        multiWord.sort((e1, e2) -> Integer.compare(e2.getKey().length(), e1.getKey().length()));
 
-        return result;
+        List<AbbreviationRule> rules = new ArrayList<>(abbreviations.size());
+        for (Map.Entry<String, String> entry : multiWord)
+        {
+            rules.add(new AbbreviationRule(entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, String> entry : singleWord)
+        {
+            rules.add(new AbbreviationRule(entry.getKey(), entry.getValue()));
+        }
+
+        compiledRules = Collections.unmodifiableList(rules);
+        compiledVersion = version;
+        return compiledRules;
     }
 
     /**
@@ -227,4 +320,19 @@ public class AbbreviationService
         String abbreviatedAddress = abbreviateAddress(address);
         return abbreviatedAddress;
     }
+
+    /**
+     * Jedna skratka so skompilovaným regulárnym výrazom
+     */
+    private static class AbbreviationRule
+    {
+        final Pattern pattern;
+        final String replacement;
+
+        AbbreviationRule(String original, String abbreviation)
+        {
+            this.pattern = Pattern.compile("(?i)\\b" + original + "\\b");
+            this.replacement = Matcher.quoteReplacement(abbreviation);
+        }
+    }
 }
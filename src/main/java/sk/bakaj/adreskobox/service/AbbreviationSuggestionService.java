@@ -0,0 +1,406 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.model.AbbreviationSuggestion;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.Parent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Služba pre hromadné navrhovanie skratiek.
+ *
+ * Paralelne prechádza riadky s ulicou všetkých adries, počíta výskyty dlhých slov
+ * a viacslovných spojení (napr. "Hviezdoslavova", "Sídlisko Mier") a navrhuje
+ * pre ne skratky. Návrhy sú zoradené podľa celkovej šírky, ktorú by skratka ušetrila
+ * na štítkoch, ktoré sa aktuálne nezmestia.
+ *
+ * Počítanie prebieha v hašovacích tabuľkách s kľúčom typu long (64-bitový haš
+ * textu), takže pri veľkých importoch nevznikajú objekty pre každý výskyt slova.
+ */
+public class AbbreviationSuggestionService
+{
+    // Minimálna dĺžka jednotlivého slova, aby sa oplatilo ho skracovať
+    private static final int MIN_TOKEN_LENGTH = 7;
+    // Minimálna dĺžka viacslovného spojenia
+    private static final int MIN_NGRAM_LENGTH = 12;
+    // Maximálny počet slov v spojení
+    private static final int MAX_NGRAM_WORDS = 3;
+    // Minimálny počet výskytov, aby sa text navrhol ako skratka
+    private static final int MIN_OCCURRENCES = 2;
+    // Počet adries spracovaných jednou úlohou pri paralelnom behu
+    private static final int CHUNK_SIZE = 2048;
+
+    private final PDFService pdfService;
+    private final AbbreviationService abbreviationService;
+
+    /**
+     * Konštruktor služby.
+     *
+     * @param pdfService služba pre meranie šírky textu a kontrolu štítkov
+     * @param abbreviationService služba s existujúcimi skratkami (tie sa nenavrhujú znova)
+     */
+    public AbbreviationSuggestionService(PDFService pdfService, AbbreviationService abbreviationService)
+    {
+        this.pdfService = pdfService;
+        this.abbreviationService = abbreviationService;
+    }
+
+    /**
+     * Analyzuje adresy rodičov a vráti zoradený zoznam návrhov skratiek.
+     *
+     * @param parents zoznam rodičov, ktorých adresy sa analyzujú
+     * @param format formát štítkov, voči ktorému sa zisťuje, či sa štítok zmestí
+     * @param limit maximálny počet vrátených návrhov
+     * @return návrhy zoradené podľa ušetrenej šírky a počtu výskytov
+     */
+    public List<AbbreviationSuggestion> suggest(List<Parent> parents, LabelFormat format, int limit)
+    {
+        List<AbbreviationSuggestion> suggestions = new ArrayList<>();
+        if (parents == null || parents.isEmpty() || format == null)
+        {
+            return suggestions;
+        }
+
+        // Paralelné počítanie po blokoch, každý blok má vlastnú tabuľku
+        int chunks = (parents.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        TokenCounter counter = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> countChunk(parents, chunk * CHUNK_SIZE,
+                        Math.min(parents.size(), (chunk + 1) * CHUNK_SIZE), format))
+                .reduce(TokenCounter::merge)
+                .orElseGet(TokenCounter::new);
+
+        Map<String, String> existing = abbreviationService.getAllAbbreviations();
+
+        for (int slot = 0; slot < counter.keys.length; slot++)
+        {
+            if (counter.keys[slot] == 0 || counter.counts[slot] < MIN_OCCURRENCES)
+            {
+                continue;
+            }
+
+            String text = counter.texts[slot];
+            if (existing.containsKey(text.toLowerCase()))
+            {
+                continue;
+            }
+
+            String abbreviation = proposeAbbreviation(text);
+            float unitSaving = pdfService.getTextWidth(text) - pdfService.getTextWidth(abbreviation);
+            if (unitSaving <= 0)
+            {
+                continue;
+            }
+
+            suggestions.add(new AbbreviationSuggestion(text, abbreviation, counter.counts[slot],
+                    counter.failingCounts[slot], unitSaving * counter.failingCounts[slot]));
+        }
+
+        suggestions.sort(Comparator.comparingDouble(AbbreviationSuggestion::getSavedWidth).reversed()
+                .thenComparing(Comparator.comparingInt(AbbreviationSuggestion::getOccurrences).reversed()));
+
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    /**
+     * Spočíta výskyty slov a spojení v jednom bloku adries.
+     */
+    private TokenCounter countChunk(List<Parent> parents, int from, int to, LabelFormat format)
+    {
+        TokenCounter counter = new TokenCounter();
+        int[] wordStarts = new int[16];
+        int[] wordEnds = new int[16];
+
+        for (int i = from; i < to; i++)
+        {
+            Parent parent = parents.get(i);
+            String[] lines = parent.getLabelLines();
+            String street = lines[1];
+            if (street == null || street.isEmpty())
+            {
+                continue;
+            }
+
+            boolean failing = !pdfService.checkIfTextFitsOnLabel(lines[0], lines[1], lines[2], format);
+
+            // Rozdelenie riadku na úseky slov oddelených iba medzerami
+            int wordCount = 0;
+            int pos = 0;
+            int length = street.length();
+            while (pos <= length)
+            {
+                char c = pos < length ? street.charAt(pos) : ',';
+                if (Character.isLetter(c))
+                {
+                    int start = pos;
+                    while (pos < length && Character.isLetter(street.charAt(pos)))
+                    {
+                        pos++;
+                    }
+                    if (wordCount == wordStarts.length)
+                    {
+                        wordStarts = Arrays.copyOf(wordStarts, wordCount * 2);
+                        wordEnds = Arrays.copyOf(wordEnds, wordCount * 2);
+                    }
+                    wordStarts[wordCount] = start;
+                    wordEnds[wordCount] = pos;
+                    wordCount++;
+                    continue;
+                }
+
+                if (!Character.isWhitespace(c))
+                {
+                    // Číslo, čiarka alebo iný znak ukončuje úsek slov
+                    countRun(counter, street, wordStarts, wordEnds, wordCount, failing);
+                    wordCount = 0;
+                }
+                pos++;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Započíta jednotlivé slová a n-gramy z jedného úseku slov.
+     */
+    private void countRun(TokenCounter counter, String line, int[] starts, int[] ends, int wordCount,
+                          boolean failing)
+    {
+        for (int first = 0; first < wordCount; first++)
+        {
+            long hash = FNV_OFFSET;
+            int textLength = 0;
+
+            for (int last = first; last < wordCount && last - first < MAX_NGRAM_WORDS; last++)
+            {
+                if (last > first)
+                {
+                    hash = (hash ^ ' ') * FNV_PRIME;
+                    textLength++;
+                }
+                for (int k = starts[last]; k < ends[last]; k++)
+                {
+                    hash = (hash ^ Character.toLowerCase(line.charAt(k))) * FNV_PRIME;
+                }
+                textLength += ends[last] - starts[last];
+
+                int minLength = last == first ? MIN_TOKEN_LENGTH : MIN_NGRAM_LENGTH;
+                if (textLength >= minLength)
+                {
+                    counter.add(hash == 0 ? 1 : hash, line, starts[first], ends[last], failing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Navrhne skratku pre slovo alebo spojenie.
+     * Každé slovo dlhšie ako 4 znaky sa skráti pred prvou samohláskou nasledujúcou
+     * po spoluhláske (od 4. znaku), napr. "Sídlisko" → "Sídl.", "Námestie" → "Nám.".
+     *
+     * @param text pôvodný text
+     * @return navrhovaná skratka
+     */
+    public String proposeAbbreviation(String text)
+    {
+        StringBuilder result = new StringBuilder();
+        for (String word : text.split(" "))
+        {
+            if (result.length() > 0)
+            {
+                result.append(' ');
+            }
+            result.append(abbreviateWord(word));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Skráti jedno slovo podľa pravidla popísaného v {@link #proposeAbbreviation(String)}.
+     */
+    private String abbreviateWord(String word)
+    {
+        if (word.length() <= 4)
+        {
+            return word;
+        }
+
+        for (int i = 3; i < word.length() - 1; i++)
+        {
+            if (isVowel(word.charAt(i)) && !isVowel(word.charAt(i - 1)))
+            {
+                return word.substring(0, i) + ".";
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Zistí, či je znak samohláska (vrátane slovenských znakov s diakritikou).
+     */
+    private static boolean isVowel(char c)
+    {
+        return "aáäeéiíoóôuúyýAÁÄEÉIÍOÓÔUÚYÝ".indexOf(c) >= 0;
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Hašovacia tabuľka s otvoreným adresovaním a kľúčom typu long.
+     * Hodnota 0 v poli kľúčov označuje prázdny slot. Haš slúži iba na výber slotu - pri zhode
+     * hašu sa porovná aj samotný text, takže dve rôzne spojenia s rovnakým hašom sa nezlúčia.
+     */
+    private static class TokenCounter
+    {
+        long[] keys = new long[1024];
+        int[] counts = new int[1024];
+        int[] failingCounts = new int[1024];
+        String[] texts = new String[1024];
+        int size;
+
+        /**
+         * Pridá jeden výskyt textu line[start, end).
+         */
+        void add(long key, String line, int start, int end, boolean failing)
+        {
+            int slot = findSlot(key, line, start, end);
+            if (keys[slot] == 0)
+            {
+                keys[slot] = key;
+                texts[slot] = line.substring(start, end).replaceAll("\\s+", " ");
+                if (++size * 2 > keys.length)
+                {
+                    resize();
+                    slot = findSlot(key, line, start, end);
+                }
+            }
+            counts[slot]++;
+            if (failing)
+            {
+                failingCounts[slot]++;
+            }
+        }
+
+        /**
+         * Pripočíta obsah inej tabuľky do tejto a vráti túto tabuľku.
+         */
+        TokenCounter merge(TokenCounter other)
+        {
+            for (int i = 0; i < other.keys.length; i++)
+            {
+                long key = other.keys[i];
+                if (key == 0)
+                {
+                    continue;
+                }
+                String text = other.texts[i];
+                int slot = findSlot(key, text, 0, text.length());
+                if (keys[slot] == 0)
+                {
+                    keys[slot] = key;
+                    texts[slot] = text;
+                    if (++size * 2 > keys.length)
+                    {
+                        resize();
+                        slot = findSlot(key, text, 0, text.length());
+                    }
+                }
+                counts[slot] += other.counts[i];
+                failingCounts[slot] += other.failingCounts[i];
+            }
+            return this;
+        }
+
+        /**
+         * Nájde slot s rovnakým hašom aj textom line[start, end) alebo prvý prázdny slot.
+         */
+        private int findSlot(long key, String line, int start, int end)
+        {
+            int mask = keys.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (keys[slot] != 0 && (keys[slot] != key || !sameText(texts[slot], line, start, end)))
+            {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Nájde prvý prázdny slot pre kľúč - pri presune položiek, ktoré sú už navzájom rôzne.
+         */
+        private int findEmptySlot(long key)
+        {
+            int mask = keys.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (keys[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Porovná uložený text s úsekom riadku rovnako ako haš - bez ohľadu na veľkosť písmen,
+         * medzery medzi slovami sa berú ako jedna medzera.
+         */
+        private static boolean sameText(String text, String line, int start, int end)
+        {
+            int t = 0;
+            int k = start;
+            while (k < end)
+            {
+                char c = line.charAt(k);
+                if (Character.isWhitespace(c))
+                {
+                    while (k < end && Character.isWhitespace(line.charAt(k)))
+                    {
+                        k++;
+                    }
+                    c = ' ';
+                }
+                else
+                {
+                    k++;
+                }
+                if (t == text.length() || Character.toLowerCase(text.charAt(t)) != Character.toLowerCase(c))
+                {
+                    return false;
+                }
+                t++;
+            }
+            return t == text.length();
+        }
+
+        private void resize()
+        {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            int[] oldFailing = failingCounts;
+            String[] oldTexts = texts;
+
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            failingCounts = new int[capacity];
+            texts = new String[capacity];
+
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                if (oldKeys[i] != 0)
+                {
+                    int slot = findEmptySlot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    failingCounts[slot] = oldFailing[i];
+                    texts[slot] = oldTexts[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Služba pre hromadné návrhy opráv preklepov v názvoch obcí a ulíc.
+ *
+ * Pre každú dávku adries sa postavia dva indexy ({@link FuzzyMatchIndex}) - pre obce
+ * (doplnené o dôveryhodné názvy z {@link PostalCodeIndex}) a pre ulice. Každý rôzny
+ * názov sa vyhodnotí iba raz, preto je oprava celého importu rýchla.
+ */
+public class AddressCorrectionService
+{
+    /**
+     * Navrhne opravené adresy pre zoznam rodičov.
+     *
+     * @param parents zoznam rodičov
+     * @return pole rovnakej dĺžky ako zoznam - opravená celá adresa alebo null, ak oprava nie je potrebná
+     */
+    public String[] suggestCorrections(List<Parent> parents)
+    {
+        String[] result = new String[parents.size()];
+        if (parents.isEmpty())
+        {
+            return result;
+        }
+
+        FuzzyMatchIndex cityIndex = new FuzzyMatchIndex();
+        FuzzyMatchIndex streetIndex = new FuzzyMatchIndex();
+
+        for (String municipality : PostalCodeIndex.getInstance().getMunicipalities())
+        {
+            cityIndex.add(municipality, true);
+        }
+
+        String[] streetNames = new String[parents.size()];
+        for (int i = 0; i < parents.size(); i++)
+        {
+            Parent parent = parents.get(i);
+            streetNames[i] = extractStreetName(parent.getAddress());
+            streetIndex.add(streetNames[i], false);
+            cityIndex.add(parent.getCity(), false);
+        }
+
+        // Výsledky pre rovnaké názvy sa počítajú iba raz ("" = bez opravy)
+        Map<String, String> streetCache = new HashMap<>();
+        Map<String, String> cityCache = new HashMap<>();
+
+        for (int i = 0; i < parents.size(); i++)
+        {
+            Parent parent = parents.get(i);
+            String fullAddress = parent.getFullAddress();
+            String corrected = fullAddress;
+
+            String street = streetNames[i];
+            if (!street.isEmpty())
+            {
+                String streetFix = streetCache.computeIfAbsent(street, s -> orEmpty(streetIndex.suggest(s)));
+                if (!streetFix.isEmpty())
+                {
+                    corrected = replaceFirst(corrected, street, streetFix);
+                }
+            }
+
+            String city = parent.getCity().trim();
+            if (!city.isEmpty())
+            {
+                String cityFix = cityCache.computeIfAbsent(city, c -> orEmpty(cityIndex.suggest(c)));
+                if (!cityFix.isEmpty())
+                {
+                    corrected = replaceLast(corrected, city, cityFix);
+                }
+            }
+
+            result[i] = corrected.equals(fullAddress) ? null : corrected;
+        }
+
+        return result;
+    }
+
+    /**
+     * Získa názov ulice z riadku s ulicou - všetko pred prvou číslicou ("Nám. SNP 12/A" → "Nám. SNP").
+     *
+     * @param streetLine riadok s ulicou a číslom
+     * @return názov ulice alebo prázdny reťazec
+     */
+    public static String extractStreetName(String streetLine)
+    {
+        if (streetLine == null)
+        {
+            return "";
+        }
+
+        int end = 0;
+        while (end < streetLine.length() && !Character.isDigit(streetLine.charAt(end))
+                && streetLine.charAt(end) != ',')
+        {
+            end++;
+        }
+        return streetLine.substring(0, end).trim();
+    }
+
+    private static String orEmpty(String value)
+    {
+        return value != null ? value : "";
+    }
+
+    private static String replaceFirst(String text, String target, String replacement)
+    {
+        int index = text.indexOf(target);
+        return index < 0 ? text : text.substring(0, index) + replacement + text.substring(index + target.length());
+    }
+
+    private static String replaceLast(String text, String target, String replacement)
+    {
+        int index = text.lastIndexOf(target);
+        return index < 0 ? text : text.substring(0, index) + replacement + text.substring(index + target.length());
+    }
+}
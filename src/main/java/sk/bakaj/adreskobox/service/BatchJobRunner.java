@@ -0,0 +1,202 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.model.LabelJob;
+import sk.bakaj.adreskobox.model.LabelJobResult;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Dávkové spracovanie viacerých vstupných súborov (napr. jeden súbor pre každú triedu).
+ *
+ * Každý súbor sa spracuje vo vlastnom virtuálnom vlákne; počet súčasne bežiacich súborov
+ * obmedzuje semafor, pretože načítanie Excelu a tvorba hárkov zaberajú veľa pamäte.
+ * Všetky súbory zdieľajú jednu {@link LabelPipelineService} - font, skompilované skratky
+ * a obsah šablóny sa načítajú iba raz. Výsledky sa zapíšu do súhrnu "suhrn_&lt;čas&gt;.csv".
+ */
+public class BatchJobRunner
+{
+    private final LabelPipelineService pipeline;
+    private final int maxParallel;
+
+    /**
+     * @param pipeline zdieľaná služba generovania
+     * @param maxParallel maximálny počet súčasne spracovávaných súborov
+     */
+    public BatchJobRunner(LabelPipelineService pipeline, int maxParallel)
+    {
+        this.pipeline = pipeline;
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    /**
+     * Vyberie vstupné súbory (CSV, XLSX, XLS) z adresára zoradené podľa názvu.
+     *
+     * @param directory adresár so vstupmi
+     * @return zoznam súborov
+     * @throws IOException ak sa adresár nedá prečítať
+     */
+    public static List<File> listInputFiles(File directory) throws IOException
+    {
+        List<File> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath()))
+        {
+            for (Path path : stream)
+            {
+                if (Files.isRegularFile(path) && FolderWatchService.isInputFile(path))
+                {
+                    files.add(path.toFile());
+                }
+            }
+        }
+        files.sort((f1, f2) -> f1.getName().compareToIgnoreCase(f2.getName()));
+        return files;
+    }
+
+    /**
+     * Spracuje všetky súbory. Chyba jedného súboru nepreruší ostatné - zaznamená sa do jeho výsledku.
+     *
+     * @param inputFiles vstupné súbory
+     * @param settings spoločné nastavenia (formát, odosielateľ, šablóna)
+     * @param outputRoot adresár, v ktorom dostane každý súbor vlastný podadresár podľa názvu
+     * @return výsledky v poradí vstupných súborov
+     * @throws InterruptedException ak bolo čakanie prerušené
+     */
+    public List<LabelJobResult> run(List<File> inputFiles, LabelJob settings, File outputRoot)
+            throws InterruptedException
+    {
+        Semaphore permits = new Semaphore(maxParallel);
+        List<Future<LabelJobResult>> futures = new ArrayList<>(inputFiles.size());
+
+        Set<String> usedNames = new HashSet<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (File inputFile : inputFiles)
+            {
+                File outputDirectory = new File(outputRoot, getOutputName(inputFile, usedNames));
+                LabelJob job = settings.copyFor(inputFile, outputDirectory);
+                futures.add(executor.submit(() ->
+                {
+                    permits.acquire();
+                    try
+                    {
+                        return runJob(job);
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<LabelJobResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++)
+        {
+            try
+            {
+                results.add(futures.get(i).get());
+            }
+            catch (ExecutionException e)
+            {
+                LabelJobResult failed = new LabelJobResult(inputFiles.get(i));
+                failed.setError(String.valueOf(e.getCause().getMessage()));
+                results.add(failed);
+            }
+        }
+        return results;
+    }
+
+    private LabelJobResult runJob(LabelJob job)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return pipeline.run(job);
+        }
+        catch (Exception e)
+        {
+            LabelJobResult failed = new LabelJobResult(job.getInputFile());
+            failed.setError(e.getMessage() != null ? e.getMessage() : e.toString());
+            failed.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            return failed;
+        }
+    }
+
+    /**
+     * Zapíše súhrn dávky ako CSV (oddeľovač bodkočiarka) do zadaného adresára.
+     *
+     * @param results výsledky spracovania
+     * @param directory adresár pre súhrn
+     * @return súbor so súhrnom
+     * @throws IOException ak sa súhrn nedá zapísať
+     */
+    public static File writeReport(List<LabelJobResult> results, File directory) throws IOException
+    {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File reportFile = new File(directory, "suhrn_" + timestamp + ".csv");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8))
+        {
+            writer.write("Súbor;Stav;Riadkov;Príjemcov;Skrátených adries;Nezmestí sa;Štítky;Podacích hárkov;Čas (ms);Chyba");
+            writer.newLine();
+            for (LabelJobResult result : results)
+            {
+                writer.write(String.join(";",
+                        result.getInputFile().getName(),
+                        result.isSuccessful() ? "OK" : "CHYBA",
+                        String.valueOf(result.getRecordCount()),
+                        String.valueOf(result.getParentCount()),
+                        String.valueOf(result.getAbbreviatedCount()),
+                        String.valueOf(result.getNotFitting().size()),
+                        result.getLabelsFile() != null ? result.getLabelsFile().getName() : "",
+                        String.valueOf(result.getSubmissionSheets().size()),
+                        String.valueOf(result.getElapsedMillis()),
+                        result.getError() != null ? result.getError().replace(';', ',') : ""));
+                writer.newLine();
+            }
+        }
+        return reportFile;
+    }
+
+    /**
+     * Názov podadresára pre výstupy súboru - názov bez prípony. Ak ho už má iný súbor dávky
+     * (napr. trieda1.csv a trieda1.xlsx), pridá sa prípona a prípadne poradové číslo,
+     * aby sa výstupy dvoch súborov neprepísali. Porovnáva sa bez ohľadu na veľkosť písmen.
+     * Rovnaké pomenovanie používa aj {@link FolderWatchService}.
+     */
+    static String getOutputName(File file, Set<String> usedNames)
+    {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        String candidate = baseName;
+        if (usedNames.contains(candidate.toLowerCase()) && dot > 0)
+        {
+            candidate = baseName + "_" + name.substring(dot + 1);
+        }
+        String unique = candidate;
+        for (int suffix = 2; usedNames.contains(unique.toLowerCase()); suffix++)
+        {
+            unique = candidate + "_" + suffix;
+        }
+        usedNames.add(unique.toLowerCase());
+        return unique;
+    }
+}
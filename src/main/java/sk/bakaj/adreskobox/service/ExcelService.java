@@ -3,13 +3,17 @@ package sk.bakaj.adreskobox.service;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import sk.bakaj.adreskobox.jfr.ExcelSheetEvent;
 import sk.bakaj.adreskobox.model.Parent;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExcelService
 {
@@ -29,6 +33,9 @@ public class ExcelService
     public static final int RECIPIENTS_CITY_START_COLUMN = 7; // Stĺpec H
     public static final int MAX_RECIPIENTS_PER_PAGE = 12;
 
+    // Načítané šablóny podľa cesty, času zmeny a veľkosti - zdieľané všetkými inštanciami
+    private static final Map<String, byte[]> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
     // Výstupný adresár pre generované súbory
     private File outputDirectory;
 
@@ -79,7 +86,6 @@ public class ExcelService
      * @param senderName   Meno odosielateľa
      * @param senderStreet Ulica odosielateľa
      * @param senderCity   PČS a Mesto odosielateľa
-     * @param mailType     Typ zásielky
      * @param templatePath Cesta k šablóne podacieho hárku
      * @return Zoznam vytvorených súborov
      */
@@ -88,14 +94,6 @@ public class ExcelService
                                              String senderStreet, String senderCity,
                                              String templatePath) throws IOException
     {
-
-        //Kontrola existencie šablony
-        File templateFile = new File(templatePath);
-        if (!templateFile.exists())
-        {
-            throw new FileNotFoundException("Šablóna podacieho hárku nebola nájdená: " + templatePath);
-        }
-
         // Ak nie je nastavený výstupný adresár, použije sa domovský adresár
         if (outputDirectory == null)
         {
@@ -106,46 +104,103 @@ public class ExcelService
             }
         }
 
-        List<File> createdFiles = new ArrayList<>();
+        return createSubmissionSheets(parents, senderName, senderStreet, senderCity, templatePath, outputDirectory);
+    }
 
-        for (int i = 0; i < Math.min(3, parents.size()); i++)
+    /**
+     * Vytvorí podacie hárky do zadaného adresára. Nemení nastavený výstupný adresár služby,
+     * takže jednu službu môže súčasne používať viac požiadaviek.
+     *
+     * @param parents         Zoznam rodičov
+     * @param senderName      Meno odosielateľa
+     * @param senderStreet    Ulica odosielateľa
+     * @param senderCity      PČS a Mesto odosielateľa
+     * @param templatePath    Cesta k šablóne podacieho hárku
+     * @param outputDirectory Adresár pre vytvorené súbory
+     * @return Zoznam vytvorených súborov
+     */
+    public List<File> createSubmissionSheets(List<Parent> parents, String senderName,
+                                             String senderStreet, String senderCity,
+                                             String templatePath, File outputDirectory) throws IOException
+    {
+        //Kontrola existencie šablony
+        File templateFile = new File(templatePath);
+        if (!templateFile.exists())
         {
-            Parent p = parents.get(i);
+            throw new FileNotFoundException("Šablóna podacieho hárku nebola nájdená: " + templatePath);
         }
 
+        List<File> createdFiles = new ArrayList<>();
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.CREATE_SUBMISSION_SHEETS);
+
         //Rozdelenie rodičov do skupín po 12 (maximálny počet na jeden hárok)
         int totalGroups = (int) Math.ceil(parents.size() / (double) MAX_RECIPIENTS_PER_PAGE);
 
-        for (int groupIndex = 0; groupIndex < totalGroups; groupIndex++)
+        try
         {
-            //Určenie začiatku a konca indexov pre túto skupinu
-            int startIndex = groupIndex * MAX_RECIPIENTS_PER_PAGE;
-            int endIndex = Math.min(startIndex + MAX_RECIPIENTS_PER_PAGE, parents.size());
+            for (int groupIndex = 0; groupIndex < totalGroups; groupIndex++)
+            {
+                //Určenie začiatku a konca indexov pre túto skupinu
+                int startIndex = groupIndex * MAX_RECIPIENTS_PER_PAGE;
+                int endIndex = Math.min(startIndex + MAX_RECIPIENTS_PER_PAGE, parents.size());
 
-            //Vytvorenie súboru podacieho hárku
-            File sheetFile = createSingleSubmissionSheet(parents.subList(startIndex, endIndex),
-                    senderName, senderStreet, senderCity, templateFile, groupIndex + 1);
+                //Vytvorenie súboru podacieho hárku
+                File sheetFile = createSingleSubmissionSheet(parents.subList(startIndex, endIndex),
+                        senderName, senderStreet, senderCity, templateFile, outputDirectory, groupIndex + 1);
 
-            createdFiles.add(sheetFile);
+                createdFiles.add(sheetFile);
+                sample.addRows(endIndex - startIndex);
+                sample.addBytes(sheetFile.length());
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            sample.fail();
+            throw e;
+        }
+        finally
+        {
+            sample.stop();
         }
         return createdFiles;
     }
 
 
 
+    /**
+     * Obsah šablóny z pamäte - súbor sa načíta z disku iba raz a znova až po jeho zmene.
+     * Pri veľkom počte hárkov (12 príjemcov na hárok) sa tak šablóna nečíta pre každý hárok.
+     */
+    private byte[] readTemplate(File templateFile) throws IOException
+    {
+        String key = templateFile.getAbsolutePath() + '|' + templateFile.lastModified() + '|' + templateFile.length();
+        byte[] bytes = TEMPLATE_CACHE.get(key);
+        if (bytes == null)
+        {
+            bytes = Files.readAllBytes(templateFile.toPath());
+            // Staršie verzie tej istej šablóny sa z pamäte odstránia
+            TEMPLATE_CACHE.keySet().removeIf(cached -> cached.startsWith(templateFile.getAbsolutePath() + '|'));
+            TEMPLATE_CACHE.put(key, bytes);
+        }
+        return bytes;
+    }
+
     /**
      * Vytvorí jeden podací hárok pre zadanú skupinu rodičov
      */
     private File createSingleSubmissionSheet(List<Parent> groupParents, String senderName,
                                              String senderStreet, String senderCity,
-                                             File templateFile, int groupNumber) throws IOException
+                                             File templateFile, File outputDirectory,
+                                             int groupNumber) throws IOException
     {
         //Vytvorenie výstupného súboru - OPRAVA: používame správny výstupný adresár
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         File outputFile = new File(outputDirectory, "Podaci_harok_" + groupNumber + "_" + timestamp + ".xlsx");
+        ExcelSheetEvent event = new ExcelSheetEvent();
+        event.begin();
 
         //Kopirovanie šablóny
-        try (FileInputStream fis = new FileInputStream(templateFile);
+        try (InputStream fis = new ByteArrayInputStream(readTemplate(templateFile));
              Workbook templateWorkbook = WorkbookFactory.create(fis);
              FileOutputStream fos = new FileOutputStream(outputFile))
         {
@@ -165,6 +220,14 @@ public class ExcelService
             throw e;
         }
 
+        if (event.shouldCommit())
+        {
+            event.file = outputFile.getName();
+            event.sheet = groupNumber;
+            event.recipients = groupParents.size();
+            event.bytes = outputFile.length();
+            event.commit();
+        }
         return outputFile;
     }
 
@@ -1,12 +1,17 @@
 package sk.bakaj.adreskobox.service;
 
 import org.apache.poi.ss.usermodel.*;
+import sk.bakaj.adreskobox.jfr.FileImportEvent;
+import sk.bakaj.adreskobox.jfr.HeaderDetectionEvent;
 import sk.bakaj.adreskobox.model.ImportedData;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -81,6 +86,7 @@ public class FileService
         }
 
         // Prečítame prvých 10 riadkov (alebo menej, ak je súbor kratší)
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.DETECT_FILE_DELIMITER);
         try(BufferedReader br = new BufferedReader(new FileReader(file)))
         {
             String line;
@@ -93,7 +99,18 @@ public class FileService
                     delimiterCounts.put(delimiter, delimiterCounts.get(delimiter) + count);
                 }
                 lineCount++;
+                sample.addBytes(line.getBytes(StandardCharsets.UTF_8).length + 1);
             }
+            sample.addRows(lineCount);
+        }
+        catch (IOException e)
+        {
+            sample.fail();
+            throw e;
+        }
+        finally
+        {
+            sample.stop();
         }
 
         // Vyberieme oddeľovač s najväčším počtom výskytov
@@ -215,17 +232,29 @@ public class FileService
     public boolean hasHeaderRow(File file) throws IOException
     {
         String fileType = detectFileType(file);
+        HeaderDetectionEvent event = new HeaderDetectionEvent();
+        event.begin();
 
+        boolean hasHeader = false;
         if ("CSV".equals(fileType))
         {
             String delimiter = detectFileDelimiter(file);
-            return findCSVHeaderRow(file, delimiter).hasHeader;
+            hasHeader = findCSVHeaderRow(file, delimiter).hasHeader;
+            event.delimiter = delimiter;
         }
         else if ("XLS".equals(fileType) || "XLSX".equals(fileType))
         {
-            return findExcelHeaderRow(file).hasHeader;
+            hasHeader = findExcelHeaderRow(file).hasHeader;
         }
-        return false;
+
+        if (event.shouldCommit())
+        {
+            event.file = file.getName();
+            event.fileType = fileType;
+            event.hasHeader = hasHeader;
+            event.commit();
+        }
+        return hasHeader;
     }
 
     /**
@@ -281,100 +310,165 @@ public class FileService
      * @throws IOException pri chybe čítania súboru alebo nepodporovanom type súboru
      */
     public List<ImportedData> readFile(File file, boolean hasHeader) throws IOException
+    {
+        List<ImportedData> dataList = new ArrayList<>();
+        readRows(file, hasHeader, (values, columnIndexes) ->
+        {
+            ImportedData data = createImportedData(values, columnIndexes);
+            if (data != null)
+            {
+                dataList.add(data);
+            }
+        });
+        return dataList;
+    }
+
+    /**
+     * Načíta dáta zo súboru s automatickou detekciou hlavičky do stĺpcového úložiska
+     * @param file súbor na načítanie
+     * @return úložisko importovaných záznamov
+     * @throws IOException pri chybe čítania súboru
+     */
+    public ImportedRecordStore readRecords(File file) throws IOException
+    {
+        return readRecords(file, hasHeaderRow(file));
+    }
+
+    /**
+     * Načíta dáta zo súboru do stĺpcového úložiska bez vytvárania objektov ImportedData
+     * @param file súbor na načítanie
+     * @param hasHeader určuje či súbor obsahuje hlavičku
+     * @return úložisko importovaných záznamov
+     * @throws IOException pri chybe čítania súboru alebo nepodporovanom type súboru
+     */
+    public ImportedRecordStore readRecords(File file, boolean hasHeader) throws IOException
+    {
+        ImportedRecordStore store = new ImportedRecordStore();
+        readRows(file, hasHeader, (values, columnIndexes) ->
+        {
+            String[] record = extractRecord(values, columnIndexes);
+            if (record != null)
+            {
+                store.add(record[0], record[1], record[2], record[4], record[3], record[5]);
+            }
+        });
+        return store;
+    }
+
+    /**
+     * Prečíta riadky súboru podľa jeho typu a odovzdá ich spracovateľovi
+     * @param file súbor na načítanie
+     * @param hasHeader určuje či súbor obsahuje hlavičku
+     * @param handler spracovateľ riadkov
+     * @throws IOException pri chybe čítania súboru alebo nepodporovanom type súboru
+     */
+    private void readRows(File file, boolean hasHeader, RowHandler handler) throws IOException
     {
         String fileType = detectFileType(file);
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.READ_FILE);
+        FileImportEvent event = new FileImportEvent();
+        event.begin();
+        RowHandler countingHandler = (values, columnIndexes) ->
+        {
+            sample.addRows(1);
+            event.rows++;
+            handler.handle(values, columnIndexes);
+        };
 
-        if ("CSV".equals(fileType))
+        try
         {
-            String delimiter = detectFileDelimiter(file);
-            return readCSV(file, delimiter, hasHeader);
+            if ("CSV".equals(fileType))
+            {
+                String delimiter = detectFileDelimiter(file);
+                readCSV(file, delimiter, hasHeader, countingHandler);
+            }
+            else if ("XLS".equals(fileType) || "XLSX".equals(fileType))
+            {
+                readExcel(file, hasHeader, countingHandler);
+            }
+            else
+            {
+                throw new IOException("Nepodporovaný typ súboru");
+            }
+            sample.addBytes(file.length());
         }
-        else if ("XLS".equals(fileType) || "XLSX".equals(fileType))
+        catch (IOException | RuntimeException e)
         {
-            return readExcel(file, hasHeader);
+            sample.fail();
+            throw e;
         }
-        else
+        finally
         {
-            throw new IOException("Nepodporovaný typ súboru");
+            sample.stop();
+            if (event.shouldCommit())
+            {
+                event.file = file.getName();
+                event.fileType = fileType;
+                event.charset = "CSV".equals(fileType) ? Charset.defaultCharset().name() : "";
+                event.bytes = file.length();
+                event.commit();
+            }
         }
     }
 
     /**
-     * Načíta dáta z CSV súboru
+     * Načíta dáta z CSV súboru - riadky sa spracúvajú priebežne pri čítaní
      * @param file CSV súbor
      * @param delimiter oddeľovač stĺpcov
      * @param hasHeader určuje či súbor obsahuje hlavičku
-     * @return zoznam importovaných dát
+     * @param handler spracovateľ riadkov s dátami
      * @throws IOException pri chybe čítania súboru
      */
-    private List<ImportedData> readCSV(File file, String delimiter, boolean hasHeader) throws IOException
+    private void readCSV(File file, String delimiter, boolean hasHeader, RowHandler handler) throws IOException
     {
-        List<ImportedData> dataList = new ArrayList<>();
-        List<String> allLines = new ArrayList<>();
-
-        // Načítanie všetkých riadkov
-        try (BufferedReader br = new BufferedReader(new FileReader(file)))
-        {
-            String line;
-            while ((line = br.readLine()) != null)
-            {
-                allLines.add(line);
-            }
-        }
-
-        if (allLines.isEmpty())
-        {
-            throw new IOException("Súbor je prázdny.");
-        }
-
-        HeaderInfo headerInfo;
+        HeaderInfo headerInfo = null;
         if (hasHeader)
         {
             headerInfo = findCSVHeaderRow(file, delimiter);
         }
-        else
-        {
-            // Ak nie je hlavička, použijeme prvý riadok ako vzor štruktúry
-            String[] firstRowColumns = parseCSVLine(allLines.get(0), delimiter);
-            headerInfo = new HeaderInfo(false, -1, firstRowColumns);
-        }
 
-        if (headerInfo.headers == null)
+        try (BufferedReader br = new BufferedReader(new FileReader(file)))
         {
-            throw new IOException("Nepodarilo sa určiť štruktúru súboru.");
-        }
+            String line = br.readLine();
+            if (line == null)
+            {
+                throw new IOException("Súbor je prázdny.");
+            }
 
-        int[] columnIndexes = findColumnIndexes(headerInfo.headers);
-        int startDataRowIndex = headerInfo.hasHeader ? headerInfo.rowIndex + 1 : 0;
+            if (headerInfo == null)
+            {
+                // Ak nie je hlavička, použijeme prvý riadok ako vzor štruktúry
+                String[] firstRowColumns = parseCSVLine(line, delimiter);
+                headerInfo = new HeaderInfo(false, -1, firstRowColumns);
+            }
 
-        // Spracovanie dát
-        for (int i = startDataRowIndex; i < allLines.size(); i++)
-        {
-            String line = allLines.get(i);
-            if (line.trim().isEmpty()) continue;
+            if (headerInfo.headers == null)
+            {
+                throw new IOException("Nepodarilo sa určiť štruktúru súboru.");
+            }
 
-            String[] values = parseCSVLine(line, delimiter);
-            ImportedData data = createImportedData(values, columnIndexes);
-            if (data != null)
+            int[] columnIndexes = findColumnIndexes(headerInfo.headers);
+            int startDataRowIndex = headerInfo.hasHeader ? headerInfo.rowIndex + 1 : 0;
+
+            // Spracovanie dát
+            for (int i = 0; line != null; i++, line = br.readLine())
             {
-                dataList.add(data);
+                if (i < startDataRowIndex || line.trim().isEmpty()) continue;
+
+                handler.handle(parseCSVLine(line, delimiter), columnIndexes);
             }
         }
-
-        return dataList;
     }
 
     /**
      * Načíta dáta z Excel súboru
      * @param file Excel súbor
      * @param hasHeader určuje či súbor obsahuje hlavičku
-     * @return zoznam importovaných dát
+     * @param handler spracovateľ riadkov s dátami
      * @throws IOException pri chybe čítania súboru
      */
-    private List<ImportedData> readExcel(File file, boolean hasHeader) throws IOException
+    private void readExcel(File file, boolean hasHeader, RowHandler handler) throws IOException
     {
-        List<ImportedData> dataList = new ArrayList<>();
-
         try (Workbook workbook = WorkbookFactory.create(file))
         {
             Sheet sheet = workbook.getSheetAt(0);
@@ -421,16 +515,10 @@ public class FileService
                         Cell cell = row.getCell(j);
                         values[j] = getCellValueAsString(cell);
                     }
-                    ImportedData data = createImportedData(values, columnIndexes);
-                    if (data != null)
-                    {
-                        dataList.add(data);
-                    }
+                    handler.handle(values, columnIndexes);
                 }
             }
         }
-
-        return dataList;
     }
 
     /**
@@ -559,43 +647,47 @@ public class FileService
      */
     private ImportedData createImportedData(String[] values, int[] columnIndexes)
     {
-        if (values == null || values.length == 0) return null;
+        String[] record = extractRecord(values, columnIndexes);
+        if (record == null) return null;
+
         ImportedData data = new ImportedData();
+        data.setStudentFirstName(record[0]);
+        data.setStudentLastName(record[1]);
+        data.setParent1Name(record[2]);
+        data.setParent2Name(record[3]);
+        data.setAddress1(record[4]);
+        data.setAddress2(record[5]);
+        return data;
+    }
 
-        // Nastavenie hodnôt do objektu na základe nájdených indexov
-        if (columnIndexes[0] != -1 && columnIndexes[0] < values.length)
-        {
-            data.setStudentFirstName(cleanValue(values[columnIndexes[0]]));
-        }
-        if (columnIndexes[1] != -1 && columnIndexes[1] < values.length)
-        {
-            data.setStudentLastName(cleanValue(values[columnIndexes[1]]));
-        }
-        if (columnIndexes[2] != -1 && columnIndexes[2] < values.length)
-        {
-            data.setParent1Name(cleanValue(values[columnIndexes[2]]));
-        }
-        if (columnIndexes[3] != -1 && columnIndexes[3] < values.length)
-        {
-            data.setParent2Name(cleanValue(values[columnIndexes[3]]));
-        }
-        if (columnIndexes[4] != -1 && columnIndexes[4] < values.length)
-        {
-            data.setAddress1(cleanValue(values[columnIndexes[4]]));
-        }
-        if (columnIndexes[5] != -1 && columnIndexes[5] < values.length)
+    /**
+     * Vyberie a vyčistí hodnoty riadku v poradí stĺpcov z findColumnIndexes
+     * @param values hodnoty zo stĺpcov
+     * @param columnIndexes indexy jednotlivých typov stĺpcov
+     * @return pole 6 hodnôt (chýbajúci stĺpec = null) alebo null ak sú údaje neúplné
+     */
+    private String[] extractRecord(String[] values, int[] columnIndexes)
+    {
+        if (values == null || values.length == 0) return null;
+
+        // Nastavenie hodnôt na základe nájdených indexov
+        String[] record = new String[columnIndexes.length];
+        for (int i = 0; i < columnIndexes.length; i++)
         {
-            data.setAddress2(cleanValue(values[columnIndexes[5]]));
+            if (columnIndexes[i] != -1 && columnIndexes[i] < values.length)
+            {
+                record[i] = cleanValue(values[columnIndexes[i]]);
+            }
         }
 
         // Ak sú mená študentov prázdne, vrátime null
-        if ((data.getStudentFirstName() == null || data.getStudentFirstName().isEmpty()) &&
-                (data.getStudentLastName() == null || data.getStudentLastName().isEmpty()))
+        if ((record[0] == null || record[0].isEmpty()) &&
+                (record[1] == null || record[1].isEmpty()))
         {
             return null;
         }
 
-        return data;
+        return record;
     }
 
     /**
@@ -609,6 +701,14 @@ public class FileService
         return value.replace("\"", "").trim();
     }
 
+    /**
+     * Spracovateľ jedného riadku s dátami
+     */
+    private interface RowHandler
+    {
+        void handle(String[] values, int[] columnIndexes);
+    }
+
     /**
      * Pomocná trieda pre informácie o hlavičke súboru
      */
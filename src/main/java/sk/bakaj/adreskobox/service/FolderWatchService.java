@@ -0,0 +1,451 @@
+package sk.bakaj.adreskobox.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.model.LabelJob;
+import sk.bakaj.adreskobox.model.LabelJobResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sledovanie adresárov a automatické generovanie štítkov pre nové exporty.
+ *
+ * Udalosti z {@link WatchService} sa neposielajú na spracovanie hneď - súbor musí byť
+ * určitý čas bez zmeny veľkosti aj času zmeny, aby sa nespracoval rozpísaný súbor.
+ * Spracovanie beží na obmedzenom počte vlákien s ohraničeným frontom; keď je front plný,
+ * súbor počká na ďalšie kolo kontroly. Výstupy sa zapíšu do adresára "&lt;názov&gt;_vystup"
+ * vedľa vstupu, stav do "&lt;názov&gt;.stav.json" a výsledok do denníka {@link ProcessingJournal},
+ * podľa ktorého sa po reštarte už spracované súbory preskočia. Názov sa určí rovnako ako
+ * v {@link BatchJobRunner} (trieda1.csv a trieda1.xlsx dostanú rôzne názvy) a zostáva súboru
+ * pridelený aj po reštarte - načíta sa zo súborov stavu.
+ */
+public class FolderWatchService
+{
+    private static final Logger logger = LogManager.getLogger(FolderWatchService.class);
+
+    private static final long CHECK_INTERVAL_MILLIS = 500;
+    private static final String OUTPUT_SUFFIX = "_vystup";
+    private static final String MANIFEST_SUFFIX = ".stav.json";
+
+    private final LabelJob jobTemplate;
+    private final long quietMillis;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "adreskobox-watch-debounce");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Jedna služba pre všetky vlákna - font, skratky a šablóna sa načítajú iba raz
+    private final LabelPipelineService pipeline = new LabelPipelineService();
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final Map<Path, ProcessingJournal> journals = new HashMap<>();
+    /** Súbory čakajúce na ustálenie */
+    private final Map<Path, PendingFile> pending = new ConcurrentHashMap<>();
+    /** Súbory práve odoslané na spracovanie - hodnota true znamená, že sa medzitým znovu zmenili */
+    private final Map<Path, Boolean> inProgress = new ConcurrentHashMap<>();
+    /** Názvy výstupov pridelené súborom */
+    private final Map<Path, String> outputNames = new HashMap<>();
+    /** Použité názvy výstupov v jednotlivých adresároch (malými písmenami) */
+    private final Map<Path, Set<String>> usedOutputNames = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * @param jobTemplate nastavenia generovania (formát, odosielateľ, šablóna) spoločné pre všetky súbory
+     * @param workerCount počet súčasne spracovávaných súborov
+     * @param quietMillis ako dlho sa súbor nesmie meniť, kým sa spracuje (ms)
+     */
+    public FolderWatchService(LabelJob jobTemplate, int workerCount, long quietMillis)
+    {
+        this.jobTemplate = jobTemplate;
+        this.quietMillis = quietMillis;
+        int threads = Math.max(1, workerCount);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable ->
+                {
+                    Thread thread = new Thread(runnable, "adreskobox-watch-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Začne sledovať adresáre. Súbory, ktoré v nich už sú a ešte neboli spracované, sa spracujú tiež.
+     *
+     * @param directories sledované adresáre
+     * @throws IOException ak sa adresár nedá sledovať
+     */
+    public synchronized void start(List<Path> directories) throws IOException
+    {
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories)
+        {
+            Path dir = directory.toAbsolutePath().normalize();
+            if (!Files.isDirectory(dir))
+            {
+                throw new IOException("Adresár neexistuje: " + dir);
+            }
+            journals.put(dir, new ProcessingJournal(dir));
+            loadOutputNames(dir);
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            scanDirectory(dir);
+        }
+
+        watchThread = new Thread(this::watchLoop, "adreskobox-watch");
+        watchThread.start();
+        scheduler.scheduleWithFixedDelay(this::checkPendingFiles,
+                CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ukončí sledovanie a počká na dokončenie rozpracovaných súborov.
+     */
+    public synchronized void stop()
+    {
+        scheduler.shutdownNow();
+        try
+        {
+            if (watchService != null)
+            {
+                watchService.close();
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(5, TimeUnit.MINUTES))
+            {
+                logger.warn("Spracovanie súborov sa nestihlo dokončiť");
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Chyba pri ukončení sledovania: {}", e.getMessage());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Počká, kým sa sledovanie neukončí (napr. metódou {@link #stop()} z ukončovacieho hooku).
+     */
+    public void awaitTermination() throws InterruptedException
+    {
+        if (watchThread != null)
+        {
+            watchThread.join();
+        }
+    }
+
+    private void watchLoop()
+    {
+        try
+        {
+            while (true)
+            {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                    {
+                        // Stratené udalosti - prejde sa celý adresár
+                        scanDirectory(dir);
+                    }
+                    else
+                    {
+                        markPending(dir.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset())
+                {
+                    logger.warn("Adresár už nie je možné sledovať: {}", dir);
+                }
+            }
+        }
+        catch (ClosedWatchServiceException | InterruptedException e)
+        {
+            // Ukončenie sledovania
+        }
+        catch (IOException e)
+        {
+            logger.error("Chyba pri sledovaní adresára: {}", e.getMessage());
+        }
+    }
+
+    private void scanDirectory(Path dir) throws IOException
+    {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir))
+        {
+            for (Path file : stream)
+            {
+                markPending(file);
+            }
+        }
+    }
+
+    private void markPending(Path file)
+    {
+        if (!isInputFile(file))
+        {
+            return;
+        }
+        // Zmena počas spracovania sa zapamätá - po dokončení sa súbor skontroluje znovu
+        if (inProgress.computeIfPresent(file, (path, changed) -> Boolean.TRUE) != null)
+        {
+            return;
+        }
+        pending.compute(file, (path, current) -> current != null ? current.touch() : new PendingFile());
+    }
+
+    /**
+     * Vstupom sú CSV a Excel súbory okrem dočasných súborov Excelu ("~$...") a skrytých súborov.
+     */
+    public static boolean isInputFile(Path file)
+    {
+        String name = file.getFileName().toString();
+        String lower = name.toLowerCase();
+        return !name.startsWith("~$") && !name.startsWith(".")
+                && (lower.endsWith(".csv") || lower.endsWith(".xlsx") || lower.endsWith(".xls"));
+    }
+
+    /**
+     * Odošle na spracovanie súbory, ktoré sa počas intervalu ticha nezmenili.
+     */
+    private void checkPendingFiles()
+    {
+        long now = System.nanoTime();
+        for (Map.Entry<Path, PendingFile> entry : pending.entrySet())
+        {
+            Path file = entry.getKey();
+            PendingFile state = entry.getValue();
+            try
+            {
+                if (!Files.isRegularFile(file))
+                {
+                    pending.remove(file);
+                    continue;
+                }
+
+                long size = Files.size(file);
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                if (size != state.size || lastModified != state.lastModified)
+                {
+                    // Súbor sa ešte zapisuje - čakanie začína odznova
+                    state.size = size;
+                    state.lastModified = lastModified;
+                    state.touch();
+                    continue;
+                }
+                if (now - state.lastChangeNanos < TimeUnit.MILLISECONDS.toNanos(quietMillis))
+                {
+                    continue;
+                }
+
+                pending.remove(file);
+                if (size == 0 || journals.get(file.getParent()).isProcessed(file))
+                {
+                    continue;
+                }
+
+                inProgress.put(file, Boolean.FALSE);
+                try
+                {
+                    workers.execute(() -> process(file, size, lastModified));
+                }
+                catch (RejectedExecutionException e)
+                {
+                    // Plný front - súbor sa skúsi v ďalšom kole
+                    inProgress.remove(file);
+                    pending.putIfAbsent(file, state);
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Chyba pri kontrole súboru {}: {}", file, e.getMessage());
+                pending.remove(file);
+            }
+        }
+    }
+
+    private void process(Path file, long size, long lastModified)
+    {
+        // Súbor je už označený ako spracovávaný - uvoľní sa pri akomkoľvek výsledku
+        try
+        {
+            File input = file.toFile();
+            String outputName = getOutputName(file);
+            File outputDirectory = new File(input.getParentFile(), outputName + OUTPUT_SUFFIX);
+            Path manifest = file.resolveSibling(outputName + MANIFEST_SUFFIX);
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("subor", input.getName());
+            status.put("stav", "spracováva sa");
+            status.put("zaciatok", LocalDateTime.now().toString());
+            writeManifest(manifest, status);
+
+            String journalStatus;
+            try
+            {
+                LabelJobResult result = pipeline.run(jobTemplate.copyFor(input, outputDirectory));
+
+                List<String> outputs = new ArrayList<>();
+                if (result.getLabelsFile() != null)
+                {
+                    outputs.add(result.getLabelsFile().getName());
+                }
+                for (File sheet : result.getSubmissionSheets())
+                {
+                    outputs.add(sheet.getName());
+                }
+
+                status.put("stav", "hotovo");
+                status.put("riadkov", result.getRecordCount());
+                status.put("prijemcov", result.getParentCount());
+                status.put("skratenychAdries", result.getAbbreviatedCount());
+                status.put("nezmestiSa", result.getNotFitting());
+                status.put("vystupnyAdresar", outputDirectory.getName());
+                status.put("vystupy", outputs);
+                status.put("trvanieMs", result.getElapsedMillis());
+                journalStatus = ProcessingJournal.STATUS_OK;
+                logger.info("Spracovaný súbor {}: {} príjemcov za {} ms", input.getName(), result.getParentCount(),
+                        result.getElapsedMillis());
+            }
+            catch (Exception e)
+            {
+                status.put("stav", "chyba");
+                status.put("chyba", e.getMessage());
+                journalStatus = ProcessingJournal.STATUS_FAILED;
+                logger.error("Chyba pri spracovaní súboru {}: {}", input.getName(), e.getMessage());
+            }
+
+            status.put("koniec", LocalDateTime.now().toString());
+            writeManifest(manifest, status);
+            journals.get(file.getParent()).record(file, size, lastModified, journalStatus);
+        }
+        catch (IOException e)
+        {
+            logger.error("Nepodarilo sa zapísať denník spracovania: {}", e.getMessage());
+        }
+        finally
+        {
+            // Udalosti počas spracovania sa nezahodia - súbor čaká na ustálenie odznova
+            if (Boolean.TRUE.equals(inProgress.remove(file)))
+            {
+                markPending(file);
+            }
+        }
+    }
+
+    private void writeManifest(Path manifest, Map<String, Object> status)
+    {
+        try (Writer writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8))
+        {
+            gson.toJson(status, writer);
+        }
+        catch (IOException | JsonIOException e)
+        {
+            logger.error("Nepodarilo sa zapísať stav spracovania: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Názov výstupov súboru - pri prvom spracovaní sa pridelí rovnako ako v dávke, ďalšie
+     * spracovania toho istého súboru ho zachovajú.
+     */
+    private String getOutputName(Path file)
+    {
+        synchronized (outputNames)
+        {
+            return outputNames.computeIfAbsent(file, path ->
+                    BatchJobRunner.getOutputName(path.toFile(), usedOutputNames.get(path.getParent())));
+        }
+    }
+
+    /**
+     * Načíta názvy výstupov zo súborov stavu z predchádzajúceho behu, aby ich súbory adresára
+     * zachovali a nový súbor s rovnakým názvom bez prípony ich neprepísal.
+     */
+    private void loadOutputNames(Path dir) throws IOException
+    {
+        Set<String> usedNames = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + MANIFEST_SUFFIX))
+        {
+            for (Path manifest : stream)
+            {
+                String fileName = manifest.getFileName().toString();
+                String outputName = fileName.substring(0, fileName.length() - MANIFEST_SUFFIX.length());
+                usedNames.add(outputName.toLowerCase());
+                try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8))
+                {
+                    JsonObject status = JsonParser.parseReader(reader).getAsJsonObject();
+                    if (status.has("subor"))
+                    {
+                        outputNames.put(dir.resolve(status.get("subor").getAsString()), outputName);
+                    }
+                }
+                catch (IOException | JsonParseException | IllegalStateException e)
+                {
+                    logger.warn("Nepodarilo sa načítať stav spracovania {}: {}", manifest, e.getMessage());
+                }
+            }
+        }
+        synchronized (outputNames)
+        {
+            usedOutputNames.put(dir, usedNames);
+        }
+    }
+
+    /**
+     * Stav súboru čakajúceho na ustálenie.
+     */
+    private static class PendingFile
+    {
+        long lastChangeNanos = System.nanoTime();
+        long size = -1;
+        long lastModified = -1;
+
+        PendingFile touch()
+        {
+            lastChangeNanos = System.nanoTime();
+            return this;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.util.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index pre približné vyhľadávanie názvov obcí a ulíc (oprava preklepov).
+ *
+ * Názvy sa porovnávajú bez diakritiky a bez ohľadu na veľkosť písmen. Každý normalizovaný
+ * názov si pamätá všetky pôvodné zápisy a ich početnosť, takže "Hlavna" sa opraví
+ * na "Hlavná", ak sa v dátach vyskytuje aj zápis s diakritikou. Preklepy ("Bratislva")
+ * sa hľadajú v BK-strome podľa Levenshteinovej vzdialenosti.
+ */
+public class FuzzyMatchIndex
+{
+    // Kratšie názvy sa neopravujú - pri nich je príliš veľa falošných zhôd
+    private static final int MIN_FUZZY_LENGTH = 5;
+    // Od tejto dĺžky je povolená vzdialenosť 2, inak 1
+    private static final int LONG_TERM_LENGTH = 9;
+    // Koľkokrát častejší musí byť kandidát, aby sa považoval za správny zápis
+    private static final int DOMINANCE_FACTOR = 3;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private Node root;
+    private boolean treeDirty;
+
+    /**
+     * Pridá výskyt názvu do indexu.
+     *
+     * @param term názov obce alebo ulice tak, ako sa vyskytol v dátach
+     * @param trusted true pre názvy z dôveryhodného zdroja (napr. index PSČ)
+     */
+    public void add(String term, boolean trusted)
+    {
+        if (term == null)
+        {
+            return;
+        }
+
+        String spelling = term.trim();
+        String key = TextNormalizer.toKey(spelling);
+        if (key.isEmpty())
+        {
+            return;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null)
+        {
+            entry = new Entry(key);
+            entries.put(key, entry);
+            treeDirty = true;
+        }
+        entry.frequency++;
+        entry.trusted |= trusted;
+        entry.spellings.merge(spelling, trusted ? DOMINANCE_FACTOR : 1, Integer::sum);
+    }
+
+    /**
+     * Navrhne opravený zápis názvu.
+     *
+     * @param term názov na kontrolu
+     * @return opravený názov alebo null, ak sa oprava nenašla alebo nie je potrebná
+     */
+    public String suggest(String term)
+    {
+        if (term == null)
+        {
+            return null;
+        }
+
+        String spelling = term.trim();
+        String key = TextNormalizer.toKey(spelling);
+        if (key.isEmpty())
+        {
+            return null;
+        }
+
+        Entry self = entries.get(key);
+        Entry best = null;
+
+        // Hľadanie preklepov iba pre nedôveryhodné a dostatočne dlhé názvy
+        if ((self == null || !self.trusted) && key.length() >= MIN_FUZZY_LENGTH)
+        {
+            int maxDistance = key.length() >= LONG_TERM_LENGTH ? 2 : 1;
+            int selfFrequency = self != null ? self.frequency : 0;
+            best = findBestCandidate(key, maxDistance, selfFrequency);
+        }
+
+        String corrected;
+        if (best != null)
+        {
+            corrected = best.getCanonicalSpelling();
+        }
+        else if (self != null)
+        {
+            corrected = self.getCanonicalSpelling();
+        }
+        else
+        {
+            return null;
+        }
+
+        return corrected.equals(spelling) ? null : corrected;
+    }
+
+    /**
+     * Nájde najlepšieho kandidáta v BK-strome - najmenšia vzdialenosť, potom najvyššia početnosť.
+     */
+    private Entry findBestCandidate(String key, int maxDistance, int selfFrequency)
+    {
+        if (treeDirty)
+        {
+            rebuildTree();
+        }
+        if (root == null)
+        {
+            return null;
+        }
+
+        Entry[] best = new Entry[1];
+        int[] bestDistance = {Integer.MAX_VALUE};
+        search(root, key, maxDistance, selfFrequency, best, bestDistance);
+        return best[0];
+    }
+
+    private void search(Node node, String key, int maxDistance, int selfFrequency,
+                        Entry[] best, int[] bestDistance)
+    {
+        int distance = levenshtein(key, node.entry.key);
+
+        if (distance > 0 && distance <= maxDistance && isPreferred(node.entry, selfFrequency))
+        {
+            if (distance < bestDistance[0]
+                    || (distance == bestDistance[0] && node.entry.frequency > best[0].frequency))
+            {
+                best[0] = node.entry;
+                bestDistance[0] = distance;
+            }
+        }
+
+        for (int i = 0; i < node.childCount; i++)
+        {
+            int childDistance = node.childDistances[i];
+            if (childDistance >= distance - maxDistance && childDistance <= distance + maxDistance)
+            {
+                search(node.children[i], key, maxDistance, selfFrequency, best, bestDistance);
+            }
+        }
+    }
+
+    /**
+     * Kandidát je vhodný, ak je dôveryhodný alebo výrazne častejší ako kontrolovaný názov.
+     */
+    private boolean isPreferred(Entry candidate, int selfFrequency)
+    {
+        return candidate.trusted || candidate.frequency >= DOMINANCE_FACTOR * Math.max(1, selfFrequency);
+    }
+
+    /**
+     * Znovu postaví BK-strom zo všetkých názvov v indexe.
+     */
+    private void rebuildTree()
+    {
+        root = null;
+        for (Entry entry : entries.values())
+        {
+            if (root == null)
+            {
+                root = new Node(entry);
+                continue;
+            }
+
+            Node node = root;
+            while (true)
+            {
+                int distance = levenshtein(entry.key, node.entry.key);
+                Node child = node.getChild(distance);
+                if (child == null)
+                {
+                    node.addChild(distance, new Node(entry));
+                    break;
+                }
+                node = child;
+            }
+        }
+        treeDirty = false;
+    }
+
+    /**
+     * Levenshteinova vzdialenosť dvoch reťazcov (počet vložení, zmazaní a zámen znakov).
+     * BK-strom vyžaduje presnú vzdialenosť, preto sa výpočet predčasne neukončuje.
+     */
+    static int levenshtein(String a, String b)
+    {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++)
+        {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++)
+        {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++)
+            {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /** @return počet rôznych normalizovaných názvov v indexe */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Jeden normalizovaný názov s pôvodnými zápismi a ich početnosťou.
+     */
+    private static class Entry
+    {
+        final String key;
+        final Map<String, Integer> spellings = new HashMap<>(2);
+        int frequency;
+        boolean trusted;
+        String canonical;
+        int canonicalVersion = -1;
+
+        Entry(String key)
+        {
+            this.key = key;
+        }
+
+        /**
+         * Preferovaný zápis - prednosť má zápis s diakritikou, potom najčastejší.
+         */
+        String getCanonicalSpelling()
+        {
+            if (canonical != null && canonicalVersion == frequency)
+            {
+                return canonical;
+            }
+
+            String best = null;
+            int bestCount = -1;
+            boolean bestHasDiacritics = false;
+            for (Map.Entry<String, Integer> spelling : spellings.entrySet())
+            {
+                boolean hasDiacritics = TextNormalizer.hasDiacritics(spelling.getKey());
+                if (best == null
+                        || (hasDiacritics && !bestHasDiacritics)
+                        || (hasDiacritics == bestHasDiacritics && spelling.getValue() > bestCount))
+                {
+                    best = spelling.getKey();
+                    bestCount = spelling.getValue();
+                    bestHasDiacritics = hasDiacritics;
+                }
+            }
+            canonical = best;
+            canonicalVersion = frequency;
+            return best;
+        }
+    }
+
+    /**
+     * Uzol BK-stromu, potomkovia sú indexovaní vzdialenosťou od rodiča.
+     */
+    private static class Node
+    {
+        final Entry entry;
+        int[] childDistances = new int[0];
+        Node[] children = new Node[0];
+        int childCount;
+
+        Node(Entry entry)
+        {
+            this.entry = entry;
+        }
+
+        Node getChild(int distance)
+        {
+            for (int i = 0; i < childCount; i++)
+            {
+                if (childDistances[i] == distance)
+                {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child)
+        {
+            if (childCount == children.length)
+            {
+                int capacity = Math.max(4, childCount * 2);
+                childDistances = Arrays.copyOf(childDistances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childDistances[childCount] = distance;
+            children[childCount] = child;
+            childCount++;
+        }
+    }
+}
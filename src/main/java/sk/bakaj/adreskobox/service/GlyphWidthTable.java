@@ -0,0 +1,69 @@
+package sk.bakaj.adreskobox.service;
+
+import com.itextpdf.text.pdf.BaseFont;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Predpočítané šírky znakov písma pre rýchle meranie textu.
+ *
+ * Šírky znakov latinky vrátane slovenskej diakritiky (U+0000 až U+024F) sa načítajú z písma
+ * raz do poľa v jednotkách 1/1000 veľkosti písma; ostatné znaky sa pýtajú priamo písma.
+ * Výsledok je rovnaký ako {@link BaseFont#getWidthPoint(String, float)}, ale bez prevodu
+ * kódovania pri každom meraní. Tabuľka sa po vytvorení nemení, môže ju používať viac vlákien.
+ */
+public final class GlyphWidthTable
+{
+    private static final int TABLE_SIZE = 0x250;
+    private static final Map<BaseFont, GlyphWidthTable> TABLES = new ConcurrentHashMap<>();
+
+    private final BaseFont font;
+    private final int[] widths = new int[TABLE_SIZE];
+
+    private GlyphWidthTable(BaseFont font)
+    {
+        this.font = font;
+        for (int c = 0; c < TABLE_SIZE; c++)
+        {
+            widths[c] = font.getWidth(c);
+        }
+    }
+
+    /**
+     * Vráti tabuľku pre písmo; pre každé písmo sa vytvorí iba raz.
+     */
+    public static GlyphWidthTable forFont(BaseFont font)
+    {
+        return TABLES.computeIfAbsent(font, GlyphWidthTable::new);
+    }
+
+    /**
+     * @return šírka textu v jednotkách 1/1000 veľkosti písma
+     */
+    public int getWidth(String text)
+    {
+        int total = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            total += getWidth(text.charAt(i));
+        }
+        return total;
+    }
+
+    /**
+     * @return šírka znaku v jednotkách 1/1000 veľkosti písma
+     */
+    public int getWidth(char c)
+    {
+        return c < TABLE_SIZE ? widths[c] : font.getWidth(c);
+    }
+
+    /**
+     * @return šírka textu v bodoch pri zadanej veľkosti písma
+     */
+    public float getWidthPoint(String text, float fontSize)
+    {
+        return getWidth(text) * 0.001f * fontSize;
+    }
+}
@@ -0,0 +1,182 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Služba pre zlúčenie rodičov z jednej domácnosti do jedného štítku.
+ *
+ * Rodičia sa najprv rozdelia do blokov podľa normalizovanej adresy (ulica, PSČ, obec
+ * bez diakritiky a interpunkcie) pomocou HashMap. Mená sa porovnávajú iba v rámci
+ * bloku, preto je spracovanie lineárne aj pre stovky tisíc záznamov.
+ * Ten istý rodič uvedený pri viacerých súrodencoch sa zlúči do jedného záznamu,
+ * rodičia s rovnakým priezviskom ("Novák" / "Nováková") do spoločného štítku
+ * "Ján a Mária Nováková".
+ */
+public class HouseholdDeduplicationService
+{
+    /**
+     * Zlúči rodičov zdieľajúcich jednu adresu.
+     *
+     * @param parents zoznam rodičov
+     * @return zoznam príjemcov po zlúčení v poradí prvého výskytu
+     */
+    public List<Parent> mergeHouseholds(List<Parent> parents)
+    {
+        if (parents == null || parents.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+
+        List<Household> households = new ArrayList<>();
+        Map<String, List<Household>> blocks = new HashMap<>(parents.size() * 2);
+
+        for (Parent parent : parents)
+        {
+            String addressKey = ParentRepository.createAddressKey(parent);
+            if (addressKey.isEmpty())
+            {
+                // Bez adresy nie je čo porovnávať
+                households.add(new Household(parent));
+                continue;
+            }
+
+            List<Household> block = blocks.computeIfAbsent(addressKey, key -> new ArrayList<>(1));
+
+            Household target = null;
+            for (Household household : block)
+            {
+                if (household.accepts(parent))
+                {
+                    target = household;
+                    break;
+                }
+            }
+
+            if (target == null)
+            {
+                target = new Household(parent);
+                block.add(target);
+                households.add(target);
+            }
+            else
+            {
+                target.add(parent);
+            }
+        }
+
+        List<Parent> result = new ArrayList<>(households.size());
+        for (Household household : households)
+        {
+            result.add(household.toParent());
+        }
+        return result;
+    }
+
+    /**
+     * Kľúč osoby - normalizované časti mena v abecednom poradí ("Novák Ján" = "Ján Novák").
+     */
+    static String createPersonKey(Parent parent)
+    {
+        String[] parts = TextNormalizer.toKey(parent.getFullName()).split(" ");
+        Arrays.sort(parts);
+        return String.join(" ", parts);
+    }
+
+    /**
+     * Základ priezviska bez ženskej prípony a koncovky ("Nováková" → "novak", "Krásna" → "krasn").
+     */
+    static String surnameStem(String lastName)
+    {
+        String stem = TextNormalizer.toKey(lastName);
+        if (stem.length() > 5 && stem.endsWith("ova"))
+        {
+            return stem.substring(0, stem.length() - 3);
+        }
+        if (stem.length() > 3 && (stem.endsWith("a") || stem.endsWith("y") || stem.endsWith("i")))
+        {
+            return stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Jedna domácnosť - príjemcovia na spoločnej adrese s rovnakým priezviskom.
+     */
+    private static class Household
+    {
+        private final Parent first;
+        private final String familyStem;
+        private final Set<String> personKeys = new HashSet<>(4);
+        private final List<Parent> members = new ArrayList<>(2);
+
+        Household(Parent parent)
+        {
+            this.first = parent;
+            this.familyStem = surnameStem(parent.getLastName());
+            personKeys.add(createPersonKey(parent));
+            members.add(parent);
+        }
+
+        /**
+         * Rodič patrí do domácnosti, ak je to tá istá osoba alebo má rovnaký základ priezviska.
+         */
+        boolean accepts(Parent parent)
+        {
+            if (personKeys.contains(createPersonKey(parent)))
+            {
+                return true;
+            }
+            return !familyStem.isEmpty() && familyStem.equals(surnameStem(parent.getLastName()));
+        }
+
+        void add(Parent parent)
+        {
+            // Duplicitný záznam tej istej osoby sa nepridáva
+            if (personKeys.add(createPersonKey(parent)))
+            {
+                members.add(parent);
+            }
+        }
+
+        Parent toParent()
+        {
+            if (members.size() == 1)
+            {
+                return first;
+            }
+            return new Parent(createMergedName(), first.getFullAddress());
+        }
+
+        /**
+         * Spojí krstné mená a priezvisko posledného člena ("Ján a Mária Nováková").
+         */
+        private String createMergedName()
+        {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < members.size(); i++)
+            {
+                if (i > 0)
+                {
+                    sb.append(i == members.size() - 1 ? " a " : ", ");
+                }
+                sb.append(members.get(i).getFirstName().trim());
+            }
+
+            String lastName = members.get(members.size() - 1).getLastName().trim();
+            if (!lastName.isEmpty())
+            {
+                sb.append(' ').append(lastName);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package sk.bakaj.adreskobox.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.model.FormatEvaluation;
+import sk.bakaj.adreskobox.model.FormatRecommendation;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Porovnanie formátov štítkov voči skupine príjemcov a odporúčanie formátu.
+ *
+ * Štítok každého príjemcu sa zmeria iba raz s pôvodnou a raz so skrátenou adresou
+ * (šírky v jednotkách písma nezávisia od formátu), jednotlivé formáty sa potom paralelne
+ * vyhodnotia iba zalomením už zmeraných riadkov. Odporúča sa formát s najmenším počtom
+ * hárkov, na ktorý sa po skrátení adries zmestia všetky štítky.
+ */
+public class LabelFormatRecommender
+{
+    private static final Logger logger = LogManager.getLogger(LabelFormatRecommender.class);
+
+    // Poradie formátov: najprv tie, kde sa zmestí všetko, potom podľa hárkov a nevyhovujúcich štítkov
+    private static final Comparator<FormatEvaluation> RANKING =
+            Comparator.comparing((FormatEvaluation evaluation) -> !evaluation.isAllFitting())
+                    .thenComparingInt(FormatEvaluation::getSheetCount)
+                    .thenComparingInt(FormatEvaluation::getNotFittingAbbreviated)
+                    .thenComparingInt(FormatEvaluation::getNotFittingOriginal);
+
+    private final PDFService pdfService;
+    private final AbbreviationService abbreviationService;
+
+    /**
+     * @param pdfService služba pre meranie a kontrolu štítkov
+     * @param abbreviationService služba so skratkami adries
+     */
+    public LabelFormatRecommender(PDFService pdfService, AbbreviationService abbreviationService)
+    {
+        this.pdfService = pdfService;
+        this.abbreviationService = abbreviationService;
+    }
+
+    /**
+     * Vyhodnotí formáty voči príjemcom a zoradí ich od najvhodnejšieho.
+     *
+     * @param parents príjemcovia (jeden štítok na príjemcu)
+     * @param formats preddefinované a vlastné formáty
+     * @param options nastavenia výstupu PDF (písmo, automatická veľkosť písma)
+     * @return vyhodnotenia formátov s odporúčaným formátom
+     */
+    public FormatRecommendation recommend(List<Parent> parents, List<LabelFormat> formats, PdfOutputOptions options)
+    {
+        long start = System.nanoTime();
+        LabelLayoutEngine engine = pdfService.getLayoutEngine(options);
+        int count = parents.size();
+
+        // Skratka nezávisí od formátu - počíta sa raz pre každú rôznu adresu
+        Map<String, String> abbreviated = new ConcurrentHashMap<>();
+        LabelLayoutEngine.MeasuredLines[] original = new LabelLayoutEngine.MeasuredLines[count];
+        LabelLayoutEngine.MeasuredLines[] shortened = new LabelLayoutEngine.MeasuredLines[count];
+        IntStream.range(0, count).parallel().forEach(i ->
+        {
+            Parent parent = parents.get(i);
+            String address = parent.getFullAddress();
+            String abbreviatedAddress = address == null ? null : abbreviated.computeIfAbsent(address, a ->
+                    abbreviationService.getBestAbbreviation(a, Integer.MAX_VALUE, pdfService));
+
+            original[i] = engine.measure(PDFService.getPrintedLines(parent.getLabelLines()));
+            shortened[i] = address == null || address.equals(abbreviatedAddress)
+                    ? original[i]
+                    : engine.measure(PDFService.getPrintedLines(
+                            new Parent(parent.getFullName(), abbreviatedAddress).getLabelLines()));
+        });
+
+        List<FormatEvaluation> evaluations = formats.parallelStream()
+                .map(format -> evaluate(format, original, shortened, engine, options))
+                .collect(Collectors.toCollection(ArrayList::new));
+        evaluations.sort(RANKING);
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        FormatRecommendation recommendation = new FormatRecommendation(evaluations, durationMillis);
+        logger.info("Porovnanie formátov: {} formátov, {} štítkov, {} ms, odporúčaný: {}",
+                formats.size(), count, durationMillis,
+                recommendation.getRecommended() != null ? recommendation.getRecommended().getFormat().getName() : "žiadny");
+        return recommendation;
+    }
+
+    private FormatEvaluation evaluate(LabelFormat format, LabelLayoutEngine.MeasuredLines[] original,
+                                      LabelLayoutEngine.MeasuredLines[] shortened, LabelLayoutEngine engine,
+                                      PdfOutputOptions options)
+    {
+        int notFittingOriginal = 0;
+        int notFittingAbbreviated = 0;
+        for (int i = 0; i < original.length; i++)
+        {
+            boolean fitsOriginal = pdfService.checkIfLabelFits(original[i], format, engine, options);
+            // Nezmenenú adresu netreba kontrolovať znova
+            boolean fitsAbbreviated = shortened[i] == original[i]
+                    ? fitsOriginal
+                    : pdfService.checkIfLabelFits(shortened[i], format, engine, options);
+            if (!fitsOriginal)
+            {
+                notFittingOriginal++;
+            }
+            if (!fitsAbbreviated)
+            {
+                notFittingAbbreviated++;
+            }
+        }
+        return new FormatEvaluation(format, original.length, notFittingOriginal, notFittingAbbreviated);
+    }
+}
@@ -0,0 +1,241 @@
+package sk.bakaj.adreskobox.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zalamovanie riadkov štítka podľa šírky.
+ *
+ * Riadok, ktorý je širší ako plocha štítka, sa rozdelí za čiarkou alebo na medzere medzi
+ * slovami na viac riadkov. Šírky znakov sa zmerajú raz ({@link #measure(String[])}) ako
+ * kumulatívne súčty, šírka ľubovoľného úseku je potom rozdiel dvoch čísel - zalomenie pri
+ * inej šírke (napr. pri hľadaní veľkosti písma) už text znova nemeria.
+ *
+ * Šírky sú v jednotkách 1/1000 veľkosti písma, takže jedno meranie platí pre všetky
+ * veľkosti písma. Trieda nemá stav, môže ju používať viac vlákien.
+ */
+public class LabelLayoutEngine
+{
+    private final GlyphWidthTable widthTable;
+
+    public LabelLayoutEngine(GlyphWidthTable widthTable)
+    {
+        this.widthTable = widthTable;
+    }
+
+    /**
+     * Zmeria riadky štítka.
+     *
+     * @param lines vytlačené riadky štítka
+     * @return riadky s kumulatívnymi šírkami znakov
+     */
+    public MeasuredLines measure(String[] lines)
+    {
+        int[][] prefixWidths = new int[lines.length][];
+        for (int i = 0; i < lines.length; i++)
+        {
+            String line = lines[i];
+            int[] prefix = new int[line.length() + 1];
+            for (int c = 0; c < line.length(); c++)
+            {
+                prefix[c + 1] = prefix[c] + widthTable.getWidth(line.charAt(c));
+            }
+            prefixWidths[i] = prefix;
+        }
+        return new MeasuredLines(lines, prefixWidths);
+    }
+
+    /**
+     * Spočíta riadky po zalomení bez vytvárania reťazcov.
+     *
+     * @param maxUnits šírka plochy v jednotkách 1/1000 veľkosti písma
+     * @param limit počet riadkov, nad ktorý sa už ďalej nepočíta
+     * @return počet riadkov (najviac limit + 1), alebo {@link Integer#MAX_VALUE}, ak sa niektoré
+     *         slovo nezmestí ani na samostatný riadok
+     */
+    public int countLines(MeasuredLines measured, float maxUnits, int limit)
+    {
+        Segment segment = new Segment();
+        int count = 0;
+        for (int i = 0; i < measured.lines.length; i++)
+        {
+            String line = measured.lines[i];
+            int start = 0;
+            do
+            {
+                nextSegment(line, measured.prefixWidths[i], start, maxUnits, segment);
+                if (segment.overflow)
+                {
+                    return Integer.MAX_VALUE;
+                }
+                if (++count > limit)
+                {
+                    return count;
+                }
+                start = segment.next;
+            }
+            while (start < line.length());
+        }
+        return count;
+    }
+
+    /**
+     * Spočíta všetky riadky po zalomení (bez limitu) a pre každý pôvodný riadok zistí, o koľko
+     * je najširšie slovo, ktoré sa nezmestí ani na samostatný riadok, širšie ako plocha.
+     * Riadky sa počítajú rovnako ako pri {@link #wrap(MeasuredLines, float)} - slovo širšie
+     * ako plocha zostane celé na vlastnom riadku.
+     *
+     * @param maxUnits šírka plochy v jednotkách 1/1000 veľkosti písma
+     * @param wordOverflows výstup s dĺžkou počtu pôvodných riadkov - presah v jednotkách 1/1000
+     *                      veľkosti písma, 0 pre riadok, ktorý sa dá zalomiť do šírky
+     * @return počet riadkov po zalomení
+     */
+    public int measureOverflow(MeasuredLines measured, float maxUnits, float[] wordOverflows)
+    {
+        Segment segment = new Segment();
+        int count = 0;
+        for (int i = 0; i < measured.lines.length; i++)
+        {
+            String line = measured.lines[i];
+            int[] prefix = measured.prefixWidths[i];
+            float overflow = 0f;
+            int start = 0;
+            do
+            {
+                nextSegment(line, prefix, start, maxUnits, segment);
+                if (segment.overflow)
+                {
+                    overflow = Math.max(overflow, prefix[segment.end] - prefix[start] - maxUnits);
+                }
+                count++;
+                start = segment.next;
+            }
+            while (start < line.length());
+            wordOverflows[i] = overflow;
+        }
+        return count;
+    }
+
+    /**
+     * Zalomí riadky na zadanú šírku. Slovo širšie ako plocha zostane celé na vlastnom riadku.
+     *
+     * @param maxUnits šírka plochy v jednotkách 1/1000 veľkosti písma
+     * @return zalomené riadky
+     */
+    public List<String> wrap(MeasuredLines measured, float maxUnits)
+    {
+        Segment segment = new Segment();
+        List<String> wrapped = new ArrayList<>(measured.lines.length + 2);
+        for (int i = 0; i < measured.lines.length; i++)
+        {
+            String line = measured.lines[i];
+            int start = 0;
+            do
+            {
+                nextSegment(line, measured.prefixWidths[i], start, maxUnits, segment);
+                wrapped.add(line.substring(start, segment.end));
+                start = segment.next;
+            }
+            while (start < line.length());
+        }
+        return wrapped;
+    }
+
+    /**
+     * Nájde najdlhší úsek od pozície start, ktorý sa zmestí do šírky a končí za čiarkou,
+     * pred medzerou alebo na konci riadku. Medzery na začiatku ďalšieho úseku sa preskočia.
+     */
+    private static void nextSegment(String line, int[] prefix, int start, float maxUnits, Segment segment)
+    {
+        int length = line.length();
+        segment.overflow = false;
+        if (prefix[length] - prefix[start] <= maxUnits)
+        {
+            segment.end = length;
+            segment.next = length;
+            return;
+        }
+
+        int end = -1;
+        for (int i = start; i < length; i++)
+        {
+            char c = line.charAt(i);
+            int candidate = c == ',' ? i + 1 : c == ' ' ? i : -1;
+            if (candidate > start)
+            {
+                if (prefix[candidate] - prefix[start] > maxUnits)
+                {
+                    if (end < 0)
+                    {
+                        // Prvé slovo sa nezmestí - zostane celé a štítok pretečie
+                        end = candidate;
+                        segment.overflow = true;
+                    }
+                    break;
+                }
+                end = candidate;
+            }
+        }
+        if (end < 0)
+        {
+            // Zvyšok riadku je jedno slovo širšie ako plocha
+            end = length;
+            segment.overflow = true;
+        }
+
+        int next = end;
+        while (next < length && line.charAt(next) == ' ')
+        {
+            next++;
+        }
+        segment.end = end;
+        segment.next = next;
+    }
+
+    /**
+     * Zmerané riadky štítka.
+     */
+    public static final class MeasuredLines
+    {
+        private final String[] lines;
+        private final int[][] prefixWidths;
+
+        private MeasuredLines(String[] lines, int[][] prefixWidths)
+        {
+            this.lines = lines;
+            this.prefixWidths = prefixWidths;
+        }
+
+        /** @return počet pôvodných riadkov */
+        public int getLineCount()
+        {
+            return lines.length;
+        }
+
+        /** @return šírka pôvodného riadku v jednotkách 1/1000 veľkosti písma */
+        public int getLineWidth(int line)
+        {
+            int[] prefix = prefixWidths[line];
+            return prefix[prefix.length - 1];
+        }
+
+        /** @return šírka najširšieho pôvodného riadku v jednotkách 1/1000 veľkosti písma */
+        public int getMaxWidth()
+        {
+            int max = 0;
+            for (int[] prefix : prefixWidths)
+            {
+                max = Math.max(max, prefix[prefix.length - 1]);
+            }
+            return max;
+        }
+    }
+
+    /** Hranice jedného úseku riadku pri zalamovaní */
+    private static final class Segment
+    {
+        int end;
+        int next;
+        boolean overflow;
+    }
+}
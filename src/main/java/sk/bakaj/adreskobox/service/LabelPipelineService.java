@@ -0,0 +1,290 @@
+package sk.bakaj.adreskobox.service;
+
+import com.itextpdf.text.DocumentException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.jfr.AbbreviationPassEvent;
+import sk.bakaj.adreskobox.jfr.FitCheckRecorder;
+import sk.bakaj.adreskobox.model.FitCheckReport;
+import sk.bakaj.adreskobox.model.FormatRecommendation;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.LabelJob;
+import sk.bakaj.adreskobox.model.LabelJobResult;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+import sk.bakaj.adreskobox.model.PdfSizeReport;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Celý postup generovania bez grafického rozhrania:
+ * import → výber všetkých rodičov → zlúčenie domácností → skrátenie adries → kontrola rozmerov → PDF a podacie hárky.
+ *
+ * Kroky zodpovedajú záložkám sprievodcu, ale nepoužívajú žiadne triedy JavaFX,
+ * takže sa dajú spustiť z príkazového riadku aj na serveri bez displeja.
+ * Služby sa po načítaní iba čítajú, preto jednu inštanciu môže súčasne používať viac vlákien.
+ */
+public class LabelPipelineService
+{
+    private static final Logger logger = LogManager.getLogger(LabelPipelineService.class);
+
+    private final FileService fileService = new FileService();
+    private final AbbreviationService abbreviationService = new AbbreviationService();
+    private final PDFService pdfService = new PDFService();
+    private final HouseholdDeduplicationService deduplicationService = new HouseholdDeduplicationService();
+    private final ExcelService excelService = new ExcelService();
+    private final LabelFormatRecommender formatRecommender = new LabelFormatRecommender(pdfService, abbreviationService);
+    private File createdTemplate;
+
+    /**
+     * Spracuje jedno zadanie.
+     *
+     * @param job zadanie
+     * @return výsledok s vytvorenými súbormi
+     * @throws IOException ak sa nepodarí načítať vstup alebo zapísať výstup
+     */
+    public LabelJobResult run(LabelJob job) throws IOException
+    {
+        long start = System.nanoTime();
+        File inputFile = job.getInputFile();
+        LabelFormat format = job.getLabelFormat();
+        if (inputFile == null || !inputFile.isFile())
+        {
+            throw new IOException("Vstupný súbor neexistuje: " + inputFile);
+        }
+        if (format == null)
+        {
+            throw new IllegalArgumentException("Formát štítkov nie je zadaný");
+        }
+
+        LabelJobResult result = new LabelJobResult(inputFile);
+
+        // Import a výber všetkých rodičov, skrátenie adries a kontrola rozmerov
+        List<Parent> processed = prepareParents(readParents(inputFile, result), job, result);
+        if (processed.isEmpty())
+        {
+            throw new IOException("Vstupný súbor neobsahuje žiadnych rodičov s adresou: " + inputFile.getName());
+        }
+
+        File outputDirectory = job.getOutputDirectory() != null
+                ? job.getOutputDirectory()
+                : inputFile.getAbsoluteFile().getParentFile();
+        if (!outputDirectory.exists() && !outputDirectory.mkdirs())
+        {
+            throw new IOException("Nepodarilo sa vytvoriť výstupný adresár: " + outputDirectory);
+        }
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        if (job.isGenerateLabels())
+        {
+            File labelsFile = new File(outputDirectory,
+                    "Stitky_" + getBaseName(inputFile) + "_" + timestamp + ".pdf");
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(labelsFile)))
+            {
+                result.setLabelsSize(writeLabels(processed, format, outputStream, job.getPdfOutputOptions()));
+            }
+            result.setLabelsFile(labelsFile);
+        }
+
+        if (job.isGenerateSubmissionSheets())
+        {
+            result.getSubmissionSheets().addAll(writeSubmissionSheets(processed, job, outputDirectory));
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Načíta súbor a vyberie všetkých rodičov zo všetkých riadkov v poradí ako tabuľka rodičov.
+     *
+     * @param inputFile CSV alebo Excel súbor
+     * @param result výsledok, do ktorého sa zapíše počet riadkov
+     * @return zoznam rodičov
+     * @throws IOException ak sa súbor nedá prečítať
+     */
+    public List<Parent> readParents(File inputFile, LabelJobResult result) throws IOException
+    {
+        ImportedRecordStore store = fileService.readRecords(inputFile);
+        result.setRecordCount(store.size());
+
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.LOAD_DATA);
+        sample.addRows(store.size());
+        List<Parent> parents = new ArrayList<>(store.size() * ImportedRecordStore.PARENT_SLOTS);
+        for (int row = 0; row < store.size(); row++)
+        {
+            for (int slot = 0; slot < ImportedRecordStore.PARENT_SLOTS; slot++)
+            {
+                if (store.hasParent(row, slot))
+                {
+                    parents.add(store.toParent(row, slot));
+                }
+            }
+        }
+        sample.stop();
+        return parents;
+    }
+
+    /**
+     * Zlúči domácnosti (ak to zadanie vyžaduje), skráti adresy a skontroluje rozmery štítkov.
+     *
+     * @param parents načítaní rodičia
+     * @param job zadanie s formátom štítkov
+     * @param result výsledok, do ktorého sa zapíšu počty
+     * @return rodičia pripravení na tlač
+     */
+    public List<Parent> prepareParents(List<Parent> parents, LabelJob job, LabelJobResult result)
+    {
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.PROCESS_ADDRESSES);
+        try
+        {
+            List<Parent> selected = job.isMergeHouseholds() ? deduplicationService.mergeHouseholds(parents) : parents;
+            List<Parent> processed = abbreviate(selected, job.getLabelFormat(), job.getPdfOutputOptions(), result);
+            result.setParentCount(processed.size());
+            sample.addRows(parents.size());
+            return processed;
+        }
+        catch (RuntimeException e)
+        {
+            sample.fail();
+            throw e;
+        }
+        finally
+        {
+            sample.stop();
+        }
+    }
+
+    /**
+     * Porovná formáty štítkov voči rodičom zo zadania (po zlúčení domácností, ak ho zadanie
+     * vyžaduje) a odporučí formát s najmenším počtom hárkov.
+     *
+     * @param parents načítaní rodičia
+     * @param job zadanie s nastaveniami výstupu PDF
+     * @param formats porovnávané formáty
+     */
+    public FormatRecommendation recommendFormat(List<Parent> parents, LabelJob job, List<LabelFormat> formats)
+    {
+        List<Parent> selected = job.isMergeHouseholds() ? deduplicationService.mergeHouseholds(parents) : parents;
+        return formatRecommender.recommend(selected, formats, job.getPdfOutputOptions());
+    }
+
+    /**
+     * Vygeneruje PDF so štítkami do výstupného prúdu (prúd nezatvára).
+     */
+    public PdfSizeReport writeLabels(List<Parent> parents, LabelFormat format, OutputStream outputStream,
+                                     PdfOutputOptions options) throws IOException
+    {
+        try
+        {
+            return pdfService.generateLabels(parents, format, outputStream, options);
+        }
+        catch (DocumentException e)
+        {
+            throw new IOException("Chyba pri generovaní PDF: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Vytvorí podacie hárky do zadaného adresára. Ak šablóna zo zadania neexistuje, vytvorí sa nová.
+     */
+    public List<File> writeSubmissionSheets(List<Parent> parents, LabelJob job, File outputDirectory) throws IOException
+    {
+        File templateFile = job.getTemplateFile();
+        if (templateFile == null || !templateFile.exists())
+        {
+            templateFile = getCreatedTemplate();
+        }
+
+        return excelService.createSubmissionSheets(parents, job.getSenderName(), job.getSenderStreet(),
+                job.getSenderCity(), templateFile.getAbsolutePath(), outputDirectory);
+    }
+
+    /**
+     * Vytvorí náhradnú šablónu podacieho hárku iba raz, aj keď ju naraz potrebuje viac vlákien.
+     */
+    private synchronized File getCreatedTemplate() throws IOException
+    {
+        if (createdTemplate == null || !createdTemplate.exists())
+        {
+            logger.warn("Šablóna podacieho hárku nebola nájdená, vytvára sa nová");
+            createdTemplate = excelService.createNewSubmissionTemplate();
+        }
+        return createdTemplate;
+    }
+
+    /**
+     * Nahradí adresy najlepšou skratkou rovnako ako záložka kontroly adries
+     * a zaznamená príjemcov, ktorých štítok sa ani tak nezmestí.
+     * Skratka sa počíta raz pre každú rôznu adresu.
+     */
+    private List<Parent> abbreviate(List<Parent> parents, LabelFormat format, PdfOutputOptions pdfOptions,
+                                    LabelJobResult result)
+    {
+        Map<String, String> abbreviated = new HashMap<>();
+        List<Parent> processed = new ArrayList<>(parents.size());
+        int changed = 0;
+        AbbreviationPassEvent event = new AbbreviationPassEvent();
+        event.begin();
+        FitCheckRecorder fitChecks = new FitCheckRecorder(format.getName());
+
+        for (Parent parent : parents)
+        {
+            String originalAddress = parent.getFullAddress();
+            String abbreviatedAddress = abbreviated.computeIfAbsent(originalAddress, address ->
+                    abbreviationService.getBestAbbreviation(address, format.getMaxAddressLength(), pdfService));
+            if (!originalAddress.equals(abbreviatedAddress))
+            {
+                changed++;
+            }
+
+            processed.add(new Parent(parent.getFullName(), abbreviatedAddress));
+        }
+
+        // Rozmery všetkých štítkov naraz
+        long checkStart = fitChecks.begin();
+        FitCheckReport report = pdfService.checkLabelsFit(processed, format, pdfOptions);
+        fitChecks.recordBulk(report.getLabelCount(), report.getNotFittingCount(), checkStart);
+        BitSet notFitting = report.getNotFitting();
+        for (int i = notFitting.nextSetBit(0); i >= 0; i = notFitting.nextSetBit(i + 1))
+        {
+            result.getNotFitting().add(parents.get(i).getFullName());
+        }
+        if (report.getWorstIndex() >= 0)
+        {
+            result.setWorstOffender(parents.get(report.getWorstIndex()).getFullName(), report.getWorstOverflow());
+        }
+
+        if (event.shouldCommit())
+        {
+            event.format = format.getName();
+            event.addresses = parents.size();
+            event.computed = abbreviated.size();
+            event.changed = changed;
+            event.maxLength = format.getMaxAddressLength();
+            event.commit();
+        }
+
+        result.setAbbreviatedCount(changed);
+        return processed;
+    }
+
+    private static String getBaseName(File file)
+    {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
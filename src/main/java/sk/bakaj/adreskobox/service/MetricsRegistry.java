@@ -0,0 +1,316 @@
+package sk.bakaj.adreskobox.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merania jednotlivých fáz spracovania - počet volaní, trvanie, počet riadkov,
+ * prečítané/zapísané bajty a počet chýb.
+ *
+ * Register je jeden pre celú aplikáciu (GUI aj príkazový riadok) a je bezpečný pre viac vlákien.
+ * Súhrn sa dá zobraziť v tabuľke alebo uložiť ako JSON a porovnávať medzi behmi.
+ * <pre>
+ * MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.READ_FILE);
+ * try { ... sample.addRows(n); } catch (IOException e) { sample.fail(); throw e; } finally { sample.stop(); }
+ * </pre>
+ */
+public class MetricsRegistry
+{
+    /** Fázy spracovania v poradí, v akom prebiehajú */
+    public static final String DETECT_FILE_DELIMITER = "detectFileDelimiter";
+    public static final String READ_FILE = "readFile";
+    public static final String LOAD_DATA = "loadData";
+    public static final String PROCESS_ADDRESSES = "processAddresses";
+    public static final String GENERATE_LABELS = "generateLabels";
+    public static final String CREATE_SUBMISSION_SHEETS = "createSubmissionSheets";
+
+    public static final List<String> STAGES = List.of(DETECT_FILE_DELIMITER, READ_FILE, LOAD_DATA,
+            PROCESS_ADDRESSES, GENERATE_LABELS, CREATE_SUBMISSION_SHEETS);
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+    private volatile LocalDateTime startedAt = LocalDateTime.now();
+
+    public static MetricsRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Začne meranie jedného volania fázy.
+     *
+     * @param stage názov fázy (napr. {@link #READ_FILE})
+     * @return prebiehajúce meranie, ktoré treba ukončiť volaním {@link Sample#stop()}
+     */
+    public Sample start(String stage)
+    {
+        return new Sample(stage);
+    }
+
+    /**
+     * Zaznamená jedno dokončené volanie fázy.
+     *
+     * @param stage názov fázy
+     * @param nanos trvanie v nanosekundách
+     * @param rows počet spracovaných riadkov
+     * @param bytes počet prečítaných alebo zapísaných bajtov
+     * @param failed true, ak volanie skončilo chybou
+     */
+    public void record(String stage, long nanos, long rows, long bytes, boolean failed)
+    {
+        stages.computeIfAbsent(stage, StageStats::new).add(nanos, rows, bytes, failed);
+    }
+
+    /**
+     * @return kópie meraní všetkých fáz - známe fázy v poradí spracovania, ostatné za nimi
+     */
+    public List<StageStats> snapshot()
+    {
+        List<StageStats> result = new ArrayList<>();
+        for (String stage : STAGES)
+        {
+            StageStats stats = stages.get(stage);
+            result.add(stats != null ? stats.copy() : new StageStats(stage));
+        }
+        for (StageStats stats : stages.values())
+        {
+            if (!STAGES.contains(stats.getStage()))
+            {
+                result.add(stats.copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vymaže všetky merania.
+     */
+    public void reset()
+    {
+        stages.clear();
+        startedAt = LocalDateTime.now();
+    }
+
+    /**
+     * @return merania vo formáte JSON
+     */
+    public String toJson()
+    {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("startedAt", startedAt.toString());
+        root.put("createdAt", LocalDateTime.now().toString());
+        root.put("javaVersion", System.getProperty("java.version"));
+        root.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        root.put("maxMemoryMB", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        List<Map<String, Object>> stageList = new ArrayList<>();
+        for (StageStats stats : snapshot())
+        {
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("stage", stats.getStage());
+            stage.put("calls", stats.getCalls());
+            stage.put("errors", stats.getErrors());
+            stage.put("totalMs", stats.getTotalMillis());
+            stage.put("avgMs", stats.getAverageMillis());
+            stage.put("minMs", stats.getMinMillis());
+            stage.put("maxMs", stats.getMaxMillis());
+            stage.put("lastMs", stats.getLastMillis());
+            stage.put("rows", stats.getRows());
+            stage.put("bytes", stats.getBytes());
+            stage.put("rowsPerSecond", stats.getRowsPerSecond());
+            stageList.add(stage);
+        }
+        root.put("stages", stageList);
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        return gson.toJson(root);
+    }
+
+    /**
+     * Uloží merania do súboru "metriky_&lt;čas&gt;.json" v zadanom adresári.
+     *
+     * @param directory cieľový adresár
+     * @return vytvorený súbor
+     * @throws IOException pri chybe zápisu
+     */
+    public File writeJson(File directory) throws IOException
+    {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File file = new File(directory, "metriky_" + timestamp + ".json");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+        {
+            writer.write(toJson());
+        }
+        return file;
+    }
+
+    /**
+     * Jedno prebiehajúce meranie. Nie je určené na zdieľanie medzi vláknami.
+     */
+    public class Sample
+    {
+        private final String stage;
+        private final long startNanos = System.nanoTime();
+        private long rows;
+        private long bytes;
+        private boolean failed;
+        private boolean stopped;
+
+        private Sample(String stage)
+        {
+            this.stage = stage;
+        }
+
+        public void addRows(long count)
+        {
+            rows += count;
+        }
+
+        public void addBytes(long count)
+        {
+            bytes += count;
+        }
+
+        /** Označí volanie ako neúspešné */
+        public void fail()
+        {
+            failed = true;
+        }
+
+        /** Ukončí meranie a zapíše ho do registra; ďalšie volania nemajú účinok */
+        public void stop()
+        {
+            if (!stopped)
+            {
+                stopped = true;
+                record(stage, System.nanoTime() - startNanos, rows, bytes, failed);
+            }
+        }
+    }
+
+    /**
+     * Súhrnné merania jednej fázy.
+     */
+    public static class StageStats
+    {
+        private final String stage;
+        private long calls;
+        private long errors;
+        private long totalNanos;
+        private long minNanos;
+        private long maxNanos;
+        private long lastNanos;
+        private long rows;
+        private long bytes;
+
+        StageStats(String stage)
+        {
+            this.stage = stage;
+        }
+
+        private synchronized void add(long nanos, long rowCount, long byteCount, boolean failed)
+        {
+            minNanos = calls == 0 ? nanos : Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+            calls++;
+            totalNanos += nanos;
+            lastNanos = nanos;
+            rows += rowCount;
+            bytes += byteCount;
+            if (failed)
+            {
+                errors++;
+            }
+        }
+
+        private synchronized StageStats copy()
+        {
+            StageStats copy = new StageStats(stage);
+            copy.calls = calls;
+            copy.errors = errors;
+            copy.totalNanos = totalNanos;
+            copy.minNanos = minNanos;
+            copy.maxNanos = maxNanos;
+            copy.lastNanos = lastNanos;
+            copy.rows = rows;
+            copy.bytes = bytes;
+            return copy;
+        }
+
+        public String getStage()
+        {
+            return stage;
+        }
+
+        public long getCalls()
+        {
+            return calls;
+        }
+
+        public long getErrors()
+        {
+            return errors;
+        }
+
+        public double getTotalMillis()
+        {
+            return toMillis(totalNanos);
+        }
+
+        public double getAverageMillis()
+        {
+            return calls == 0 ? 0 : toMillis(totalNanos / calls);
+        }
+
+        public double getMinMillis()
+        {
+            return toMillis(minNanos);
+        }
+
+        public double getMaxMillis()
+        {
+            return toMillis(maxNanos);
+        }
+
+        public double getLastMillis()
+        {
+            return toMillis(lastNanos);
+        }
+
+        public long getRows()
+        {
+            return rows;
+        }
+
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        /** @return priepustnosť v riadkoch za sekundu za všetky volania */
+        public long getRowsPerSecond()
+        {
+            return totalNanos == 0 ? 0 : Math.round(rows * 1_000_000_000.0 / totalNanos);
+        }
+
+        private static double toMillis(long nanos)
+        {
+            // Zaokrúhlené na tisíciny milisekundy
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
@@ -2,24 +2,79 @@ package sk.bakaj.adreskobox.service;
 
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.BaseFont;
-import com.itextpdf.text.pdf.ColumnText;
 import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfStream;
+import com.itextpdf.text.pdf.PdfTemplate;
 import com.itextpdf.text.pdf.PdfWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sk.bakaj.adreskobox.jfr.PdfPageEvent;
+import sk.bakaj.adreskobox.model.FitCheckReport;
 import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.LabelLayout;
+import sk.bakaj.adreskobox.model.LabelStaticContent;
 import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+import sk.bakaj.adreskobox.model.PdfSizeReport;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 public class PDFService
 {
     private static final float DEFAULT_FONT_SIZE = 10f;
     private static final float LINE_HEIGHT = 12f; // Výška riadku v bodoch
     private static final float POINTS_PER_MM = 2.834645669f; // Konverzia mm na body
+    private static final Logger logger = LogManager.getLogger(PDFService.class);
+    private static final Map<String, Optional<BaseFont>> TRUE_TYPE_FONT_CACHE = new ConcurrentHashMap<>();
+
+    // Pevný obsah štítka (spiatočná adresa, označenie, logo) v hornom páse štítka
+    private static final float LABEL_PADDING = 2f; // Okraj textu od hrany štítka
+    private static final float STATIC_FONT_SIZE = 6f;
+    private static final float STATIC_LINE_HEIGHT = 7f;
+    private static final float MARKING_FONT_SIZE = 8f;
+    private static final float MARKING_BOX_HEIGHT = 12f;
+    private static final float LOGO_HEIGHT = 20f;
+    private static final float STATIC_CONTENT_GAP = 2f; // Medzera medzi pásom a adresou príjemcu
+
+    // Automatická veľkosť písma - riadkovanie sa mení úmerne veľkosti písma
+    private static final float FONT_SIZE_STEP = 0.5f;
+    private static final float LEADING_RATIO = LINE_HEIGHT / DEFAULT_FONT_SIZE;
+
+    // Počet štítkov v jednej úlohe hromadnej kontroly
+    private static final int FIT_CHECK_CHUNK = 4096;
+
+    /**
+     * Písma TrueType pre optimalizovaný výstup v poradí preferencie. Arial a Liberation Sans
+     * majú rovnaké šírky znakov ako Helvetica, takže kontrola rozmerov štítkov platí aj pre ne.
+     */
+    private static final String[] TRUE_TYPE_FONTS = {
+            "C:/Windows/Fonts/arial.ttf",
+            "/Library/Fonts/Arial.ttf",
+            "/System/Library/Fonts/Supplemental/Arial.ttf",
+            "/usr/share/fonts/truetype/msttcorefonts/Arial.ttf",
+            "/usr/share/fonts/truetype/liberation/LiberationSans-Regular.ttf",
+            "/usr/share/fonts/liberation-sans/LiberationSans-Regular.ttf",
+            "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/dejavu-sans-fonts/DejaVuSans.ttf"
+    };
+
     private Font defaultFont;
     private BaseFont baseFont;
+    private GlyphWidthTable widthTable;
 
     public PDFService()
     {
@@ -41,22 +96,26 @@ public class PDFService
                 baseFont = null;
             }
         }
+        if (baseFont != null)
+        {
+            widthTable = GlyphWidthTable.forFont(baseFont);
+        }
     }
 
     /**
      * Presné meranie šírky textu v bodoch
      */
-    private float getTextWidth(String text)
+    public float getTextWidth(String text)
     {
         if (text == null || text.isEmpty())
         {
             return 0f;
         }
 
-        if (baseFont != null)
+        if (widthTable != null)
         {
-            // Presné meranie pomocí BaseFont
-            return baseFont.getWidthPoint(text, DEFAULT_FONT_SIZE);
+            // Presné meranie podľa predpočítaných šírok znakov písma
+            return widthTable.getWidthPoint(text, DEFAULT_FONT_SIZE);
         }
         else
         {
@@ -70,11 +129,162 @@ public class PDFService
      * Ak je rodičov viac ako sa zmestí na jednú stranu, vytvorí sa viac strán
      */
     public void generateLabels(List<Parent> parents, LabelFormat format, File outputFile) throws IOException, DocumentException
+    {
+        generateLabels(parents, format, outputFile, PdfOutputOptions.standard());
+    }
+
+    /**
+     * Generuje štítky do súboru so zadanými nastaveniami výstupu.
+     *
+     * @return veľkosť zapísaného súboru, prípadne porovnaná so štandardným výstupom
+     */
+    public PdfSizeReport generateLabels(List<Parent> parents, LabelFormat format, File outputFile,
+                                        PdfOutputOptions options) throws IOException, DocumentException
+    {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile)))
+        {
+            return generateLabels(parents, format, outputStream, options);
+        }
+    }
+
+    /**
+     * Generuje štítky priamo do výstupného prúdu (napr. odpoveď HTTP servera).
+     * Prúd sa po dokončení dokumentu nezatvára - zatvára ho volajúci.
+     */
+    public void generateLabels(List<Parent> parents, LabelFormat format, OutputStream outputStream) throws IOException, DocumentException
+    {
+        generateLabels(parents, format, outputStream, PdfOutputOptions.standard());
+    }
+
+    /**
+     * Generuje štítky do výstupného prúdu so zadanými nastaveniami výstupu (prúd nezatvára).
+     *
+     * Porovnávacie meranie štandardného výstupu sa do metrík generovania nezapočítava.
+     *
+     * @return veľkosť zapísaného výstupu, prípadne porovnaná so štandardným výstupom
+     */
+    public PdfSizeReport generateLabels(List<Parent> parents, LabelFormat format, OutputStream outputStream,
+                                        PdfOutputOptions options) throws IOException, DocumentException
+    {
+        PdfSizeReport report = new PdfSizeReport();
+        MetricsRegistry.Sample sample = MetricsRegistry.getInstance().start(MetricsRegistry.GENERATE_LABELS);
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        try
+        {
+            Font font = getDocumentFont(options);
+            report.setFontName(font.getBaseFont() != null ? font.getBaseFont().getPostscriptFontName() : "Helvetica");
+
+            writeLabelDocument(parents, format, countingStream, font, options);
+            sample.addRows(parents.size());
+        }
+        catch (RuntimeException e)
+        {
+            sample.fail();
+            throw e;
+        }
+        finally
+        {
+            report.setOutputBytes(countingStream.getCount());
+            sample.addBytes(countingStream.getCount());
+            sample.stop();
+        }
+
+        if (options.isOptimized() && options.isCompareWithStandard())
+        {
+            // Rovnaké rozloženie štítkov, iba bez optimalizácií výstupu
+            PdfOutputOptions standardOptions = options.copy();
+            standardOptions.setEmbedFontSubset(false);
+            standardOptions.setFullCompression(false);
+            CountingOutputStream standardStream = new CountingOutputStream(OutputStream.nullOutputStream());
+            writeLabelDocument(parents, format, standardStream, defaultFont, standardOptions);
+            report.setStandardBytes(standardStream.getCount());
+        }
+        return report;
+    }
+
+    /**
+     * Vráti písmo dokumentu - pri vložení podmnožiny písmo TrueType, inak Helvetica.
+     */
+    private Font getDocumentFont(PdfOutputOptions options)
+    {
+        if (!options.isEmbedFontSubset())
+        {
+            return defaultFont;
+        }
+
+        File fontFile = options.getFontFile();
+        BaseFont trueTypeFont = TRUE_TYPE_FONT_CACHE
+                .computeIfAbsent(fontFile != null ? fontFile.getAbsolutePath() : "",
+                        key -> Optional.ofNullable(loadTrueTypeFont(fontFile)))
+                .orElse(null);
+        return trueTypeFont != null ? new Font(trueTypeFont, DEFAULT_FONT_SIZE) : defaultFont;
+    }
+
+    /**
+     * Načíta písmo TrueType na vloženie ako podmnožinu iba s použitými znakmi. Kódovanie
+     * zostáva CP1250 ako pri Helvetica - text na strane zaberá jeden bajt na znak (Identity-H
+     * by zapisovalo dva) a pokrytie znakov sa nemení. Výsledok sa uchováva podľa zadaného
+     * súboru, vyhľadávanie a čítanie písma prebehne iba pri prvom použití.
+     *
+     * @param preferred písmo zo zadania alebo null
+     * @return písmo alebo null, ak sa žiadne nenašlo
+     */
+    private static BaseFont loadTrueTypeFont(File preferred)
+    {
+        List<File> candidates = new ArrayList<>();
+        if (preferred != null)
+        {
+            candidates.add(preferred);
+        }
+        for (String path : TRUE_TYPE_FONTS)
+        {
+            candidates.add(new File(path));
+        }
+
+        for (File candidate : candidates)
+        {
+            if (!candidate.isFile())
+            {
+                continue;
+            }
+            try
+            {
+                BaseFont font = BaseFont.createFont(candidate.getAbsolutePath(), BaseFont.CP1250, BaseFont.EMBEDDED);
+                font.setSubset(true);
+                return font;
+            }
+            catch (DocumentException | IOException e)
+            {
+                logger.warn("Písmo {} sa nedá vložiť: {}", candidate, e.getMessage());
+            }
+        }
+
+        logger.warn("Nenašlo sa písmo TrueType na vloženie, PDF použije Helvetica bez vloženia");
+        return null;
+    }
+
+    /**
+     * Pri plnej kompresii zapne PDF 1.5 s prúdmi objektov a odkazov a najvyššiu úroveň kompresie.
+     */
+    private static void configureCompression(PdfWriter writer, PdfOutputOptions options) throws DocumentException
+    {
+        if (options.isFullCompression())
+        {
+            writer.setPdfVersion(PdfWriter.VERSION_1_5);
+            writer.setFullCompression();
+            writer.setCompressionLevel(PdfStream.BEST_COMPRESSION);
+        }
+    }
+
+    private void writeLabelDocument(List<Parent> parents, LabelFormat format, OutputStream outputStream,
+                                    Font font, PdfOutputOptions options)
     {
         try
         {
             Document document = new Document(new Rectangle(595, 842)); // A4
-            PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(outputFile));
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            configureCompression(writer, options);
             document.open();
 
             float labelWidth = (float) format.getWidth() * POINTS_PER_MM;
@@ -86,9 +296,30 @@ public class PDFService
             // Získame priamy prístup k obsahu PDF
             PdfContentByte canvas = writer.getDirectContent();
 
+            // Rozloženie textu všetkých štítkov (zalomenie, veľkosť písma) sa vypočíta vopred
+            BaseFont documentFont = font.getCalculatedBaseFont(false);
+            List<LabelLayout> layouts = layoutLabels(parents, format,
+                    new LabelLayoutEngine(GlyphWidthTable.forFont(documentFont)), options);
+
+            // Pevný obsah sa vykreslí raz do šablóny, štítky na ňu iba odkazujú
+            float staticHeight = getStaticContentHeight(format);
+            PdfTemplate staticTemplate = staticHeight > 0
+                    ? createStaticTemplate(canvas, format.getStaticContent(), documentFont,
+                    labelWidth, labelHeight, staticHeight)
+                    : null;
+
+            PdfPageEvent pageEvent = null;
+            int pageNumber = 0;
+
             for (int parentIndex = 0; parentIndex < parents.size(); parentIndex++)
             {
-                Parent parent = parents.get(parentIndex);
+                if (pageEvent == null)
+                {
+                    pageEvent = new PdfPageEvent();
+                    pageEvent.page = ++pageNumber;
+                    pageEvent.begin();
+                }
+                pageEvent.labels++;
 
                 // Výpočet pozície štítka
                 float x = (float) (format.getLeftMargin() * POINTS_PER_MM +
@@ -98,53 +329,32 @@ public class PDFService
                 float y = (float) (842 - format.getTopMargin() * POINTS_PER_MM -
                         currentRow * (labelHeight + format.getVerticalGap() * POINTS_PER_MM) - labelHeight);
 
-
-                // Získanie riadkov štítka
-                String[] labelLines = parent.getLabelLines();
-
-                // Vytvorenie textu pre štítok
-                StringBuilder labelText = new StringBuilder();
-                int validLines = 0;
-
-                for (String line : labelLines)
+                if (staticTemplate != null)
                 {
-                    if (line != null && !line.trim().isEmpty())
-                    {
-                        if (validLines > 0)
-                        {
-                            labelText.append("\n");
-                        }
-                        labelText.append(line.trim());
-                        validLines++;
-                    }
+                    canvas.addTemplate(staticTemplate, x, y);
                 }
 
-                if (labelText.length() == 0)
+                // Plocha textu - malý okraj zo všetkých strán, zhora pod pásom pevného obsahu
+                float textLeft = x + LABEL_PADDING;
+                float textBottom = y + LABEL_PADDING;
+                float textTop = y + labelHeight - LABEL_PADDING - staticHeight;
+
+                // Vykreslenie zalomených riadkov; riadky pod spodným okrajom sa vynechajú
+                LabelLayout layout = layouts.get(parentIndex);
+                canvas.beginText();
+                canvas.setFontAndSize(documentFont, layout.getFontSize());
+                float baseline = textTop - layout.getLeading();
+                for (String line : layout.getLines())
                 {
-                    labelText.append("Prázdny štítok");
+                    if (baseline < textBottom - 0.01f)
+                    {
+                        break;
+                    }
+                    canvas.setTextMatrix(textLeft, baseline);
+                    canvas.showText(line);
+                    baseline -= layout.getLeading();
                 }
-
-                // Vytvorenie odstavca
-                Paragraph label = new Paragraph(labelText.toString(), defaultFont);
-                label.setAlignment(Element.ALIGN_LEFT);
-                label.setLeading(LINE_HEIGHT);
-
-                // OPRAVA: Použitie ColumnText s správnymi súradnicami
-                ColumnText ct = new ColumnText(canvas);
-
-                // Nastavenie obdĺžnika pre text - y súradnice opravené
-                float textAreaX1 = x + 2; // Malý okraj zleva
-                float textAreaY1 = y + 2; // Malý okraj zdola
-                float textAreaX2 = x + labelWidth - 2; // Malý okraj zprava
-                float textAreaY2 = y + labelHeight - 2; // Malý okraj zhora
-
-                ct.setSimpleColumn(textAreaX1, textAreaY1, textAreaX2, textAreaY2,
-                        LINE_HEIGHT, Element.ALIGN_LEFT);
-
-                ct.addElement(label);
-
-                // Vyrenderovanie textu
-                int result = ct.go();
+                canvas.endText();
 
                 // Presun na ďalší štítok
                 currentColumn++;
@@ -157,29 +367,277 @@ public class PDFService
                 {
                     currentRow = 0;
                     document.newPage();
+                    pageEvent.commit();
+                    pageEvent = null;
                 }
             }
 
+            if (pageEvent != null)
+            {
+                pageEvent.commit();
+            }
             document.close();
 
         }
-        catch (DocumentException | IOException e)
+        catch (DocumentException e)
         {
             throw new RuntimeException("Chyba pri generovaní PDF: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Riadky štítka tak, ako sa vytlačia - orezané, bez prázdnych riadkov.
+     */
+    static String[] getPrintedLines(String... labelLines)
+    {
+        String[] printed = new String[labelLines.length];
+        int validLines = 0;
+        for (String line : labelLines)
+        {
+            if (line != null && !line.trim().isEmpty())
+            {
+                printed[validLines++] = line.trim();
+            }
+        }
+
+        if (validLines == 0)
+        {
+            return new String[] {"Prázdny štítok"};
+        }
+        return validLines == printed.length ? printed : Arrays.copyOf(printed, validLines);
+    }
+
+    /**
+     * Rozloží text všetkých štítkov - zalomí dlhé riadky a pri automatickej veľkosti písma
+     * určí veľkosť každého štítka. Výsledok sa vykresľuje priamo, bez ďalšieho merania.
+     *
+     * @return rozloženia v poradí rodičov
+     */
+    public List<LabelLayout> layoutLabels(List<Parent> parents, LabelFormat format, PdfOutputOptions options)
+    {
+        return layoutLabels(parents, format, getLayoutEngine(options), options);
+    }
+
+    private List<LabelLayout> layoutLabels(List<Parent> parents, LabelFormat format, LabelLayoutEngine engine,
+                                           PdfOutputOptions options)
+    {
+        List<LabelLayout> layouts = new ArrayList<>(parents.size());
+        int wrapped = 0;
+        int notFitting = 0;
+        for (Parent parent : parents)
+        {
+            String[] lines = getPrintedLines(parent.getLabelLines());
+            LabelLayout layout = layoutLabel(lines, format, engine, options);
+            if (layout.getLines().size() > lines.length)
+            {
+                wrapped++;
+            }
+            if (!layout.isFits())
+            {
+                notFitting++;
+            }
+            layouts.add(layout);
+        }
+        logger.debug("Rozloženie štítkov: {} so zalomenými riadkami, {} sa nezmestí", wrapped, notFitting);
+        return layouts;
+    }
+
+    private LabelLayout layoutLabel(String[] lines, LabelFormat format, LabelLayoutEngine engine, PdfOutputOptions options)
+    {
+        LabelLayoutEngine.MeasuredLines measured = engine.measure(lines);
+        float fontSize = resolveFontSize(measured, format, engine, options);
+        boolean fits = fontSize > 0;
+        if (!fits)
+        {
+            fontSize = options.isAutoFitFontSize() ? options.getMinFontSize() : DEFAULT_FONT_SIZE;
+        }
+        List<String> wrapped = engine.wrap(measured, getTextAreaWidth(format) * 1000f / fontSize);
+        return new LabelLayout(wrapped, fontSize, fontSize * LEADING_RATIO, fits);
+    }
+
+    /**
+     * @return veľkosť písma, pri ktorej sa štítok zmestí, alebo -1
+     */
+    private float resolveFontSize(LabelLayoutEngine.MeasuredLines measured, LabelFormat format,
+                                  LabelLayoutEngine engine, PdfOutputOptions options)
+    {
+        if (options.isAutoFitFontSize())
+        {
+            return findFittingFontSize(measured, format, engine, options.getMinFontSize(), options.getMaxFontSize());
+        }
+        return fitsAtSize(measured, format, engine, DEFAULT_FONT_SIZE) ? DEFAULT_FONT_SIZE : -1f;
+    }
+
+    /**
+     * Binárnym vyhľadávaním nájde najväčšiu veľkosť písma (po krokoch 0,5 b), pri ktorej
+     * sa riadky po zalomení zmestia do plochy textu štítka. Šírky znakov sa zmerajú raz
+     * z tabuľky šírok, pri každej skúšanej veľkosti sa riadky iba znova zalomia.
+     *
+     * @param lines vytlačené riadky štítka
+     * @param table šírky znakov písma dokumentu
+     * @return veľkosť písma v bodoch alebo -1, ak sa riadky nezmestia ani pri najmenšej veľkosti
+     */
+    public float findFittingFontSize(String[] lines, LabelFormat format, GlyphWidthTable table, float minSize, float maxSize)
+    {
+        LabelLayoutEngine engine = new LabelLayoutEngine(table);
+        return findFittingFontSize(engine.measure(lines), format, engine, minSize, maxSize);
+    }
+
+    private float findFittingFontSize(LabelLayoutEngine.MeasuredLines measured, LabelFormat format,
+                                      LabelLayoutEngine engine, float minSize, float maxSize)
+    {
+        if (!fitsAtSize(measured, format, engine, minSize))
+        {
+            return -1f;
+        }
+
+        // Invariant: veľkosť s indexom low sa zmestí
+        int low = 0;
+        int high = (int) ((maxSize - minSize) / FONT_SIZE_STEP);
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (fitsAtSize(measured, format, engine, minSize + mid * FONT_SIZE_STEP))
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return minSize + low * FONT_SIZE_STEP;
+    }
+
+    /**
+     * Zmestia sa riadky po zalomení pri danej veľkosti písma do plochy textu štítka?
+     * Počet riadkov sa obmedzí výškou plochy a riadkovaním úmerným veľkosti písma.
+     */
+    private boolean fitsAtSize(LabelLayoutEngine.MeasuredLines measured, LabelFormat format,
+                               LabelLayoutEngine engine, float fontSize)
+    {
+        int maxLines = (int) (getTextAreaHeight(format) / (fontSize * LEADING_RATIO) + 1e-4f);
+        return engine.countLines(measured, getTextAreaWidth(format) * 1000f / fontSize, maxLines) <= maxLines;
+    }
+
+    /** @return šírka plochy textu štítka v bodoch */
+    private static float getTextAreaWidth(LabelFormat format)
+    {
+        return (float) format.getWidth() * POINTS_PER_MM - 2 * LABEL_PADDING;
+    }
+
+    /** @return výška plochy textu štítka pod pásom pevného obsahu v bodoch */
+    private float getTextAreaHeight(LabelFormat format)
+    {
+        return (float) format.getHeight() * POINTS_PER_MM - 2 * LABEL_PADDING - getStaticContentHeight(format);
+    }
+
+    /**
+     * Zalamovanie podľa písma dokumentu - Helvetica alebo vložené písmo TrueType.
+     */
+    public LabelLayoutEngine getLayoutEngine(PdfOutputOptions options)
+    {
+        return new LabelLayoutEngine(GlyphWidthTable.forFont(getDocumentFont(options).getCalculatedBaseFont(false)));
+    }
+
+    /**
+     * Výška pásu pevného obsahu v hornej časti štítka vrátane medzery pod ním.
+     *
+     * @return výška v bodoch alebo 0, ak formát nemá pevný obsah
+     */
+    public float getStaticContentHeight(LabelFormat format)
+    {
+        if (!format.hasStaticContent())
+        {
+            return 0f;
+        }
+
+        LabelStaticContent content = format.getStaticContent();
+        float height = content.getReturnAddressLines().size() * STATIC_LINE_HEIGHT;
+        if (!content.getMarking().isEmpty())
+        {
+            height = Math.max(height, MARKING_BOX_HEIGHT);
+        }
+        if (content.getLogoFile() != null)
+        {
+            height = Math.max(height, LOGO_HEIGHT);
+        }
+        return height + STATIC_CONTENT_GAP;
+    }
+
+    /**
+     * Vykreslí pevný obsah štítka do šablóny veľkosti štítka: logo vľavo hore, vedľa neho
+     * spiatočnú adresu a vpravo hore orámované označenie zásielky.
+     */
+    private PdfTemplate createStaticTemplate(PdfContentByte canvas, LabelStaticContent content, BaseFont font,
+                                             float labelWidth, float labelHeight, float staticHeight) throws DocumentException
+    {
+        PdfTemplate template = canvas.createTemplate(labelWidth, labelHeight);
+        float top = labelHeight - LABEL_PADDING;
+        float left = LABEL_PADDING;
+        float right = labelWidth - LABEL_PADDING;
+
+        if (content.getLogoFile() != null)
+        {
+            try
+            {
+                Image logo = Image.getInstance(content.getLogoFile().getAbsolutePath());
+                logo.scaleToFit(labelWidth / 3, staticHeight - STATIC_CONTENT_GAP);
+                logo.setAbsolutePosition(left, top - logo.getScaledHeight());
+                template.addImage(logo);
+                left += logo.getScaledWidth() + LABEL_PADDING;
+            }
+            catch (IOException | BadElementException e)
+            {
+                logger.warn("Logo {} sa nedá načítať: {}", content.getLogoFile(), e.getMessage());
+            }
+        }
+
+        if (!content.getMarking().isEmpty())
+        {
+            float markingWidth = font.getWidthPoint(content.getMarking(), MARKING_FONT_SIZE);
+            template.setLineWidth(0.5f);
+            template.rectangle(right - markingWidth - 4, top - MARKING_BOX_HEIGHT, markingWidth + 4, MARKING_BOX_HEIGHT);
+            template.stroke();
+            template.beginText();
+            template.setFontAndSize(font, MARKING_FONT_SIZE);
+            template.showTextAligned(Element.ALIGN_RIGHT, content.getMarking(), right - 2, top - 9, 0);
+            template.endText();
+        }
+
+        if (!content.getReturnAddressLines().isEmpty())
+        {
+            template.beginText();
+            template.setFontAndSize(font, STATIC_FONT_SIZE);
+            float baseline = top - STATIC_FONT_SIZE;
+            for (String line : content.getReturnAddressLines())
+            {
+                template.showTextAligned(Element.ALIGN_LEFT, line, left, baseline, 0);
+                baseline -= STATIC_LINE_HEIGHT;
+            }
+            template.endText();
+        }
+        return template;
+    }
+
     /**
      * Kontroluje, či sa text zmestí na štítok s danými rozmermi
      * OPRAVENÁ VERZIA - rozmery štítka sú už v mm, netreba ich konvertovať
      */
     public boolean checkIfTextFitsOnLabel(String line1, String line2, String line3, LabelFormat format)
     {
+        if (widthTable != null)
+        {
+            // Dlhé riadky sa zalomia, štítok vyhovuje, ak sa zalomené riadky zmestia do výšky
+            LabelLayoutEngine engine = new LabelLayoutEngine(widthTable);
+            return fitsAtSize(engine.measure(getPrintedLines(line1, line2, line3)), format, engine, DEFAULT_FONT_SIZE);
+        }
+
         try
         {
-            // Rozmery štítka v mm konvertujeme na body
+            // Náhradný odhad bez písma: rozmery štítka v mm konvertujeme na body
             float labelWidthPoints = (float) format.getWidth() * POINTS_PER_MM;
-            float labelHeightPoints = (float) format.getHeight() * POINTS_PER_MM;
+            float labelHeightPoints = (float) format.getHeight() * POINTS_PER_MM - getStaticContentHeight(format);
 
             // Presné meranie šírky každého riadku
             float line1Width = getTextWidth(line1 != null ? line1 : "");
@@ -229,6 +687,140 @@ public class PDFService
         return checkIfTextFitsOnLabel(lines[0], lines[1], lines[2], format);
     }
 
+    /**
+     * Kontroluje, či sa štítok zmestí pri nastaveniach výstupu - pri automatickej veľkosti
+     * písma stačí, aby sa zmestil aspoň pri najmenšej povolenej veľkosti.
+     */
+    public boolean checkIfLabelFits(Parent parent, LabelFormat format, PdfOutputOptions options)
+    {
+        if (!options.isAutoFitFontSize())
+        {
+            return checkIfLabelFits(parent, format);
+        }
+
+        LabelLayoutEngine engine = getLayoutEngine(options);
+        return resolveFontSize(engine.measure(getPrintedLines(parent.getLabelLines())), format, engine, options) > 0;
+    }
+
+    /**
+     * Kontroluje už zmeraný štítok - jedno meranie sa tak dá vyhodnotiť voči viacerým formátom.
+     *
+     * @param measured riadky štítka zmerané zalamovaním z {@link #getLayoutEngine(PdfOutputOptions)}
+     */
+    public boolean checkIfLabelFits(LabelLayoutEngine.MeasuredLines measured, LabelFormat format,
+                                    LabelLayoutEngine engine, PdfOutputOptions options)
+    {
+        return resolveFontSize(measured, format, engine, options) > 0;
+    }
+
+    /**
+     * Hromadná kontrola rozmerov štítkov pri štandardnom výstupe.
+     *
+     * @see #checkLabelsFit(List, LabelFormat, PdfOutputOptions)
+     */
+    public FitCheckReport checkLabelsFit(List<Parent> parents, LabelFormat format)
+    {
+        return checkLabelsFit(parents, format, PdfOutputOptions.standard());
+    }
+
+    /**
+     * Hromadná kontrola rozmerov štítkov - štítky sa paralelne zmerajú a skontrolujú rovnako
+     * ako pri vykreslení. Meranie sa po kontrole zahodí, ponechá sa iba presah nevyhovujúcich
+     * štítkov. Metódu môže súčasne volať viac vlákien.
+     *
+     * @param parents príjemcovia v poradí štítkov
+     * @return nevyhovujúce štítky s presahom a štítok s najväčším presahom
+     */
+    public FitCheckReport checkLabelsFit(List<Parent> parents, LabelFormat format, PdfOutputOptions options)
+    {
+        LabelLayoutEngine engine = getLayoutEngine(options);
+        return checkLabelsFit(parents.size(),
+                i -> engine.measure(getPrintedLines(parents.get(i).getLabelLines())), format, engine, options);
+    }
+
+    /**
+     * Hromadná kontrola už zmeraných štítkov - prechádzajú sa iba predpočítané šírky znakov.
+     *
+     * @param measured riadky štítkov zmerané zalamovaním z {@link #getLayoutEngine(PdfOutputOptions)}
+     * @return nevyhovujúce štítky s presahom a štítok s najväčším presahom
+     */
+    public FitCheckReport checkLabelsFit(LabelLayoutEngine.MeasuredLines[] measured, LabelFormat format,
+                                         LabelLayoutEngine engine, PdfOutputOptions options)
+    {
+        return checkLabelsFit(measured.length, i -> measured[i], format, engine, options);
+    }
+
+    /**
+     * Skontroluje štítky po blokoch, ktoré sa spracujú paralelne. Každý blok má vlastnú
+     * množinu bitov a zoznam presahov, výsledky blokov sa spoja v poradí štítkov.
+     */
+    private FitCheckReport checkLabelsFit(int count, IntFunction<LabelLayoutEngine.MeasuredLines> measure,
+                                          LabelFormat format, LabelLayoutEngine engine, PdfOutputOptions options)
+    {
+        // Presah sa počíta na rovnakom zalomení ako kontrola, pri veľkosti písma, ktorou by sa
+        // nevyhovujúci štítok vytlačil (pri automatickej veľkosti najmenšou povolenou)
+        float fontSize = options.isAutoFitFontSize() ? options.getMinFontSize() : DEFAULT_FONT_SIZE;
+        float availableWidth = getTextAreaWidth(format);
+        float availableHeight = getTextAreaHeight(format);
+        float maxUnits = availableWidth * 1000f / fontSize;
+
+        int chunks = (count + FIT_CHECK_CHUNK - 1) / FIT_CHECK_CHUNK;
+        FitCheckChunk result = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk ->
+                {
+                    FitCheckChunk chunkResult = new FitCheckChunk();
+                    int end = Math.min(count, (chunk + 1) * FIT_CHECK_CHUNK);
+                    for (int i = chunk * FIT_CHECK_CHUNK; i < end; i++)
+                    {
+                        LabelLayoutEngine.MeasuredLines lines = measure.apply(i);
+                        if (resolveFontSize(lines, format, engine, options) > 0)
+                        {
+                            continue;
+                        }
+
+                        float[] overflows = new float[lines.getLineCount()];
+                        int wrappedLines = engine.measureOverflow(lines, maxUnits, overflows);
+                        for (int line = 0; line < overflows.length; line++)
+                        {
+                            overflows[line] *= fontSize * 0.001f;
+                        }
+                        chunkResult.notFitting.set(i);
+                        chunkResult.lineOverflows.add(overflows);
+                        chunkResult.heightOverflows.add(
+                                Math.max(0f, wrappedLines * fontSize * LEADING_RATIO - availableHeight));
+                    }
+                    return chunkResult;
+                })
+                .reduce(FitCheckChunk::merge)
+                .orElseGet(FitCheckChunk::new);
+
+        float[] heightOverflows = new float[result.heightOverflows.size()];
+        for (int i = 0; i < heightOverflows.length; i++)
+        {
+            heightOverflows[i] = result.heightOverflows.get(i);
+        }
+        return new FitCheckReport(count, result.notFitting,
+                result.lineOverflows.toArray(new float[0][]), heightOverflows);
+    }
+
+    /** Čiastkový výsledok hromadnej kontroly jedného bloku štítkov */
+    private static final class FitCheckChunk
+    {
+        final BitSet notFitting = new BitSet();
+        final List<float[]> lineOverflows = new ArrayList<>();
+        final List<Float> heightOverflows = new ArrayList<>();
+
+        /** Pripojí výsledok nasledujúceho bloku */
+        FitCheckChunk merge(FitCheckChunk next)
+        {
+            notFitting.or(next.notFitting);
+            lineOverflows.addAll(next.lineOverflows);
+            heightOverflows.addAll(next.heightOverflows);
+            return this;
+        }
+    }
+
     /**
      * Získa najdlhší riadok z formátovaného štítka
      */
@@ -318,4 +910,36 @@ public class PDFService
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Prúd, ktorý počíta zapísané bajty pre merania.
+     */
+    private static class CountingOutputStream extends FilterOutputStream
+    {
+        private long count;
+
+        CountingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
+import sk.bakaj.adreskobox.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Úložisko rodičov (príjemcov) zdieľané medzi záložkami.
+ *
+ * Každý rodič dostane pri pridaní stabilné id, ktoré sa zachová aj pri úprave adresy
+ * (skrátená adresa, oprava preklepu). Id je jednoznačné iba v rámci jedného výberu rodičov:
+ * každé nové úložisko prideľuje id od 1 a kópie v ďalších úložiskách (upravené adresy,
+ * náhľad tlače) id iba preberajú. Id sa preto nesmie ukladať ani porovnávať medzi
+ * rôznymi výbermi - vyrovnávacia pamäť kontroly adries je kľúčovaná menom a adresou.
+ * Vyhľadávanie podľa id používa hash index, takže nie je potrebné prechádzať celý zoznam.
+ * Rodičia sa vracajú v poradí pridania cez nemodifikovateľný pohľad bez kopírovania.
+ */
+public class ParentRepository
+{
+    private final List<Parent> parents = new ArrayList<>();
+    private final List<Parent> allParents = Collections.unmodifiableList(parents);
+    /** Pozícia rodiča v zozname podľa id */
+    private final Map<Integer, Integer> positionsById = new HashMap<>();
+    private int nextId = 1;
+
+    public ParentRepository()
+    {
+    }
+
+    /**
+     * Vytvorí úložisko so zoznamom rodičov.
+     *
+     * @param parents zoznam rodičov
+     */
+    public ParentRepository(List<Parent> parents)
+    {
+        addAll(parents);
+    }
+
+    /**
+     * Pridá rodiča. Ak ešte nemá id, pridelí mu nové; ak id už má (napr. upravená
+     * kópia z iného úložiska), zachová ho a prípadný existujúci záznam nahradí.
+     *
+     * @param parent rodič
+     * @return id rodiča
+     */
+    public int add(Parent parent)
+    {
+        if (parent.getId() <= 0)
+        {
+            parent.setId(nextId++);
+        }
+        else
+        {
+            nextId = Math.max(nextId, parent.getId() + 1);
+        }
+
+        Integer position = positionsById.get(parent.getId());
+        if (position != null)
+        {
+            // Nahradenie existujúceho záznamu na rovnakom mieste
+            parents.set(position, parent);
+        }
+        else
+        {
+            positionsById.put(parent.getId(), parents.size());
+            parents.add(parent);
+        }
+        return parent.getId();
+    }
+
+    /**
+     * Pridá všetkých rodičov zo zoznamu.
+     *
+     * @param parents zoznam rodičov
+     */
+    public void addAll(List<Parent> parents)
+    {
+        if (parents == null)
+        {
+            return;
+        }
+        for (Parent parent : parents)
+        {
+            add(parent);
+        }
+    }
+
+    /**
+     * Odstráni rodiča z úložiska. Pozície nasledujúcich rodičov sa prepočítajú - O(n).
+     *
+     * @param id id rodiča
+     * @return odstránený rodič alebo null
+     */
+    public Parent remove(int id)
+    {
+        Integer position = positionsById.remove(id);
+        if (position == null)
+        {
+            return null;
+        }
+
+        Parent parent = parents.remove((int) position);
+        for (int i = position; i < parents.size(); i++)
+        {
+            positionsById.put(parents.get(i).getId(), i);
+        }
+        return parent;
+    }
+
+    /**
+     * Odstráni všetkých rodičov.
+     */
+    public void clear()
+    {
+        parents.clear();
+        positionsById.clear();
+    }
+
+    /**
+     * @param id id rodiča
+     * @return rodič alebo null
+     */
+    public Parent findById(int id)
+    {
+        Integer position = positionsById.get(id);
+        return position != null ? parents.get(position) : null;
+    }
+
+    /**
+     * @return všetci rodičia v poradí pridania (nemodifikovateľný pohľad bez kopírovania)
+     */
+    public List<Parent> getAll()
+    {
+        return allParents;
+    }
+
+    /** @return počet rodičov */
+    public int size()
+    {
+        return parents.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return parents.isEmpty();
+    }
+
+    /**
+     * Vytvorí porovnávací kľúč adresy - ulica, PSČ a obec bez diakritiky a interpunkcie.
+     * Používa ho zlúčenie domácností ({@link HouseholdDeduplicationService}).
+     *
+     * @param parent rodič
+     * @return kľúč adresy, pre adresu bez ulice prázdny reťazec
+     */
+    public static String createAddressKey(Parent parent)
+    {
+        String street = TextNormalizer.toKey(parent.getAddress());
+        if (street.isEmpty())
+        {
+            return "";
+        }
+
+        int zipCode = PostalCodeIndex.parse(parent.getZipCode());
+        return street + '|' + (zipCode >= 0 ? String.valueOf(zipCode) : "") + '|'
+                + TextNormalizer.toKey(parent.getCity());
+    }
+}
@@ -0,0 +1,98 @@
+package sk.bakaj.adreskobox.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Denník spracovaných súborov sledovaného adresára.
+ *
+ * Každé spracovanie pridá na koniec súboru jeden riadok
+ * "názov TAB veľkosť TAB čas zmeny TAB stav TAB čas spracovania". Po reštarte sa denník
+ * načíta a súbory s rovnakou veľkosťou a časom zmeny sa znova nespracujú. Ak sa súbor
+ * zmení (nový export s rovnakým názvom), jeho kľúč sa líši a spracuje sa znova.
+ */
+public class ProcessingJournal
+{
+    public static final String FILE_NAME = ".adreskobox-journal";
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_FAILED = "CHYBA";
+
+    private final Path journalFile;
+    /** Posledný stav podľa kľúča súboru */
+    private final Map<String, String> statuses = new HashMap<>();
+
+    /**
+     * Otvorí denník v zadanom adresári a načíta doterajšie záznamy.
+     *
+     * @param directory sledovaný adresár
+     * @throws IOException ak sa denník nedá prečítať
+     */
+    public ProcessingJournal(Path directory) throws IOException
+    {
+        this.journalFile = directory.resolve(FILE_NAME);
+        if (Files.exists(journalFile))
+        {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8))
+            {
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    String[] parts = line.split("\t");
+                    if (parts.length >= 4)
+                    {
+                        statuses.put(createKey(parts[0], parts[1], parts[2]), parts[3]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param file súbor v sledovanom adresári
+     * @return true, ak bol súbor v tejto podobe už úspešne spracovaný
+     */
+    public synchronized boolean isProcessed(Path file) throws IOException
+    {
+        return STATUS_OK.equals(statuses.get(createKey(file)));
+    }
+
+    /**
+     * Zapíše výsledok spracovania súboru.
+     *
+     * @param file spracovaný súbor
+     * @param size veľkosť súboru v čase spracovania
+     * @param lastModified čas zmeny súboru v čase spracovania (ms)
+     * @param status {@link #STATUS_OK} alebo {@link #STATUS_FAILED}
+     */
+    public synchronized void record(Path file, long size, long lastModified, String status) throws IOException
+    {
+        String name = file.getFileName().toString();
+        statuses.put(createKey(name, String.valueOf(size), String.valueOf(lastModified)), status);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+        {
+            writer.write(name + '\t' + size + '\t' + lastModified + '\t' + status + '\t' + LocalDateTime.now());
+            writer.newLine();
+        }
+    }
+
+    private static String createKey(Path file) throws IOException
+    {
+        return createKey(file.getFileName().toString(), String.valueOf(Files.size(file)),
+                String.valueOf(Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    private static String createKey(String name, String size, String lastModified)
+    {
+        return name + '\t' + size + '\t' + lastModified;
+    }
+}
@@ -0,0 +1,208 @@
+package sk.bakaj.adreskobox.service;
+
+import sk.bakaj.adreskobox.util.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Invertovaný index pre okamžité vyhľadávanie v zozname záznamov.
+ *
+ * Každý záznam sa rozloží na slová bez diakritiky a pre každé slovo sa uloží
+ * zoznam záznamov, v ktorých sa vyskytuje (posting list). Slová sú zoradené, takže
+ * všetky slová s daným prefixom tvoria súvislý úsek nájdený binárnym vyhľadávaním.
+ * Dotaz "nov bra" vráti záznamy, ktoré obsahujú slovo začínajúce na "nov"
+ * a zároveň slovo začínajúce na "bra".
+ */
+public class SearchIndex
+{
+    private final Map<String, Posting> postingsByTerm = new HashMap<>();
+    private String[] terms = new String[0];
+    private int[][] postings = new int[0][];
+    private int size;
+    private boolean built = true;
+
+    /**
+     * Pridá záznam do indexu. Záznamy sa musia pridávať so vzostupným id.
+     *
+     * @param id id záznamu (napr. index riadku)
+     * @param fields textové polia záznamu
+     */
+    public void add(int id, String... fields)
+    {
+        for (String field : fields)
+        {
+            String key = TextNormalizer.toKey(field);
+            if (key.isEmpty())
+            {
+                continue;
+            }
+
+            int start = 0;
+            while (start < key.length())
+            {
+                int end = key.indexOf(' ', start);
+                if (end < 0)
+                {
+                    end = key.length();
+                }
+                addPosting(key.substring(start, end), id);
+                start = end + 1;
+            }
+
+            // PSČ "811 01" sa dá hľadať aj ako "81101"
+            if (Character.isDigit(key.charAt(0)) && key.indexOf(' ') > 0)
+            {
+                addPosting(key.replace(" ", ""), id);
+            }
+        }
+
+        size = Math.max(size, id + 1);
+        built = false;
+    }
+
+    private void addPosting(String term, int id)
+    {
+        Posting posting = postingsByTerm.get(term);
+        if (posting == null)
+        {
+            posting = new Posting();
+            postingsByTerm.put(term, posting);
+        }
+        posting.add(id);
+    }
+
+    /**
+     * Zoradí slová a zhustí posting listy. Volá sa automaticky pri prvom hľadaní.
+     */
+    private void build()
+    {
+        terms = postingsByTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        postings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++)
+        {
+            postings[i] = postingsByTerm.get(terms[i]).toArray();
+        }
+        built = true;
+    }
+
+    /**
+     * Vyhľadá záznamy zodpovedajúce dotazu.
+     *
+     * @param query text dotazu, slová sa hľadajú ako prefixy bez ohľadu na diakritiku
+     * @return množina id nájdených záznamov alebo null, ak je dotaz prázdny
+     */
+    public BitSet search(String query)
+    {
+        String key = TextNormalizer.toKey(query);
+        if (key.isEmpty())
+        {
+            return null;
+        }
+        if (!built)
+        {
+            build();
+        }
+
+        BitSet result = null;
+        for (String token : key.split(" "))
+        {
+            BitSet matches = searchPrefix(token);
+            if (result == null)
+            {
+                result = matches;
+            }
+            else
+            {
+                result.and(matches);
+            }
+
+            if (result.isEmpty())
+            {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Zjednotí posting listy všetkých slov začínajúcich daným prefixom.
+     */
+    private BitSet searchPrefix(String prefix)
+    {
+        BitSet matches = new BitSet(size);
+
+        int first = lowerBound(prefix);
+        for (int i = first; i < terms.length && terms[i].startsWith(prefix); i++)
+        {
+            for (int id : postings[i])
+            {
+                matches.set(id);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Index prvého slova, ktoré nie je menšie ako prefix.
+     */
+    private int lowerBound(String prefix)
+    {
+        int low = 0;
+        int high = terms.length;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].compareTo(prefix) < 0)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** @return počet rôznych slov v indexe */
+    public int getTermCount()
+    {
+        if (!built)
+        {
+            build();
+        }
+        return terms.length;
+    }
+
+    /**
+     * Zoznam id záznamov pre jedno slovo (vzostupne, bez duplicít).
+     */
+    private static class Posting
+    {
+        private int[] ids = new int[2];
+        private int count;
+
+        void add(int id)
+        {
+            // Rovnaké slovo vo viacerých poliach toho istého záznamu
+            if (count > 0 && ids[count - 1] == id)
+            {
+                return;
+            }
+            if (count == ids.length)
+            {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+
+        int[] toArray()
+        {
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package sk.bakaj.adreskobox.service;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import sk.bakaj.adreskobox.util.PostalCodeIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generátor umelých, ale realistických vstupných súborov pre záťažové testy.
+ *
+ * Súbory majú rovnaké stĺpce ako export zo školy (Meno, Priezvisko, Rodič 1., Rodič 2.,
+ * Adresa 1., Adresa 2.). Obsahujú mená s diakritikou, ženské tvary priezvisk, PSČ v zápise
+ * "811 01" aj "81101", dlhé názvy ulíc, chýbajúceho druhého rodiča, rodičov s rôznymi adresami
+ * a súrodencov (viac riadkov s tou istou domácnosťou). Riadky sa zapisujú priebežne -
+ * v pamäti je vždy iba jedna domácnosť, takže aj milióny riadkov nepotrebujú viac pamäte.
+ * Rovnaké semienko vytvorí vždy rovnaký súbor.
+ */
+public class SyntheticDataGenerator
+{
+    public static final String[] HEADER = {
+            FileService.STUDENT_FIRSTNAME_COLUMN, FileService.STUDENT_LASTNAME_COLUMN,
+            FileService.PARENT1_NAME_COLUMN, FileService.PARENT2_NAME_COLUMN,
+            FileService.ADDRESS1_COLUMN, FileService.ADDRESS2_COLUMN};
+
+    /** Najväčší počet dátových riadkov v jednom hárku XLSX (bez hlavičky) */
+    public static final int MAX_XLSX_ROWS = 1_048_575;
+
+    private static final String[] MALE_NAMES = {"Ján", "Peter", "Jozef", "Martin", "Michal", "Tomáš", "Lukáš",
+            "Marek", "Ľubomír", "Štefan", "Dušan", "Juraj", "Matúš", "Ondrej", "Róbert", "Miroslav", "Ľudovít",
+            "Radoslav", "Branislav", "Šimon", "Adam", "Samuel", "Jakub", "Filip", "Oliver", "Tobiáš", "Matej"};
+    private static final String[] FEMALE_NAMES = {"Mária", "Jana", "Eva", "Anna", "Zuzana", "Katarína",
+            "Lucia", "Martina", "Ľubica", "Žofia", "Veronika", "Michaela", "Simona", "Dagmar", "Ivana",
+            "Soňa", "Alžbeta", "Petronela", "Viktória", "Natália", "Ema", "Sofia", "Nina", "Tamara", "Dáša"};
+    private static final String[] SURNAMES = {"Novák", "Horváth", "Kováč", "Varga", "Tóth", "Nagy", "Baláž",
+            "Szabó", "Molnár", "Lukáč", "Šimko", "Oravec", "Ďuriš", "Kollár", "Kráľ", "Hudák", "Polák", "Benko",
+            "Čierny", "Ševčík", "Žiak", "Blaho", "Hrivnák", "Mikuš", "Šulík", "Galko", "Bartoš", "Gregor",
+            "Malý", "Veľký", "Biely", "Zelený", "Hlavatý", "Jurčo", "Kubík", "Ľupták", "Straka", "Marko"};
+    private static final String[] STREETS = {"Hlavná", "Školská", "Mierová", "Štúrova", "Kostolná",
+            "Záhradná", "Družstevná", "Poľná", "Športová", "Lúčna", "Cintorínska", "Jarná", "Hviezdoslavova",
+            "Námestie slobody", "Námestie SNP", "Námestie Andreja Hlinku", "Ulica 29. augusta",
+            "Ulica Pavla Országha Hviezdoslava", "Trieda Slovenského národného povstania",
+            "Nábrežie armádneho generála Ludvíka Svobodu", "Ulica Svätoplukova", "Sídlisko Juh",
+            "Ulica Janka Kráľa", "Kpt. Jaroša", "Trieda Andreja Hlinku", "Ulica Mateja Bela"};
+    /** Náhradné obce, ak index PSČ nie je k dispozícii */
+    private static final String[][] FALLBACK_CITIES = {{"81101", "Bratislava"}, {"04001", "Košice"},
+            {"01001", "Žilina"}, {"97401", "Banská Bystrica"}, {"08001", "Prešov"}, {"94901", "Nitra"}};
+
+    private final long seed;
+    private final int[] zipCodes;
+    private final String[] cities;
+
+    /**
+     * @param seed semienko náhodného generátora
+     */
+    public SyntheticDataGenerator(long seed)
+    {
+        this.seed = seed;
+
+        PostalCodeIndex index = PostalCodeIndex.getInstance();
+        if (index.size() > 0)
+        {
+            zipCodes = new int[index.size()];
+            cities = new String[index.size()];
+            for (int i = 0; i < index.size(); i++)
+            {
+                zipCodes[i] = index.getCodeAt(i);
+                cities[i] = index.getMunicipalityAt(i);
+            }
+        }
+        else
+        {
+            zipCodes = new int[FALLBACK_CITIES.length];
+            cities = new String[FALLBACK_CITIES.length];
+            for (int i = 0; i < FALLBACK_CITIES.length; i++)
+            {
+                zipCodes[i] = Integer.parseInt(FALLBACK_CITIES[i][0]);
+                cities[i] = FALLBACK_CITIES[i][1];
+            }
+        }
+    }
+
+    /**
+     * Prijíma vygenerované riadky v poradí stĺpcov {@link #HEADER}.
+     */
+    public interface RowConsumer
+    {
+        void accept(String[] row) throws IOException;
+    }
+
+    /**
+     * Vygeneruje zadaný počet riadkov. Pole riadku sa opakovane používa -
+     * príjemca si ho nesmie uchovať.
+     *
+     * @param rows počet riadkov
+     * @param consumer príjemca riadkov
+     * @throws IOException ak príjemca nevie riadok zapísať
+     */
+    public void generate(long rows, RowConsumer consumer) throws IOException
+    {
+        Random random = new Random(seed);
+        String[] row = new String[HEADER.length];
+        Household household = null;
+        int siblingsLeft = 0;
+
+        for (long i = 0; i < rows; i++)
+        {
+            if (siblingsLeft == 0)
+            {
+                household = createHousehold(random);
+                // Približne tretina rodín má v škole viac detí
+                int roll = random.nextInt(100);
+                siblingsLeft = roll < 70 ? 1 : roll < 93 ? 2 : 3;
+            }
+            siblingsLeft--;
+
+            boolean girl = random.nextBoolean();
+            row[0] = pick(random, girl ? FEMALE_NAMES : MALE_NAMES);
+            row[1] = girl ? household.femaleSurname : household.maleSurname;
+            row[2] = household.parent1;
+            row[3] = household.parent2;
+            row[4] = household.address1;
+            row[5] = household.address2;
+            consumer.accept(row);
+        }
+    }
+
+    /**
+     * Zapíše CSV súbor s oddeľovačom bodkočiarka v UTF-8.
+     *
+     * @param file výstupný súbor
+     * @param rows počet riadkov
+     * @throws IOException pri chybe zápisu
+     */
+    public void writeCsv(File file, long rows) throws IOException
+    {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+        {
+            writer.write(String.join(";", HEADER));
+            writer.newLine();
+            generate(rows, row ->
+            {
+                for (int i = 0; i < row.length; i++)
+                {
+                    if (i > 0)
+                    {
+                        writer.write(';');
+                    }
+                    writer.write(row[i]);
+                }
+                writer.newLine();
+            });
+        }
+    }
+
+    /**
+     * Zapíše XLSX súbor cez streamovaný zošit - v pamäti je iba okno posledných riadkov.
+     *
+     * @param file výstupný súbor
+     * @param rows počet riadkov (najviac {@link #MAX_XLSX_ROWS})
+     * @throws IOException pri chybe zápisu
+     */
+    public void writeXlsx(File file, int rows) throws IOException
+    {
+        if (rows > MAX_XLSX_ROWS)
+        {
+            throw new IllegalArgumentException("Hárok XLSX môže mať najviac " + MAX_XLSX_ROWS + " riadkov");
+        }
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(500);
+        workbook.setCompressTempFiles(true);
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file.toPath())))
+        {
+            Sheet sheet = workbook.createSheet("Žiaci");
+            writeRow(sheet.createRow(0), HEADER);
+            int[] rowIndex = {1};
+            generate(rows, row -> writeRow(sheet.createRow(rowIndex[0]++), row));
+            workbook.write(output);
+        }
+        finally
+        {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeRow(Row row, String[] values)
+    {
+        for (int i = 0; i < values.length; i++)
+        {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+
+    private Household createHousehold(Random random)
+    {
+        Household household = new Household();
+        household.maleSurname = pick(random, SURNAMES);
+        household.femaleSurname = toFemaleSurname(household.maleSurname);
+
+        String father = pick(random, MALE_NAMES) + " " + household.maleSurname;
+        String mother = pick(random, FEMALE_NAMES) + " " + household.femaleSurname;
+        boolean motherFirst = random.nextInt(3) > 0;
+        household.address1 = createAddress(random);
+
+        int roll = random.nextInt(100);
+        if (roll < 15)
+        {
+            // Iba jeden rodič
+            household.parent1 = motherFirst ? mother : father;
+            household.parent2 = "";
+            household.address2 = "";
+        }
+        else
+        {
+            household.parent1 = motherFirst ? mother : father;
+            household.parent2 = motherFirst ? father : mother;
+            // Väčšina rodičov býva spolu, niektorí na inej adrese
+            household.address2 = roll < 85 ? household.address1 : createAddress(random);
+        }
+        return household;
+    }
+
+    private String createAddress(Random random)
+    {
+        int city = random.nextInt(zipCodes.length);
+        String zip = String.format("%05d", zipCodes[city]);
+
+        String street;
+        if (random.nextInt(10) == 0)
+        {
+            // Obec bez ulíc - súpisné číslo za názvom obce
+            street = cities[city] + " " + (1 + random.nextInt(600));
+        }
+        else
+        {
+            street = pick(random, STREETS) + " " + createHouseNumber(random);
+        }
+
+        int format = random.nextInt(100);
+        if (format < 60)
+        {
+            return street + ", " + zip.substring(0, 3) + " " + zip.substring(3) + " " + cities[city];
+        }
+        if (format < 85)
+        {
+            return street + ", " + zip + " " + cities[city];
+        }
+        if (format < 95)
+        {
+            return street + " " + zip.substring(0, 3) + " " + zip.substring(3) + " " + cities[city];
+        }
+        // Adresa bez PSČ
+        return street + ", " + cities[city];
+    }
+
+    private static String createHouseNumber(Random random)
+    {
+        int number = 1 + random.nextInt(150);
+        int roll = random.nextInt(10);
+        if (roll < 6)
+        {
+            return String.valueOf(number);
+        }
+        if (roll < 9)
+        {
+            // Súpisné a orientačné číslo
+            return (100 + random.nextInt(4900)) + "/" + number;
+        }
+        return number + String.valueOf((char) ('A' + random.nextInt(4)));
+    }
+
+    /**
+     * Ženský tvar priezviska: Novák → Nováková, Malý → Malá, Čierny → Čierna, Straka → Straková.
+     */
+    static String toFemaleSurname(String surname)
+    {
+        if (surname.endsWith("ý"))
+        {
+            return surname.substring(0, surname.length() - 1) + "á";
+        }
+        if (surname.endsWith("y"))
+        {
+            return surname.substring(0, surname.length() - 1) + "a";
+        }
+        if (surname.endsWith("a") || surname.endsWith("o"))
+        {
+            return surname.substring(0, surname.length() - 1) + "ová";
+        }
+        return surname + "ová";
+    }
+
+    private static String pick(Random random, String[] values)
+    {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Rodina, z ktorej sa vytvárajú riadky súrodencov.
+     */
+    private static class Household
+    {
+        String maleSurname;
+        String femaleSurname;
+        String parent1;
+        String parent2;
+        String address1;
+        String address2;
+    }
+}
@@ -0,0 +1,291 @@
+package sk.bakaj.adreskobox.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline index poštových smerovacích čísel (PSČ) a obcí.
+ *
+ * Index sa načítava lenivo pri prvom použití zo súboru {@value #RESOURCE_PATH}
+ * pribaleného v aplikácii. Údaje sú uložené v kompaktných poliach primitívnych typov:
+ * zoradené PSČ ako int a ku každému index názvu obce do slovníka názvov
+ * (názov obce s viacerými PSČ je v pamäti iba raz). Vyhľadávanie je binárne, O(log n).
+ *
+ * Pribalený súbor môže byť iba výberom PSČ. Za úplný zoznam sa považuje, až keď obsahuje
+ * riadok {@value #COMPLETE_MARKER} - iba vtedy má zmysel upozorňovať na neznáme PSČ.
+ */
+public final class PostalCodeIndex
+{
+    private static final Logger logger = LogManager.getLogger(PostalCodeIndex.class);
+
+    private static final String RESOURCE_PATH = "/data/postal-codes.csv";
+    /** Riadok, ktorým súbor označuje úplný zoznam PSČ Slovenskej pošty */
+    private static final String COMPLETE_MARKER = "# úplný zoznam";
+
+    /** Zoradené PSČ ako čísla (napr. 81101) */
+    private final int[] codes;
+    /** Index názvu obce v slovníku pre každé PSČ */
+    private final int[] municipalityIds;
+    /** Slovník názvov obcí */
+    private final String[] municipalities;
+    /** Index obsahuje úplný zoznam PSČ, nie iba výber */
+    private final boolean complete;
+
+    /**
+     * Lenivá inicializácia - index sa načíta až pri prvom volaní {@link #getInstance()}
+     */
+    private static class Holder
+    {
+        static final PostalCodeIndex INSTANCE = load();
+    }
+
+    private PostalCodeIndex(int[] codes, int[] municipalityIds, String[] municipalities, boolean complete)
+    {
+        this.codes = codes;
+        this.municipalityIds = municipalityIds;
+        this.municipalities = municipalities;
+        this.complete = complete;
+    }
+
+    /**
+     * Vráti zdieľanú inštanciu indexu (pri prvom volaní ho načíta).
+     *
+     * @return index PSČ
+     */
+    public static PostalCodeIndex getInstance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Načíta index z pribaleného súboru. Ak súbor chýba alebo je poškodený, vráti prázdny index.
+     */
+    private static PostalCodeIndex load()
+    {
+        try (InputStream is = PostalCodeIndex.class.getResourceAsStream(RESOURCE_PATH))
+        {
+            if (is == null)
+            {
+                logger.error("Súbor s PSČ nebol nájdený: {}", RESOURCE_PATH);
+                return new PostalCodeIndex(new int[0], new int[0], new String[0], false);
+            }
+            return read(new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)));
+        }
+        catch (IOException e)
+        {
+            logger.error("Chyba pri načítaní PSČ: {}", e.getMessage());
+            return new PostalCodeIndex(new int[0], new int[0], new String[0], false);
+        }
+    }
+
+    /**
+     * Načíta riadky v tvare "PSČ;Obec". Riadky začínajúce znakom # sa ignorujú, okrem značky
+     * úplného zoznamu {@value #COMPLETE_MARKER}.
+     */
+    private static PostalCodeIndex read(BufferedReader reader) throws IOException
+    {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        // PSČ a index obce zbalené do jedného long pre zoradenie v jednom poli
+        long[] packed = new long[1024];
+        int count = 0;
+        boolean complete = false;
+
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            if (line.isEmpty() || line.charAt(0) == '#')
+            {
+                complete |= line.trim().equalsIgnoreCase(COMPLETE_MARKER);
+                continue;
+            }
+
+            int separator = line.indexOf(';');
+            if (separator < 0)
+            {
+                continue;
+            }
+
+            int code = parse(line.substring(0, separator));
+            String name = line.substring(separator + 1).trim();
+            if (code < 0 || name.isEmpty())
+            {
+                continue;
+            }
+
+            Integer id = dictionary.get(name);
+            if (id == null)
+            {
+                id = names.size();
+                dictionary.put(name, id);
+                names.add(name);
+            }
+
+            if (count == packed.length)
+            {
+                packed = Arrays.copyOf(packed, count * 2);
+            }
+            packed[count++] = ((long) code << 32) | id;
+        }
+
+        Arrays.sort(packed, 0, count);
+
+        int[] codes = new int[count];
+        int[] ids = new int[count];
+        int unique = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int code = (int) (packed[i] >>> 32);
+            // Pri duplicitnom PSČ ponecháme prvý záznam
+            if (unique > 0 && codes[unique - 1] == code)
+            {
+                continue;
+            }
+            codes[unique] = code;
+            ids[unique] = (int) packed[i];
+            unique++;
+        }
+
+        return new PostalCodeIndex(Arrays.copyOf(codes, unique), Arrays.copyOf(ids, unique),
+                names.toArray(new String[0]), complete);
+    }
+
+    /**
+     * Prevedie PSČ v ľubovoľnom bežnom zápise ("811 01", "81101", "811-01") na číslo.
+     *
+     * @param zipCode PSČ ako text
+     * @return PSČ ako číslo alebo -1, ak text neobsahuje presne 5 číslic
+     */
+    public static int parse(String zipCode)
+    {
+        if (zipCode == null)
+        {
+            return -1;
+        }
+
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i < zipCode.length(); i++)
+        {
+            char c = zipCode.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                value = value * 10 + (c - '0');
+                digits++;
+            }
+            else if (c != ' ' && c != '-' && c != '\u00A0')
+            {
+                return -1;
+            }
+        }
+        return digits == 5 ? value : -1;
+    }
+
+    /**
+     * Naformátuje PSČ do štandardného tvaru "811 01".
+     *
+     * @param code PSČ ako číslo
+     * @return PSČ ako text
+     */
+    public static String format(int code)
+    {
+        String digits = String.format("%05d", code);
+        return digits.substring(0, 3) + " " + digits.substring(3);
+    }
+
+    /**
+     * Zjednotí zápis PSČ na tvar "811 01". Neplatné PSČ vráti bez zmeny.
+     *
+     * @param zipCode PSČ ako text
+     * @return normalizované PSČ
+     */
+    public static String normalize(String zipCode)
+    {
+        int code = parse(zipCode);
+        return code < 0 ? zipCode : format(code);
+    }
+
+    /**
+     * Overí, či je PSČ v indexe.
+     *
+     * @param zipCode PSČ v ľubovoľnom bežnom zápise
+     * @return true ak je PSČ známe
+     */
+    public boolean isKnown(String zipCode)
+    {
+        int code = parse(zipCode);
+        return code >= 0 && Arrays.binarySearch(codes, code) >= 0;
+    }
+
+    /**
+     * @return true, ak index obsahuje úplný zoznam PSČ - pri výbere PSČ nemožno z chýbajúceho
+     *         PSČ usudzovať, že je chybné
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * Vyhľadá obec podľa PSČ.
+     *
+     * @param zipCode PSČ v ľubovoľnom bežnom zápise
+     * @return názov obce alebo null, ak PSČ nie je v indexe
+     */
+    public String findMunicipality(String zipCode)
+    {
+        int code = parse(zipCode);
+        if (code < 0)
+        {
+            return null;
+        }
+
+        int position = Arrays.binarySearch(codes, code);
+        return position >= 0 ? municipalities[municipalityIds[position]] : null;
+    }
+
+    /**
+     * Vráti všetky názvy obcí v indexe (každý iba raz).
+     *
+     * @return pole názvov obcí
+     */
+    public String[] getMunicipalities()
+    {
+        return municipalities.clone();
+    }
+
+    /**
+     * @param position poradie PSČ v indexe (0 až {@link #size()} - 1)
+     * @return PSČ ako číslo
+     */
+    public int getCodeAt(int position)
+    {
+        return codes[position];
+    }
+
+    /**
+     * @param position poradie PSČ v indexe (0 až {@link #size()} - 1)
+     * @return názov obce pre PSČ na danej pozícii
+     */
+    public String getMunicipalityAt(int position)
+    {
+        return municipalities[municipalityIds[position]];
+    }
+
+    /** @return počet PSČ v indexe */
+    public int size()
+    {
+        return codes.length;
+    }
+}
@@ -0,0 +1,81 @@
+package sk.bakaj.adreskobox.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Slovník reťazcov - každú rôznu hodnotu uloží iba raz a pridelí jej číselné id.
+ *
+ * Používa sa pri stĺpcovom ukladaní importovaných dát, kde sa názvy obcí, ulíc
+ * a celé adresy opakujú v mnohých riadkoch. Prázdna hodnota a null majú id -1.
+ */
+public final class StringDictionary
+{
+    /** Id pre prázdnu hodnotu */
+    public static final int EMPTY_ID = -1;
+
+    private final Map<String, Integer> ids;
+    private String[] values;
+    private int size;
+
+    public StringDictionary()
+    {
+        this(64);
+    }
+
+    /**
+     * @param expectedSize očakávaný počet rôznych hodnôt
+     */
+    public StringDictionary(int expectedSize)
+    {
+        int capacity = Math.max(16, expectedSize);
+        this.ids = new HashMap<>(capacity * 2);
+        this.values = new String[capacity];
+    }
+
+    /**
+     * Vráti id hodnoty, novú hodnotu pridá do slovníka.
+     *
+     * @param value hodnota
+     * @return id hodnoty alebo {@link #EMPTY_ID} pre prázdnu hodnotu
+     */
+    public int encode(String value)
+    {
+        if (value == null || value.isEmpty())
+        {
+            return EMPTY_ID;
+        }
+
+        Integer id = ids.get(value);
+        if (id != null)
+        {
+            return id;
+        }
+
+        if (size == values.length)
+        {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        ids.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Vráti hodnotu pre id.
+     *
+     * @param id id hodnoty
+     * @return hodnota, pre {@link #EMPTY_ID} prázdny reťazec
+     */
+    public String decode(int id)
+    {
+        return id == EMPTY_ID ? "" : values[id];
+    }
+
+    /** @return počet rôznych hodnôt v slovníku */
+    public int size()
+    {
+        return size;
+    }
+}
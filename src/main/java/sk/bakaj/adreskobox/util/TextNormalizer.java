@@ -0,0 +1,135 @@
+package sk.bakaj.adreskobox.util;
+
+/**
+ * Pomocné metódy pre normalizáciu textu pri porovnávaní mien a adries.
+ *
+ * Odstránenie diakritiky je riešené tabuľkou pre znaky Latin-1 a Latin Extended-A,
+ * čo pokrýva slovenčinu, češtinu aj maďarčinu a je výrazne rýchlejšie
+ * ako {@link java.text.Normalizer} pri hromadnom spracovaní.
+ */
+public final class TextNormalizer
+{
+    // Tabuľka náhrad pre znaky U+00C0 až U+017F (malé písmená bez diakritiky)
+    private static final char[] FOLD_TABLE = new char[0x180 - 0xC0];
+
+    static
+    {
+        String source = "ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖØÙÚÛÜÝàáâãäåçèéêëìíîïñòóôõöøùúûüýÿ"
+                + "ĀāĂăĄąĆćĈĉĊċČčĎďĐđĒēĔĕĖėĘęĚěĜĝĞğĠġĢģĤĥĦħĨĩĪīĬĭĮįİıĴĵĶķĸĹĺĻļĽľĿŀŁł"
+                + "ŃńŅņŇňŉŊŋŌōŎŏŐőŒœŔŕŖŗŘřŚśŜŝŞşŠšŢţŤťŦŧŨũŪūŬŭŮůŰűŲųŴŵŶŷŸŹźŻżŽž";
+        String target = "aaaaaaceeeeiiiinoooooouuuuyaaaaaaceeeeiiiinoooooouuuuyy"
+                + "aaaaaaccccccccddddeeeeeeeeeegggggggghhhhiiiiiiiiiijjkkkllllllllll"
+                + "nnnnnnnnnoooooooorrrrrrssssssssttttttuuuuuuuuuuuuwwyyyzzzzzz";
+
+        for (int i = 0; i < FOLD_TABLE.length; i++)
+        {
+            FOLD_TABLE[i] = Character.toLowerCase((char) (0xC0 + i));
+        }
+        for (int i = 0; i < source.length(); i++)
+        {
+            FOLD_TABLE[source.charAt(i) - 0xC0] = target.charAt(i);
+        }
+    }
+
+    private TextNormalizer()
+    {
+    }
+
+    /**
+     * Prevedie jeden znak na malé písmeno bez diakritiky.
+     *
+     * @param c znak
+     * @return normalizovaný znak
+     */
+    public static char foldChar(char c)
+    {
+        if (c < 0x80)
+        {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+        }
+        if (c >= 0xC0 && c < 0x180)
+        {
+            return FOLD_TABLE[c - 0xC0];
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Prevedie text na malé písmená bez diakritiky ("Hlavná" → "hlavna").
+     *
+     * @param text vstupný text
+     * @return normalizovaný text, pre null prázdny reťazec
+     */
+    public static String fold(String text)
+    {
+        if (text == null)
+        {
+            return "";
+        }
+
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++)
+        {
+            chars[i] = foldChar(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Normalizuje text na porovnávací kľúč - malé písmená bez diakritiky, interpunkcia
+     * sa nahradí medzerou a viacnásobné medzery sa zlúčia ("Hlavná  5," → "hlavna 5").
+     *
+     * @param text vstupný text
+     * @return porovnávací kľúč
+     */
+    public static String toKey(String text)
+    {
+        if (text == null)
+        {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = foldChar(text.charAt(i));
+            if (Character.isLetterOrDigit(c))
+            {
+                if (pendingSpace && sb.length() > 0)
+                {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                pendingSpace = false;
+            }
+            else
+            {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Zistí, či text obsahuje znaky s diakritikou.
+     *
+     * @param text vstupný text
+     * @return true ak text obsahuje aspoň jeden znak mimo ASCII
+     */
+    public static boolean hasDiacritics(String text)
+    {
+        if (text == null)
+        {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++)
+        {
+            if (text.charAt(i) >= 0x80)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
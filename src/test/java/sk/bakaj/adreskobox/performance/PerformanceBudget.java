@@ -0,0 +1,196 @@
+package sk.bakaj.adreskobox.performance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Výkonové rozpočty pre testy záťaže.
+ *
+ * Čas záťaže sa neporovnáva v milisekundách, ale ako násobok času kalibračnej úlohy
+ * nameranej na tom istom stroji v tom istom behu - rozpočty tak platia na rýchlom
+ * aj pomalom počítači. Alokované bajty sa porovnávajú priamo a počítajú sa za všetky vlákna
+ * JVM (vrátane paralelných úloh a vlákien, ktoré počas behu skončia). Základné hodnoty sú
+ * v {@code performance-baseline.properties}; s {@code -Dperf.record=true} sa namerané
+ * hodnoty iba zapíšu do {@code target/performance-baseline.properties} na prevzatie.
+ */
+final class PerformanceBudget
+{
+    private static final String BASELINE_RESOURCE = "/performance-baseline.properties";
+    private static final Path RECORD_FILE = Path.of("target", "performance-baseline.properties");
+
+    private final Properties baseline = new Properties();
+    private final Properties recorded = new Properties();
+    private final double timeTolerance;
+    private final double allocationTolerance;
+    private final boolean record;
+    private long calibrationNanos;
+
+    /** Výsledok sa ukladá sem, aby JIT kalibráciu neodstránil */
+    private static volatile long sink;
+
+    PerformanceBudget() throws IOException
+    {
+        try (InputStream input = PerformanceBudget.class.getResourceAsStream(BASELINE_RESOURCE))
+        {
+            if (input != null)
+            {
+                baseline.load(input);
+            }
+        }
+        timeTolerance = Double.parseDouble(System.getProperty("perf.tolerance", "30")) / 100;
+        allocationTolerance = Double.parseDouble(System.getProperty("perf.allocationTolerance", "15")) / 100;
+        record = Boolean.parseBoolean(System.getProperty("perf.record", "false"));
+    }
+
+    /**
+     * Zmeria kalibračnú úlohu - práca s reťazcami, mapou a triedením ako pri spracovaní adries.
+     */
+    void calibrate()
+    {
+        calibrationNanos = measure(3, 7, PerformanceBudget::calibrationWorkload).nanos;
+    }
+
+    private static void calibrationWorkload()
+    {
+        Random random = new Random(1);
+        List<String> words = new ArrayList<>(200_000);
+        for (int i = 0; i < 200_000; i++)
+        {
+            words.add("Ulica " + random.nextInt(50_000) + ", " + (10_000 + random.nextInt(90_000)) + " Obec");
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : words)
+        {
+            counts.merge(word.toLowerCase(Locale.ROOT), 1, Integer::sum);
+        }
+        Collections.sort(words);
+        sink = counts.size() + words.get(0).length();
+    }
+
+    /**
+     * Spustí záťaž a vráti najlepší čas a najmenšiu alokáciu z meraných behov. Alokácia
+     * je súčet za všetky vlákna - záťaž môže časť práce odovzdať iným vláknam.
+     *
+     * @param warmups počet zahrievacích behov (nemerajú sa)
+     * @param runs počet meraných behov
+     * @param workload záťaž
+     */
+    Measurement measure(int warmups, int runs, Workload workload)
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try
+        {
+            for (int i = 0; i < warmups; i++)
+            {
+                workload.run();
+            }
+
+            long bestNanos = Long.MAX_VALUE;
+            long leastBytes = Long.MAX_VALUE;
+            for (int i = 0; i < runs; i++)
+            {
+                System.gc();
+                long bytesBefore = threads.getTotalThreadAllocatedBytes();
+                long start = System.nanoTime();
+                workload.run();
+                long nanos = System.nanoTime() - start;
+                long bytes = threads.getTotalThreadAllocatedBytes() - bytesBefore;
+                bestNanos = Math.min(bestNanos, nanos);
+                leastBytes = Math.min(leastBytes, bytes);
+            }
+            return new Measurement(bestNanos, leastBytes);
+        }
+        catch (Exception e)
+        {
+            throw new AssertionError("Záťaž skončila chybou: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Overí meranie voči základu, v režime zápisu ho iba zaznamená.
+     *
+     * @param name názov záťaže v súbore základov
+     * @param measurement namerané hodnoty
+     */
+    void check(String name, Measurement measurement)
+    {
+        double ratio = measurement.nanos / (double) calibrationNanos;
+        System.out.printf(Locale.ROOT, "%s: %.1f ms (%.2f× kalibrácie %.1f ms), alokácie %.1f MB%n", name,
+                measurement.nanos / 1e6, ratio, calibrationNanos / 1e6, measurement.bytes / 1e6);
+
+        if (record)
+        {
+            recorded.setProperty(name + ".timeRatio", String.format(Locale.ROOT, "%.3f", ratio));
+            recorded.setProperty(name + ".allocatedBytes", String.valueOf(measurement.bytes));
+            return;
+        }
+
+        String baselineRatio = baseline.getProperty(name + ".timeRatio");
+        String baselineBytes = baseline.getProperty(name + ".allocatedBytes");
+        if (baselineRatio == null || baselineBytes == null)
+        {
+            fail("Chýba základ pre " + name + " - spustite mvn -Pperf test -Dperf.record=true");
+        }
+
+        double ratioLimit = Double.parseDouble(baselineRatio) * (1 + timeTolerance);
+        assertTrue(ratio <= ratioLimit, String.format(Locale.ROOT,
+                "%s je pomalšie: %.2f× kalibrácie, základ %s×, limit %.2f×", name, ratio, baselineRatio, ratioLimit));
+
+        long bytesLimit = (long) (Long.parseLong(baselineBytes) * (1 + allocationTolerance));
+        assertTrue(measurement.bytes <= bytesLimit, String.format(Locale.ROOT,
+                "%s alokuje viac: %d B, základ %s B, limit %d B", name, measurement.bytes, baselineBytes, bytesLimit));
+    }
+
+    /**
+     * V režime zápisu uloží namerané základy do target/performance-baseline.properties.
+     */
+    void writeRecorded() throws IOException
+    {
+        if (!record || recorded.isEmpty())
+        {
+            return;
+        }
+        Files.createDirectories(RECORD_FILE.getParent());
+        try (OutputStream output = Files.newOutputStream(RECORD_FILE))
+        {
+            recorded.store(output, "Základy výkonových testov - skopírujte do src/test/resources");
+        }
+        System.out.println("Základy zapísané do " + RECORD_FILE.toAbsolutePath());
+    }
+
+    @FunctionalInterface
+    interface Workload
+    {
+        void run() throws Exception;
+    }
+
+    /**
+     * Najlepší čas a najmenšia alokácia z meraných behov.
+     */
+    static final class Measurement
+    {
+        final long nanos;
+        final long bytes;
+
+        Measurement(long nanos, long bytes)
+        {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package sk.bakaj.adreskobox.performance;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import sk.bakaj.adreskobox.model.ImportedRecordStore;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.service.ExcelService;
+import sk.bakaj.adreskobox.service.FileService;
+import sk.bakaj.adreskobox.service.PDFService;
+import sk.bakaj.adreskobox.service.SyntheticDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Výkonové testy hlavných záťaží: import CSV, kontrola rozmerov, PDF so štítkami a podacie hárky.
+ * Bežia iba v profile perf: {@code mvn -Pperf test}.
+ */
+@Tag("performance")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PerformanceRegressionTest
+{
+    private static final String TEMPLATE_PATH = "templates/podaci-harok.xlsx";
+
+    private Path tempDir;
+    private PerformanceBudget budget;
+    private final FileService fileService = new FileService();
+    private final PDFService pdfService = new PDFService();
+    private final ExcelService excelService = new ExcelService();
+    private final LabelFormat format = LabelFormat.getPredefinedFormatList().get(0);
+
+    private File csvFile;
+    private List<Parent> parents;
+
+    @BeforeAll
+    void setUp(@TempDir Path tempDir) throws IOException
+    {
+        this.tempDir = tempDir;
+        budget = new PerformanceBudget();
+        budget.calibrate();
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42);
+        csvFile = tempDir.resolve("ziaci-50k.csv").toFile();
+        generator.writeCsv(csvFile, 50_000);
+
+        parents = new ArrayList<>(10_000);
+        generator.generate(10_000, row -> parents.add(new Parent(row[2], row[4])));
+    }
+
+    @AfterAll
+    void tearDown() throws IOException
+    {
+        budget.writeRecorded();
+    }
+
+    @Test
+    void csvImport50k()
+    {
+        int[] rows = new int[1];
+        budget.check("csvImport50k", budget.measure(2, 5, () ->
+        {
+            ImportedRecordStore store = fileService.readRecords(csvFile);
+            rows[0] = store.size();
+        }));
+        assertEquals(50_000, rows[0]);
+    }
+
+    @Test
+    void fitChecks10k()
+    {
+        int[] fitting = new int[1];
+        budget.check("fitChecks10k", budget.measure(2, 5, () ->
+        {
+            fitting[0] = 0;
+            for (Parent parent : parents)
+            {
+                if (pdfService.checkIfLabelFits(parent, format))
+                {
+                    fitting[0]++;
+                }
+            }
+        }));
+    }
+
+    @Test
+    void bulkFitCheck10k()
+    {
+        // Paralelná hromadná kontrola - alokácie vlákien spoločného poolu sa rátajú tiež
+        int[] notFitting = new int[1];
+        budget.check("bulkFitCheck10k", budget.measure(2, 5, () ->
+                notFitting[0] = pdfService.checkLabelsFit(parents, format).getNotFittingCount()));
+    }
+
+    @Test
+    void pdf5000Labels()
+    {
+        List<Parent> labels = parents.subList(0, 5_000);
+        budget.check("pdf5000Labels", budget.measure(1, 3, () ->
+                pdfService.generateLabels(labels, format, OutputStream.nullOutputStream())));
+    }
+
+    @Test
+    void submissionSheets500() throws IOException
+    {
+        // 12 príjemcov na hárok
+        List<Parent> recipients = new ArrayList<>(parents.subList(0, 6_000));
+        Path outputDirectory = Files.createDirectories(tempDir.resolve("harky"));
+        int[] sheets = new int[1];
+        budget.check("submissionSheets500", budget.measure(1, 2, () ->
+                sheets[0] = excelService.createSubmissionSheets(recipients, "Základná škola", "Školská 1",
+                        "811 01 Bratislava", TEMPLATE_PATH, outputDirectory.toFile()).size()));
+        assertEquals(500, sheets[0]);
+    }
+}
@@ -0,0 +1,78 @@
+package sk.bakaj.adreskobox.service;
+
+import org.junit.jupiter.api.Test;
+import sk.bakaj.adreskobox.model.FitCheckReport;
+import sk.bakaj.adreskobox.model.LabelFormat;
+import sk.bakaj.adreskobox.model.Parent;
+import sk.bakaj.adreskobox.model.PdfOutputOptions;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kontrola rozmerov štítkov - rozhodnutie a presah sa počítajú na rovnakých zalomených riadkoch.
+ */
+class PDFServiceTest
+{
+    private static final float POINTS_PER_MM = 2.834645669f;
+    private static final float LINE_HEIGHT = 12f;
+    private static final float FONT_SIZE = 10f;
+    private static final float PADDING = 2f;
+
+    private final PDFService pdfService = new PDFService();
+
+    /** Štítok 60 × 18 mm - tri riadky po 12 b sa zmestia, štvrtý už nie */
+    private final LabelFormat format = new LabelFormat("Test 60 x 18 mm", 60, 18, 3, 15,
+            10, 10, 10, 10, 0, 0, 60);
+
+    @Test
+    void heightOverflowIsMeasuredOnWrappedLines()
+    {
+        Parent parent = new Parent("Ján Novák", "Nábrežie armádneho generála Ludvíka Svobodu 12, 811 01 Bratislava");
+        String[] printed = PDFService.getPrintedLines(parent.getLabelLines());
+        float areaWidth = (float) format.getWidth() * POINTS_PER_MM - 2 * PADDING;
+        float areaHeight = (float) format.getHeight() * POINTS_PER_MM - 2 * PADDING;
+
+        // Bez zalomenia by sa riadky zmestili na výšku, ulica je však širšia ako plocha
+        LabelLayoutEngine engine = pdfService.getLayoutEngine(PdfOutputOptions.standard());
+        LabelLayoutEngine.MeasuredLines measured = engine.measure(printed);
+        assertTrue(printed.length * LINE_HEIGHT <= areaHeight);
+        assertTrue(measured.getMaxWidth() * FONT_SIZE / 1000f > areaWidth);
+
+        int wrappedLines = engine.wrap(measured, areaWidth * 1000f / FONT_SIZE).size();
+        assertTrue(wrappedLines > printed.length);
+
+        FitCheckReport report = pdfService.checkLabelsFit(List.of(parent), format);
+
+        assertFalse(report.fits(0));
+        assertArrayEquals(new float[printed.length], report.getLineOverflows(0));
+        float expected = wrappedLines * LINE_HEIGHT - areaHeight;
+        assertEquals(expected, report.getHeightOverflow(0), 0.01f);
+        assertEquals(0, report.getWorstIndex());
+        assertEquals(expected, report.getWorstOverflow(), 0.01f);
+    }
+
+    @Test
+    void widthOverflowIsReportedOnlyForUnbreakableWord()
+    {
+        String word = "Hviezdoslavovonábrežiegenerálaštefánika";
+        Parent parent = new Parent("Ján Novák", word + " 5, 811 01 Bratislava");
+        float areaWidth = (float) format.getWidth() * POINTS_PER_MM - 2 * PADDING;
+
+        LabelLayoutEngine engine = pdfService.getLayoutEngine(PdfOutputOptions.standard());
+        float wordWidth = engine.measure(new String[] { word }).getLineWidth(0) * FONT_SIZE / 1000f;
+        assertTrue(wordWidth > areaWidth);
+
+        FitCheckReport report = pdfService.checkLabelsFit(List.of(parent), format);
+
+        assertFalse(report.fits(0));
+        float[] overflows = report.getLineOverflows(0);
+        assertEquals(0f, overflows[0]);
+        assertEquals(wordWidth - areaWidth, overflows[1], 0.01f);
+        assertEquals(0f, overflows[2]);
+    }
+}